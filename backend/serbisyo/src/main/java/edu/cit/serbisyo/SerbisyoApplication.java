@@ -2,8 +2,10 @@ package edu.cit.serbisyo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class SerbisyoApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,132 @@
+package edu.cit.serbisyo.config;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * Concurrent map for the in-memory caches whose entries expire, bounded in size.
+ *
+ * The owner says when an entry expires (from its key and value) and on which clock;
+ * times are compared by difference, so System::nanoTime is fine. Adding an entry to a
+ * full map first trims it back to 90% of the limit, dropping expired entries first and
+ * then the ones closest to expiry. One writer trims at a time; the others carry on
+ * without waiting. The limit is read on every check, so it may be an injected property.
+ */
+public final class BoundedExpiringMap<K, V> {
+
+    private final Map<K, V> entries = new ConcurrentHashMap<>();
+    private final IntSupplier maxSize;
+    private final LongSupplier clock;
+    private final ToLongBiFunction<K, V> expiresAt;
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    public BoundedExpiringMap(IntSupplier maxSize, LongSupplier clock, ToLongBiFunction<K, V> expiresAt) {
+        this.maxSize = maxSize;
+        this.clock = clock;
+        this.expiresAt = expiresAt;
+    }
+
+    // The entry, or null when there is none or it has expired (an expired one is removed)
+    public V get(K key) {
+        V value = entries.get(key);
+        if (value != null && isExpired(key, value, clock.getAsLong())) {
+            if (entries.remove(key, value)) {
+                expirations.incrementAndGet();
+            }
+            return null;
+        }
+        return value;
+    }
+
+    public void put(K key, V value) {
+        makeRoomFor(key);
+        entries.put(key, value);
+    }
+
+    // Like Map.computeIfAbsent; an existing entry is returned even if it has expired
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> create) {
+        V value = entries.get(key);
+        if (value != null) {
+            return value;
+        }
+        makeRoomFor(key);
+        return entries.computeIfAbsent(key, create);
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    // Entries dropped to make room
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    // Entries dropped because they had expired, by get() or purgeExpired()
+    public long getExpirations() {
+        return expirations.get();
+    }
+
+    // Drop every expired entry (for a scheduled sweep); returns how many were dropped
+    public int purgeExpired() {
+        long now = clock.getAsLong();
+        int removed = 0;
+        for (Map.Entry<K, V> entry : entries.entrySet()) {
+            if (isExpired(entry.getKey(), entry.getValue(), now) && entries.remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        expirations.addAndGet(removed);
+        return removed;
+    }
+
+    private void makeRoomFor(K key) {
+        if (entries.size() >= maxSize.getAsInt() && !entries.containsKey(key)) {
+            trim();
+        }
+    }
+
+    private void trim() {
+        if (!evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            long now = clock.getAsLong();
+            int excess = entries.size() - (int) (maxSize.getAsInt() * 0.9);
+            if (excess <= 0) {
+                return;
+            }
+            // Time left, so expired entries (negative) sort first
+            entries.entrySet().stream()
+                    .map(entry -> Map.entry(entry, expiresAt.applyAsLong(entry.getKey(), entry.getValue()) - now))
+                    .sorted(Comparator.comparingLong(Map.Entry::getValue))
+                    .limit(excess)
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(entry -> {
+                        if (entries.remove(entry.getKey(), entry.getValue())) {
+                            evictions.incrementAndGet();
+                        }
+                    });
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    private boolean isExpired(K key, V value, long now) {
+        return expiresAt.applyAsLong(key, value) - now <= 0;
+    }
+}
@@ -1,5 +1,6 @@
 package edu.cit.serbisyo.config;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -11,31 +12,101 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
+/**
+ * The application's only CORS handling.
+ *
+ * Runs before everything else, including the security chain. The allowed origins are
+ * resolved once into a map from origin to its ready-made response headers, so each
+ * request costs one map lookup. Preflight (OPTIONS) requests are answered here and
+ * never reach security, rate limiting or MVC.
+ */
 @Component
 @Order(Ordered.HIGHEST_PRECEDENCE)
 public class CorsPreflightFilter extends OncePerRequestFilter {
 
+    private static final String ALLOWED_METHODS = "GET, POST, PUT, DELETE, OPTIONS, PATCH";
+    private static final String DEFAULT_ALLOWED_HEADERS = "Authorization, Content-Type, Accept, X-Requested-With, Origin";
+    private static final String EXPOSED_HEADERS = "Authorization, Retry-After";
+    private static final String MAX_AGE_SECONDS = "3600";
+
     @Value("${app.frontend.url:https://serbisyo.vercel.app}")
     private String frontendUrl;
 
+    @Value("${app.cors.allowed-origins:https://serbisyo.vercel.app,http://localhost:5173,https://accounts.google.com}")
+    private String allowedOrigins;
+
+    private Map<String, OriginHeaders> headersByOrigin;
+
+    @PostConstruct
+    public void init() {
+        Map<String, OriginHeaders> headers = new HashMap<>();
+        headers.put(frontendUrl.trim(), new OriginHeaders(frontendUrl.trim()));
+        Arrays.stream(allowedOrigins.split(","))
+                .map(String::trim)
+                .filter(origin -> !origin.isEmpty())
+                .forEach(origin -> headers.put(origin, new OriginHeaders(origin)));
+        headersByOrigin = Map.copyOf(headers);
+    }
+
     @Override
     protected void doFilterInternal(
             HttpServletRequest request,
             HttpServletResponse response,
             FilterChain filterChain) throws ServletException, IOException {
 
-        response.setHeader("Access-Control-Allow-Origin", frontendUrl);
-        response.setHeader("Access-Control-Allow-Credentials", "true");
-        response.setHeader("Access-Control-Allow-Methods", "GET, POST, PUT, DELETE, OPTIONS");
-        response.setHeader("Access-Control-Max-Age", "3600");
-        response.setHeader("Access-Control-Allow-Headers", "Authorization, Content-Type, Accept, X-Requested-With, Origin");
+        String origin = request.getHeader("Origin");
+        if (origin == null) {
+            // Same-origin or non-browser request: nothing to do
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        OriginHeaders headers = headersByOrigin.get(origin);
+        boolean preflight = "OPTIONS".equalsIgnoreCase(request.getMethod())
+                && request.getHeader("Access-Control-Request-Method") != null;
+
+        if (headers == null) {
+            response.addHeader("Vary", "Origin");
+            if (preflight) {
+                response.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            } else {
+                filterChain.doFilter(request, response);
+            }
+            return;
+        }
+
+        headers.apply(response);
 
         // For preflight OPTIONS requests, return OK immediately
-        if ("OPTIONS".equalsIgnoreCase(request.getMethod())) {
+        if (preflight) {
+            String requestedHeaders = request.getHeader("Access-Control-Request-Headers");
+            response.setHeader("Access-Control-Allow-Methods", ALLOWED_METHODS);
+            response.setHeader("Access-Control-Allow-Headers",
+                    requestedHeaders != null && !requestedHeaders.isBlank() ? requestedHeaders : DEFAULT_ALLOWED_HEADERS);
+            response.setHeader("Access-Control-Max-Age", MAX_AGE_SECONDS);
             response.setStatus(HttpServletResponse.SC_OK);
         } else {
             filterChain.doFilter(request, response);
         }
     }
-} 
\ No newline at end of file
+
+    // Response headers for one allowed origin, built once at startup
+    private static class OriginHeaders {
+        private final String origin;
+
+        private OriginHeaders(String origin) {
+            this.origin = origin;
+        }
+
+        private void apply(HttpServletResponse response) {
+            response.setHeader("Access-Control-Allow-Origin", origin);
+            response.setHeader("Access-Control-Allow-Credentials", "true");
+            response.setHeader("Access-Control-Expose-Headers", EXPOSED_HEADERS);
+            response.addHeader("Vary", "Origin");
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package edu.cit.serbisyo.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps small, frequently served upload files in memory.
+ *
+ * Only used for the content-addressed part of /uploads, whose files never change once
+ * written; the only invalidation needed is when the blob collector deletes a file.
+ * Files up to max-file-size are read once and served from a byte array afterwards; the
+ * cache is LRU-bounded by total bytes.
+ */
+@Component
+public class HotFileCacheResolver extends AbstractResourceResolver {
+
+    @Value("${app.uploads.hot-cache.max-bytes:33554432}")
+    private long maxBytes;
+
+    @Value("${app.uploads.hot-cache.max-file-size:262144}")
+    private long maxFileSize;
+
+    private final LinkedHashMap<String, CachedResource> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long cachedBytes;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    @Override
+    protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath,
+                                               List<? extends Resource> locations, ResourceResolverChain chain) {
+        synchronized (entries) {
+            CachedResource cached = entries.get(requestPath);
+            if (cached != null) {
+                hits.incrementAndGet();
+                return cached;
+            }
+        }
+        misses.incrementAndGet();
+
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource == null) {
+            return null;
+        }
+        try {
+            long length = resource.contentLength();
+            if (length > maxFileSize || length > maxBytes) {
+                return resource;
+            }
+            CachedResource cached = new CachedResource(resource.getContentAsByteArray(), resource.getFilename(), resource.lastModified());
+            put(requestPath, cached);
+            return cached;
+        } catch (IOException e) {
+            // Serve straight from disk if it could not be read into memory
+            return resource;
+        }
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+                                            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+
+    private void put(String requestPath, CachedResource resource) {
+        synchronized (entries) {
+            CachedResource previous = entries.put(requestPath, resource);
+            cachedBytes += resource.contentLength() - (previous != null ? previous.contentLength() : 0);
+            Iterator<CachedResource> eldest = entries.values().iterator();
+            while (cachedBytes > maxBytes && eldest.hasNext()) {
+                cachedBytes -= eldest.next().contentLength();
+                eldest.remove();
+            }
+        }
+    }
+
+    // Drop a file's cached copy, given its path below the uploads directory ("ab/cd/abcd...png")
+    public void evict(String relativePath) {
+        synchronized (entries) {
+            CachedResource removed = entries.remove(relativePath);
+            if (removed != null) {
+                cachedBytes -= removed.contentLength();
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (entries) {
+            stats.put("entries", entries.size());
+            stats.put("cachedBytes", cachedBytes);
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("maxFileSize", maxFileSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", misses.get());
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        return stats;
+    }
+
+    // In-memory copy that still reports the file's name (for the content type) and modification time
+    private static final class CachedResource extends ByteArrayResource {
+        private final String filename;
+        private final long lastModified;
+
+        private CachedResource(byte[] content, String filename, long lastModified) {
+            super(content, filename);
+            this.filename = filename;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public long lastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package edu.cit.serbisyo.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Lets MySQL Connector/J send a JDBC batch as multi-row statements.
+ *
+ * Without rewriteBatchedStatements the driver still sends one INSERT per row, so the
+ * batched writers (notifications, conversation summaries, user import) would gain
+ * nothing. A value set explicitly in the datasource configuration is left alone.
+ */
+@Configuration
+public class JdbcBatchingConfig {
+
+    @Bean
+    public static BeanPostProcessor rewriteBatchedStatementsPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource dataSource
+                        && !dataSource.getDataSourceProperties().containsKey("rewriteBatchedStatements")
+                        && (dataSource.getJdbcUrl() == null || !dataSource.getJdbcUrl().contains("rewriteBatchedStatements"))) {
+                    dataSource.addDataSourceProperty("rewriteBatchedStatements", "true");
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -1,21 +1,28 @@
 package edu.cit.serbisyo.config;
 
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContext;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import edu.cit.serbisyo.security.RoleAuthorities;
 import edu.cit.serbisyo.service.CustomUserDetailsService;
 
 import java.io.IOException;
+
 @Component
 public class JwtFilter extends OncePerRequestFilter {
 
@@ -25,31 +32,53 @@ public class JwtFilter extends OncePerRequestFilter {
     @Autowired
     ApplicationContext context;
 
+    @Autowired
+    private JwtPrincipalCache principalCache;
+
+    // When true, confirm the token's account still exists (at most once per cache TTL)
+    @Value("${security.jwt.verify-user:true}")
+    private boolean verifyUser;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
-    
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
-            username = jwtUtil.extractUserName(token);
-            
-            // You can access email and role if needed
-            // String email = jwtUtil.extractEmail(token);
-            // String role = jwtUtil.extractRole(token);
-        }
-    
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = context.getBean(CustomUserDetailsService.class).loadUserByUsername(username);
-            if (jwtUtil.validateToken(token, userDetails)) {
-                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                authToken.setDetails(new WebAuthenticationDetailsSource()
-                        .buildDetails(request));
-                SecurityContextHolder.getContext().setAuthentication(authToken);
+
+        if (authHeader != null && authHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String token = authHeader.substring(7);
+            try {
+                // One parse (or a cache hit) checks signature, expiry and revocation
+                Claims claims = jwtUtil.verify(token);
+                String username = claims.getSubject();
+
+                if (username != null && (!verifyUser || userExists(username))) {
+                    UserDetails userDetails = User.withUsername(username)
+                            .password("")
+                            .authorities(RoleAuthorities.authoritiesFor(claims.get("role", String.class)))
+                            .build();
+                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authToken.setDetails(new WebAuthenticationDetailsSource()
+                            .buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                // Invalid or expired token: continue unauthenticated and let authorization reject it
             }
         }
     
         filterChain.doFilter(request, response);
     }
-}
\ No newline at end of file
+
+    private boolean userExists(String username) {
+        if (principalCache.isVerified(username)) {
+            return true;
+        }
+        try {
+            context.getBean(CustomUserDetailsService.class).loadUserByUsername(username);
+            principalCache.markVerified(username);
+            return true;
+        } catch (UsernameNotFoundException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package edu.cit.serbisyo.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Signing and verification keys for JWTs.
+ *
+ * HS256 (default) uses the shared jwt.secret, as before (HMAC strength follows the
+ * secret's length). RS256 and ES256 sign with a
+ * private key and stamp its key id ("kid") in the token header; verification looks the
+ * kid up in a public-key set loaded once at startup. Nodes that only validate tokens
+ * need just the public keys, so replicas can be added without sharing a secret.
+ *
+ * Keys live in jwt.keys-dir as PEM files: {kid}.pub.pem for every key that should still
+ * be accepted, and {kid}.key.pem (PKCS#8) for the key this node signs with, selected by
+ * jwt.signing-key-id; startup fails if that kid lacks either file. To rotate, add the
+ * new pair, point jwt.signing-key-id at it, and delete the old public key once tokens
+ * signed with it have expired.
+ */
+@Component
+public class JwtKeyProvider extends SigningKeyResolverAdapter {
+    private static final Logger log = LoggerFactory.getLogger(JwtKeyProvider.class);
+
+    @Value("${jwt.algorithm:HS256}")
+    private String algorithmName;
+
+    @Value("${jwt.secret:}")
+    private String secret;
+
+    @Value("${jwt.keys-dir:}")
+    private String keysDir;
+
+    @Value("${jwt.signing-key-id:}")
+    private String signingKeyId;
+
+    private SignatureAlgorithm algorithm;
+    private Key signingKey;
+    private Key hmacKey;
+    private Map<String, PublicKey> publicKeys = Collections.emptyMap();
+
+    @PostConstruct
+    public void init() {
+        algorithm = SignatureAlgorithm.forName(algorithmName.trim().toUpperCase(Locale.ROOT));
+
+        if (algorithm.isHmac()) {
+            if (secret.isBlank()) {
+                throw new IllegalStateException("jwt.secret is required for " + algorithm.getValue());
+            }
+            hmacKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
+            signingKey = hmacKey;
+            // Same choice signWith(key) always made: the strongest HS* the secret's length allows
+            algorithm = SignatureAlgorithm.forSigningKey(hmacKey);
+            return;
+        }
+        if (algorithm != SignatureAlgorithm.RS256 && algorithm != SignatureAlgorithm.ES256) {
+            throw new IllegalStateException("Unsupported jwt.algorithm: " + algorithmName + " (use HS256, RS256 or ES256)");
+        }
+        if (keysDir.isBlank()) {
+            throw new IllegalStateException("jwt.keys-dir is required for " + algorithm.getValue());
+        }
+
+        try {
+            publicKeys = loadPublicKeys(Paths.get(keysDir));
+            if (publicKeys.isEmpty()) {
+                throw new IllegalStateException("No *.pub.pem keys found in " + keysDir);
+            }
+            if (!signingKeyId.isBlank()) {
+                // A signing node must be able to verify what it signs, on this and every other node
+                Path privateKeyFile = Paths.get(keysDir, signingKeyId + ".key.pem");
+                if (!Files.exists(privateKeyFile)) {
+                    throw new IllegalStateException("jwt.signing-key-id " + signingKeyId + " has no private key file " + privateKeyFile);
+                }
+                if (!publicKeys.containsKey(signingKeyId)) {
+                    throw new IllegalStateException("jwt.signing-key-id " + signingKeyId + " has no matching "
+                            + signingKeyId + ".pub.pem in " + keysDir);
+                }
+                signingKey = KeyFactory.getInstance(keyFactoryAlgorithm())
+                        .generatePrivate(new PKCS8EncodedKeySpec(readPem(privateKeyFile)));
+            }
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to load JWT keys from " + keysDir, e);
+        }
+
+        log.info("JWT {}: {} verification key(s), {}", algorithm.getValue(), publicKeys.size(),
+                signingKey != null ? "signing with kid " + signingKeyId : "verify-only node");
+    }
+
+    public SignatureAlgorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    // Key id to put in issued tokens' headers; null for the shared-secret mode
+    public String getSigningKeyId() {
+        return algorithm.isHmac() ? null : signingKeyId;
+    }
+
+    public Key getSigningKey() {
+        if (signingKey == null) {
+            throw new IllegalStateException("This node has no JWT signing key (verify-only)");
+        }
+        return signingKey;
+    }
+
+    public Set<String> getKeyIds() {
+        return publicKeys.keySet();
+    }
+
+    // jjwt 0.11 declares this with the raw JwsHeader, so the override has to match it
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Key resolveSigningKey(JwsHeader header, Claims claims) {
+        return resolveKey((JwsHeader<?>) header);
+    }
+
+    private Key resolveKey(JwsHeader<?> header) {
+        if (algorithm.isHmac()) {
+            if (!SignatureAlgorithm.forName(header.getAlgorithm()).isHmac()) {
+                throw new JwtException("Unexpected token algorithm: " + header.getAlgorithm());
+            }
+            return hmacKey;
+        }
+        if (!algorithm.getValue().equals(header.getAlgorithm())) {
+            throw new JwtException("Unexpected token algorithm: " + header.getAlgorithm());
+        }
+
+        String keyId = header.getKeyId();
+        PublicKey key = keyId != null ? publicKeys.get(keyId) : null;
+        if (key == null) {
+            throw new JwtException("Unknown token key id: " + keyId);
+        }
+        return key;
+    }
+
+    private Map<String, PublicKey> loadPublicKeys(Path dir) throws IOException, GeneralSecurityException {
+        KeyFactory keyFactory = KeyFactory.getInstance(keyFactoryAlgorithm());
+        Map<String, PublicKey> keys = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*.pub.pem")) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                String keyId = fileName.substring(0, fileName.length() - ".pub.pem".length());
+                keys.put(keyId, keyFactory.generatePublic(new X509EncodedKeySpec(readPem(file))));
+            }
+        }
+        return Map.copyOf(keys);
+    }
+
+    private String keyFactoryAlgorithm() {
+        return algorithm == SignatureAlgorithm.ES256 ? "EC" : "RSA";
+    }
+
+    private static byte[] readPem(Path file) throws IOException {
+        String pem = Files.readString(file)
+                .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(pem);
+    }
+}
@@ -0,0 +1,50 @@
+package edu.cit.serbisyo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers, for a short time, that a token's user still exists.
+ *
+ * JwtFilter builds the principal from the token claims; when account verification is
+ * enabled it only goes to the database for a user once per TTL instead of on every
+ * request. The map is bounded by max-size.
+ */
+@Component
+public class JwtPrincipalCache {
+
+    @Value("${security.jwt.user-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${security.jwt.user-cache.max-size:10000}")
+    private int maxSize;
+
+    private final BoundedExpiringMap<String, Long> verifiedUntil =
+            new BoundedExpiringMap<>(() -> maxSize, System::currentTimeMillis, (userName, expiresAt) -> expiresAt);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public boolean isVerified(String userName) {
+        if (verifiedUntil.get(userName) != null) {
+            hits.incrementAndGet();
+            return true;
+        }
+        misses.incrementAndGet();
+        return false;
+    }
+
+    public void markVerified(String userName) {
+        verifiedUntil.put(userName, System.currentTimeMillis() + ttlSeconds * 1000);
+    }
+
+    public void evict(String userName) {
+        verifiedUntil.remove(userName);
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of("size", verifiedUntil.size(), "hits", hits.get(), "misses", misses.get());
+    }
+}
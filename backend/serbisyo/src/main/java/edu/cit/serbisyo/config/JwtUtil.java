@@ -1,16 +1,19 @@
 package edu.cit.serbisyo.config;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.io.Decoders;
-import io.jsonwebtoken.security.Keys;
 
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import javax.crypto.KeyGenerator;
-import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
 import java.util.Date;
@@ -21,8 +24,34 @@ import java.util.function.Function;
 @Service
 public class JwtUtil {
 
-    @Value("${jwt.secret}")
-    private String secretkey;
+    // Issue time in milliseconds; iat only has seconds, too coarse to compare with a revocation cutoff
+    static final String ISSUED_AT_MS = "issuedAtMs";
+
+    // Cloned per call: cheaper than MessageDigest.getInstance, and safe on any thread
+    private static final MessageDigest SHA_256 = newSha256();
+
+    // Access token lifetime; clients renew through /api/user-auth/refresh
+    @Value("${jwt.access-token-ttl-ms:86400000}")
+    private long accessTokenTtlMs;
+
+    @Autowired
+    private JwtKeyProvider keyProvider;
+
+    // Built once; JwtParser is immutable and safe to share across request threads
+    private JwtParser parser;
+
+    @Autowired
+    private VerifiedTokenCache verifiedTokenCache;
+
+    @Autowired
+    private TokenRevocationList revocationList;
+
+    @PostConstruct
+    public void init() {
+        parser = Jwts.parserBuilder()
+                .setSigningKeyResolver(keyProvider)
+                .build();
+    }
 
     // Remove the constructor that generates a random key
 
@@ -43,12 +72,18 @@ public class JwtUtil {
         Map<String, Object> claims = new HashMap<>();
         claims.put("email", email);
         claims.put("role", role);
-        return Jwts.builder()
+        long now = System.currentTimeMillis();
+        claims.put(ISSUED_AT_MS, now);
+        JwtBuilder builder = Jwts.builder();
+        if (keyProvider.getSigningKeyId() != null) {
+            builder.setHeaderParam("kid", keyProvider.getSigningKeyId());
+        }
+        return builder
                 .setClaims(claims)
                 .setSubject(username)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 60 * 60 * 1000 * 24))
-                .signWith(getKey())
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + accessTokenTtlMs))
+                .signWith(keyProvider.getSigningKey(), keyProvider.getAlgorithm())
                 .compact();
     }
     
@@ -61,11 +96,6 @@ public class JwtUtil {
         return extractClaim(token, claims -> claims.get("role", String.class));
     }
 
-    private SecretKey getKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretkey);
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-
     public String extractUserName(String token) {
         // extract the username from jwt token
         return extractClaim(token, Claims::getSubject);
@@ -77,11 +107,84 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parseClaims(token);
+    }
+
+    /**
+     * Verify the signature and expiry and return the claims, in a single parse.
+     * Throws a JwtException (e.g. ExpiredJwtException) if the token is not valid.
+     */
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
+    /**
+     * Claims of a token presented by a client. Repeat presentations are served from
+     * VerifiedTokenCache instead of re-verifying the signature; revocation is checked
+     * every time. Throws a JwtException if the token is invalid, expired or revoked.
+     */
+    public Claims verify(String token) {
+        String tokenHash = hashToken(token);
+        if (revocationList.isRevoked(tokenHash)) {
+            throw new JwtException("Token has been revoked");
+        }
+
+        Claims claims = verifiedTokenCache.get(tokenHash);
+        if (claims == null) {
+            claims = parseClaims(token);
+            verifiedTokenCache.put(tokenHash, claims);
+        }
+
+        if (revocationList.isRevokedForUser(claims.getSubject(), issuedAtMillis(claims))) {
+            throw new JwtException("Token has been revoked");
+        }
+        return claims;
+    }
+
+    // Revoke one token (logout)
+    public void revoke(String token) {
+        Claims claims = parseClaims(token);
+        String tokenHash = hashToken(token);
+        revocationList.revokeToken(tokenHash, claims.getExpiration());
+        verifiedTokenCache.evict(tokenHash);
+    }
+
+    // Revoke every token issued to the user so far (password or account change)
+    public void revokeAllForUser(String userName) {
+        revocationList.revokeAllForUser(userName);
+    }
+
+    public Map<String, Object> getTokenCacheStats() {
+        Map<String, Object> stats = new HashMap<>(verifiedTokenCache.getStats());
+        stats.putAll(revocationList.getStats());
+        return stats;
+    }
+
+    // Tokens issued before ISSUED_AT_MS existed fall back to iat, rounded down to the second
+    private static Long issuedAtMillis(Claims claims) {
+        Long issuedAtMs = claims.get(ISSUED_AT_MS, Long.class);
+        if (issuedAtMs != null) {
+            return issuedAtMs;
+        }
+        return claims.getIssuedAt() != null ? claims.getIssuedAt().getTime() : null;
+    }
+
+    // Tokens are kept in memory and in the revocation tables only as SHA-256 digests
+    static String hashToken(String token) {
+        try {
+            MessageDigest digest = (MessageDigest) SHA_256.clone();
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public boolean validateToken(String token, UserDetails userDetails) {
@@ -0,0 +1,41 @@
+package edu.cit.serbisyo.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps beans that must run without being asked for out of lazy initialization.
+ *
+ * With spring.main.lazy-initialization=true (the prod profile) a bean is only created
+ * when something first uses it, so @Scheduled jobs would never be registered and
+ * startup listeners and queue workers would not start. Any bean declaring a scheduled
+ * method or an event listener (including @TransactionalEventListener) stays eager.
+ */
+@Configuration
+public class LazyInitializationConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerBackgroundBeans() {
+        return (beanName, beanDefinition, beanType) -> hasBackgroundMethod(beanType);
+    }
+
+    private static boolean hasBackgroundMethod(Class<?> beanType) {
+        if (beanType == null || beanType.getName().startsWith("org.springframework.")) {
+            return false;
+        }
+        AtomicBoolean found = new AtomicBoolean();
+        ReflectionUtils.doWithMethods(beanType,
+                method -> found.set(true),
+                method -> !found.get()
+                        && (AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)
+                            || AnnotatedElementUtils.hasAnnotation(method, EventListener.class)));
+        return found.get();
+    }
+}
@@ -0,0 +1,247 @@
+package edu.cit.serbisyo.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Token-bucket rate limiting per route, keyed by user (when a JWT was presented) or
+ * client IP otherwise.
+ *
+ * Runs in the security chain right after JwtFilter so the user is known. Rules come
+ * from app.rate-limit.rules as comma-separated "pattern=capacity:refillPerMinute"
+ * entries; the first pattern that matches the request path applies. Buckets are
+ * immutable snapshots swapped in with compare-and-set, so the hot path takes no locks.
+ * A bucket expires from the map once it has refilled completely, since a fresh bucket
+ * would be identical; idle buckets are swept periodically, and when the map fills up
+ * the buckets closest to full go first, so throttled clients keep their state.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    // Also the answer when a rule never refills (refillPerMinute 0)
+    private static final long MAX_RETRY_AFTER_SECONDS = 3600;
+
+    @Value("${app.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.rate-limit.rules:" +
+            "/api/user-auth/login=10:10," +
+            "/api/user-auth/register=5:5," +
+            "/api/user-auth/refresh=30:30," +
+            "/api/oauth/**=20:20," +
+            "/api/payments/**=30:30," +
+            "/uploads/**=300:300," +
+            "/api/images/**=300:300," +
+            "/api/**=600:600}")
+    private String rulesSpec;
+
+    @Value("${app.rate-limit.max-buckets:100000}")
+    private int maxBuckets;
+
+    // Only enable behind a proxy that overwrites X-Forwarded-For
+    @Value("${app.rate-limit.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<Rule> rules = new ArrayList<>();
+    private final BoundedExpiringMap<String, AtomicReference<Bucket>> buckets =
+            new BoundedExpiringMap<>(() -> maxBuckets, System::nanoTime, this::fullAt);
+
+    @PostConstruct
+    public void init() {
+        for (String entry : rulesSpec.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            String[] patternAndLimit = trimmed.split("=");
+            String[] limit = patternAndLimit[1].split(":");
+            rules.add(new Rule(patternAndLimit[0].trim(), Long.parseLong(limit[0].trim()), Double.parseDouble(limit[1].trim())));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || "OPTIONS".equalsIgnoreCase(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Rule rule = findRule(path);
+        if (rule == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        String key = rule.pattern + "|" + clientKey(request);
+        AtomicReference<Bucket> bucketRef = buckets.computeIfAbsent(key, k -> new AtomicReference<>(Bucket.full(rule)));
+        long now = System.nanoTime();
+
+        while (true) {
+            Bucket current = bucketRef.get();
+            Bucket refilled = current.refill(rule, now);
+            if (refilled.tokens < 1.0) {
+                rule.rejected.incrementAndGet();
+                response.setStatus(429);
+                response.setHeader("Retry-After", String.valueOf(retryAfterSeconds(rule, refilled)));
+                response.setHeader("X-RateLimit-Limit", String.valueOf(rule.capacity));
+                response.setHeader("X-RateLimit-Remaining", "0");
+                response.setContentType("application/json");
+                response.getWriter().write("{\"message\":\"Too many requests, please retry later\"}");
+                return;
+            }
+            Bucket consumed = new Bucket(refilled.tokens - 1.0, refilled.lastRefillNanos);
+            if (bucketRef.compareAndSet(current, consumed)) {
+                rule.allowed.incrementAndGet();
+                response.setHeader("X-RateLimit-Limit", String.valueOf(rule.capacity));
+                response.setHeader("X-RateLimit-Remaining", String.valueOf((long) consumed.tokens));
+                break;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.sweep-ms:60000}")
+    public void sweepIdleBuckets() {
+        buckets.purgeExpired();
+    }
+
+    // When the bucket will have refilled completely; an unknown rule's bucket is already idle
+    private long fullAt(String key, AtomicReference<Bucket> bucketRef) {
+        Bucket bucket = bucketRef.get();
+        Rule rule = findRuleByPattern(key.substring(0, key.indexOf('|')));
+        if (rule == null || bucket.tokens >= rule.capacity) {
+            return bucket.lastRefillNanos;
+        }
+        return bucket.lastRefillNanos + (long) ((rule.capacity - bucket.tokens) / rule.capacity * rule.nanosToFill);
+    }
+
+    private static long retryAfterSeconds(Rule rule, Bucket bucket) {
+        if (rule.tokensPerNano <= 0) {
+            return MAX_RETRY_AFTER_SECONDS;
+        }
+        double seconds = Math.ceil((1.0 - bucket.tokens) / rule.tokensPerNano / 1_000_000_000L);
+        return (long) Math.min(MAX_RETRY_AFTER_SECONDS, Math.max(1, seconds));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> perRule = new LinkedHashMap<>();
+        for (Rule rule : rules) {
+            Map<String, Object> ruleStats = new HashMap<>();
+            ruleStats.put("capacity", rule.capacity);
+            ruleStats.put("refillPerMinute", rule.refillPerMinute);
+            ruleStats.put("allowed", rule.allowed.get());
+            ruleStats.put("rejected", rule.rejected.get());
+            perRule.put(rule.pattern, ruleStats);
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("buckets", buckets.size());
+        stats.put("maxBuckets", maxBuckets);
+        stats.put("sweptBuckets", buckets.getExpirations());
+        stats.put("evictedBuckets", buckets.getEvictions());
+        stats.put("rules", perRule);
+        return stats;
+    }
+
+    private Rule findRule(String path) {
+        for (Rule rule : rules) {
+            if (pathMatcher.match(rule.pattern, path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private Rule findRuleByPattern(String pattern) {
+        for (Rule rule : rules) {
+            if (rule.pattern.equals(pattern)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()
+                && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isBlank()) {
+                return "ip:" + forwardedFor.split(",")[0].trim();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static class Rule {
+        private final String pattern;
+        private final long capacity;
+        private final double refillPerMinute;
+        private final double tokensPerNano;
+        // From empty to full; a rule that never refills counts as refilling over MAX_RETRY_AFTER_SECONDS
+        private final double nanosToFill;
+        private final AtomicLong allowed = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+
+        private Rule(String pattern, long capacity, double refillPerMinute) {
+            this.pattern = pattern;
+            this.capacity = capacity;
+            this.refillPerMinute = refillPerMinute;
+            this.tokensPerNano = refillPerMinute / 60_000_000_000.0;
+            this.nanosToFill = tokensPerNano > 0
+                    ? Math.min(capacity / tokensPerNano, Long.MAX_VALUE / 4)
+                    : TimeUnit.SECONDS.toNanos(MAX_RETRY_AFTER_SECONDS);
+        }
+    }
+
+    // Immutable bucket state; replaced as a whole with compareAndSet
+    private static class Bucket {
+        private final double tokens;
+        private final long lastRefillNanos;
+
+        private Bucket(double tokens, long lastRefillNanos) {
+            this.tokens = tokens;
+            this.lastRefillNanos = lastRefillNanos;
+        }
+
+        private static Bucket full(Rule rule) {
+            return new Bucket(rule.capacity, System.nanoTime());
+        }
+
+        private Bucket refill(Rule rule, long now) {
+            long elapsed = now - lastRefillNanos;
+            if (elapsed <= 0) {
+                return this;
+            }
+            return new Bucket(Math.min(rule.capacity, tokens + elapsed * rule.tokensPerNano), now);
+        }
+    }
+}
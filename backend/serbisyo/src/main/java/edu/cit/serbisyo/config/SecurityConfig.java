@@ -1,9 +1,10 @@
 package edu.cit.serbisyo.config;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -11,19 +12,14 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-import org.springframework.web.cors.CorsConfiguration;
-import org.springframework.web.cors.CorsConfigurationSource;
-import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.security.web.csrf.CookieCsrfTokenRepository;
 
 import edu.cit.serbisyo.service.CustomUserDetailsService;
+import edu.cit.serbisyo.service.PasswordHashingService;
 import edu.cit.serbisyo.security.OAuth2LoginSuccessHandler;
-
-import java.util.Arrays;
-import java.util.List;
+import edu.cit.serbisyo.security.RoleAuthorities;
 
 @Configuration
 @EnableWebSecurity
@@ -32,20 +28,23 @@ public class SecurityConfig {
     @Autowired
     private JwtFilter jwtFilter;
 
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
     @Autowired
     private CustomUserDetailsService customUserDetailsService;
     
     @Autowired
     private OAuth2LoginSuccessHandler oAuth2LoginSuccessHandler;
-    
-    @Value("${app.frontend.url:http://localhost:5173}")
-    private String frontendUrl;
 
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+    
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http
-                // Enable CORS
-                .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+                // CORS is handled once, ahead of this chain, by CorsPreflightFilter
+                .cors(cors -> cors.disable())
                 // CSRF configuration - disable for API but enable for OAuth endpoints
                 .csrf(csrf -> csrf
                     .ignoringRequestMatchers("/api/**") // Disable for API endpoints
@@ -54,8 +53,24 @@ public class SecurityConfig {
                 // Configure authorization rules
                 .authorizeHttpRequests(request -> request
                         // Public endpoints
-                        .requestMatchers("/api/user-auth/register", "/api/user-auth/login", "/api/oauth/**").permitAll()
+                        .requestMatchers("/api/user-auth/register", "/api/user-auth/login", "/api/user-auth/refresh", "/api/oauth/**").permitAll()
+                        // Dot directories under uploads hold temp files and the notification dead letters
+                        .requestMatchers("/uploads/.*/**").denyAll()
                         .requestMatchers("/uploads/**").permitAll()
+                        // Operational stats are for admins only
+                        .requestMatchers(HttpMethod.GET,
+                                "/api/images/variant-stats", "/api/images/cache-stats",
+                                "/api/notifications/pipeline-stats", "/api/push/stats", "/api/rate-limit/stats",
+                                "/api/user-auth/token-cache-stats", "/api/user-auth/password-hashing-stats")
+                                .hasAuthority(RoleAuthorities.ADMIN)
+                        // Any recipient can be targeted, so only admins may queue notifications directly
+                        .requestMatchers(HttpMethod.POST, "/api/notifications/enqueue").hasAuthority(RoleAuthorities.ADMIN)
+                        // A full recount over every review
+                        .requestMatchers(HttpMethod.POST, "/api/reviews/rebuildRatings").hasAuthority(RoleAuthorities.ADMIN)
+                        // Image redirects by blob key (a SHA-256 in hex)
+                        .requestMatchers(HttpMethod.GET, "/api/images/{blobKey:[0-9a-f]{64}}").permitAll()
+                        // Event streams authenticate with a single-use ticket parameter (see PushController)
+                        .requestMatchers("/api/push/stream").permitAll()
                         .requestMatchers("/", "/error").permitAll()
                         // Allow access to payment endpoints
                         .requestMatchers("/api/test-gcash-payment", "/api/create-gcash-checkout").permitAll()
@@ -71,13 +86,23 @@ public class SecurityConfig {
                         .successHandler(oAuth2LoginSuccessHandler))
                 // Add JWT filter
                 .addFilterBefore(jwtFilter, UsernamePasswordAuthenticationFilter.class)
+                // Rate limit after JwtFilter so authenticated callers are limited per user
+                .addFilterAfter(rateLimitFilter, JwtFilter.class)
                 .build();
     }
 
+    // Keep the rate limiter out of the plain servlet filter chain; it only runs inside the security chain
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilterRegistration(RateLimitFilter filter) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
-        provider.setPasswordEncoder(new BCryptPasswordEncoder(12));
+        provider.setPasswordEncoder(passwordHashingService.getEncoder());
         provider.setUserDetailsService(customUserDetailsService);
         return provider;
     }
@@ -86,38 +111,4 @@ public class SecurityConfig {
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
     }
-    
-    @Bean
-    public CorsConfigurationSource corsConfigurationSource() {
-        CorsConfiguration configuration = new CorsConfiguration();
-        // Allow requests from multiple origins
-        configuration.setAllowedOrigins(Arrays.asList(
-            frontendUrl,
-            "https://serbisyo.vercel.app",
-            "http://localhost:5173",
-            "https://accounts.google.com"
-        ));
-        // Allow all common HTTP methods
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
-        // Allow all common headers
-        configuration.setAllowedHeaders(Arrays.asList(
-            "Authorization", 
-            "Content-Type", 
-            "X-Requested-With", 
-            "Accept", 
-            "Origin", 
-            "Access-Control-Request-Method", 
-            "Access-Control-Request-Headers"
-        ));
-        // Allow cookies and credentials
-        configuration.setAllowCredentials(true);
-        // Expose the Authorization header
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
-        // Set max age for preflight requests
-        configuration.setMaxAge(3600L);
-        
-        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
-        source.registerCorsConfiguration("/**", configuration);
-        return source;
-    }
 }
\ No newline at end of file
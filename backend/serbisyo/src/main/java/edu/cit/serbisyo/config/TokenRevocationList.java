@@ -0,0 +1,127 @@
+package edu.cit.serbisyo.config;
+
+import edu.cit.serbisyo.entity.RevokedTokenEntity;
+import edu.cit.serbisyo.entity.UserTokenCutoffEntity;
+import edu.cit.serbisyo.repository.RevokedTokenRepository;
+import edu.cit.serbisyo.repository.UserTokenCutoffRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tokens that must no longer be accepted.
+ *
+ * Logout revokes a single token (by hash) until it would have expired anyway.
+ * A credential change revokes every token the user was issued up to that moment.
+ * Revocations are written to the RevokedToken and UserTokenCutoff tables and checked
+ * against an in-memory copy; every node reloads rows written since its last sync, so
+ * a revocation made on another node is honoured within sync-ms and none is lost on
+ * restart. Entries are dropped once no token they could match is still valid.
+ */
+@Component
+public class TokenRevocationList {
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationList.class);
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    // Longest lifetime of any issued token; per-user cutoffs are kept this long
+    @Value("${security.jwt.max-token-lifetime-ms:${jwt.access-token-ttl-ms:86400000}}")
+    private long maxTokenLifetimeMs;
+
+    // Rows committed late (or by a node with a slower clock) are still picked up
+    @Value("${security.jwt.revocation-sync-overlap-ms:60000}")
+    private long syncOverlapMs;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private UserTokenCutoffRepository userTokenCutoffRepository;
+
+    private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+    private final Map<String, Long> userCutoffs = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastSync;
+
+    public void revokeToken(String tokenHash, Date expiresAt) {
+        long until = expiresAt != null ? expiresAt.getTime() : System.currentTimeMillis() + maxTokenLifetimeMs;
+        revokedTokenRepository.insertIfAbsent(tokenHash, toDateTime(until), LocalDateTime.now());
+        revokedTokens.put(tokenHash, until);
+    }
+
+    // Reject every token for the user issued up to now
+    public void revokeAllForUser(String userName) {
+        long cutoff = System.currentTimeMillis();
+        userTokenCutoffRepository.upsertCutoff(userName, cutoff, LocalDateTime.now());
+        userCutoffs.merge(userName, cutoff, Math::max);
+    }
+
+    public boolean isRevoked(String tokenHash) {
+        return revokedTokens.containsKey(tokenHash);
+    }
+
+    // issuedAtMillis is null for a token without an issue time, which is always rejected once a cutoff exists
+    public boolean isRevokedForUser(String userName, Long issuedAtMillis) {
+        Long cutoff = userCutoffs.get(userName);
+        return cutoff != null && (issuedAtMillis == null || issuedAtMillis <= cutoff);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        sync();
+    }
+
+    // Pick up revocations written by other nodes
+    @Scheduled(fixedDelayString = "${security.jwt.revocation-sync-ms:5000}")
+    public void sync() {
+        LocalDateTime started = LocalDateTime.now();
+        LocalDateTime since = lastSync == null ? BEGINNING : lastSync.minusNanos(syncOverlapMs * 1_000_000);
+        try {
+            for (RevokedTokenEntity token : revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(since, started)) {
+                revokedTokens.put(token.getTokenHash(), toMillis(token.getExpiresAt()));
+            }
+            for (UserTokenCutoffEntity cutoff : userTokenCutoffRepository.findByUpdatedAtAfter(since)) {
+                userCutoffs.merge(cutoff.getUserName(), cutoff.getCutoffMillis(), Math::max);
+            }
+            lastSync = started;
+        } catch (RuntimeException e) {
+            log.warn("Could not load token revocations; retrying on the next sync", e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.revocation-purge-ms:600000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        revokedTokens.values().removeIf(until -> until <= now);
+        userCutoffs.values().removeIf(cutoff -> cutoff + maxTokenLifetimeMs <= now);
+        try {
+            revokedTokenRepository.deleteExpired(toDateTime(now));
+            userTokenCutoffRepository.deleteOlderThan(now - maxTokenLifetimeMs);
+        } catch (RuntimeException e) {
+            log.warn("Could not purge expired token revocations", e);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        return Map.of("revokedTokens", revokedTokens.size(), "revokedUsers", userCutoffs.size(),
+                "lastSync", lastSync == null ? "never" : lastSync.toString());
+    }
+
+    private static LocalDateTime toDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,82 @@
+package edu.cit.serbisyo.config;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Claims of tokens whose signature has already been verified, keyed by token hash.
+ *
+ * A client sends the same token on every request for up to a day, so after the first
+ * verification the claims are served from here. Entries never outlive the token's own
+ * expiry, and the cache is bounded by max-size. Revocation is checked by JwtUtil on
+ * every request, cached or not.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    @Value("${security.jwt.token-cache.max-size:20000}")
+    private int maxSize;
+
+    private final BoundedExpiringMap<String, CachedClaims> entries =
+            new BoundedExpiringMap<>(() -> maxSize, System::currentTimeMillis, (tokenHash, cached) -> cached.expiresAt);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public Claims get(String tokenHash) {
+        CachedClaims cached = entries.get(tokenHash);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached.claims;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(String tokenHash, Claims claims) {
+        if (claims.getExpiration() == null) {
+            // Never cache tokens without an expiry
+            return;
+        }
+        entries.put(tokenHash, new CachedClaims(claims, claims.getExpiration().getTime()));
+    }
+
+    public void evict(String tokenHash) {
+        entries.remove(tokenHash);
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.token-cache.purge-ms:600000}")
+    public void purgeExpired() {
+        entries.purgeExpired();
+    }
+
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", entries.size());
+        stats.put("maxSize", maxSize);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", entries.getEvictions() + entries.getExpirations());
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        return stats;
+    }
+
+    private static class CachedClaims {
+        private final Claims claims;
+        private final long expiresAt;
+
+        private CachedClaims(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
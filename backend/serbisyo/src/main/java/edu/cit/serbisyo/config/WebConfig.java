@@ -1,54 +1,53 @@
 package edu.cit.serbisyo.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.cors.CorsConfiguration;
-import org.springframework.web.cors.CorsConfigurationSource;
-import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
-import org.springframework.web.filter.CorsFilter;
-import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.util.StringUtils;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
-import java.util.Arrays;
+import java.time.Duration;
 
 @Configuration
 @EnableWebMvc
 public class WebConfig implements WebMvcConfigurer {
 
-    @Value("${app.frontend.url:https://serbisyo.vercel.app}")
-    private String frontendUrl;
+    @Value("${app.uploads.dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.uploads.legacy-max-age:PT1H}")
+    private Duration legacyMaxAge;
+
+    @Autowired
+    private HotFileCacheResolver hotFileCacheResolver;
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        // Map the "/uploads/**" URL path to the "uploads/" directory on the server
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations("file:uploads/");
-    }
+        String location = "file:" + uploadDir + "/";
 
-    @Override
-    public void addCorsMappings(CorsRegistry registry) {
-        registry.addMapping("/**")
-                .allowedOrigins("https://serbisyo.vercel.app", "http://localhost:5173")
-                .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH")
-                .allowedHeaders("*")
-                .allowCredentials(true)
-                .maxAge(3600);
+        // Content-addressed files (ab/cd/<sha256>[_variant].ext) never change under their URL:
+        // cache them for a year, and use the hash as a strong ETag for revalidation.
+        // Range requests and 304s are handled by the resource handler itself.
+        registry.addResourceHandler("/uploads/{shard1:[0-9a-f]{2}}/{shard2:[0-9a-f]{2}}/*")
+                .addResourceLocations(location)
+                .setCacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                .setEtagGenerator(WebConfig::contentHashEtag)
+                .resourceChain(false)
+                .addResolver(hotFileCacheResolver);
+
+        // Anything else under "/uploads/**" (files from before the blob store) may still be replaced
+        registry.addResourceHandler("/uploads/**")
+                .addResourceLocations(location)
+                .setCacheControl(CacheControl.maxAge(legacyMaxAge).cachePublic());
     }
 
-    @Bean
-    public CorsFilter corsFilter() {
-        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
-        CorsConfiguration config = new CorsConfiguration();
-        config.setAllowCredentials(true);
-        config.addAllowedOrigin("https://serbisyo.vercel.app");
-        config.addAllowedOrigin("http://localhost:5173");
-        config.addAllowedHeader("*");
-        config.addAllowedMethod("*");
-        config.setExposedHeaders(Arrays.asList("Authorization"));
-        source.registerCorsConfiguration("/**", config);
-        return new CorsFilter(source);
+    // The file name without its extension is the content hash (plus the variant suffix)
+    private static String contentHashEtag(Resource resource) {
+        String filename = resource.getFilename();
+        return filename != null ? StringUtils.stripFilenameExtension(filename) : null;
     }
 }
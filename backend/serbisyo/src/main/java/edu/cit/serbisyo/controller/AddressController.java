@@ -3,6 +3,7 @@ package edu.cit.serbisyo.controller;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -11,6 +12,7 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import edu.cit.serbisyo.entity.AddressEntity;
@@ -38,6 +40,17 @@ public class AddressController {
         return addressService.getAllAddresses();
     }
 
+    @GetMapping("/list")
+    public ResponseEntity<?> listAddresses(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(addressService.listAddresses(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PutMapping("/updateAddress/{addressId}")
     public AddressEntity updateAddress(@PathVariable Long addressId, @RequestBody AddressEntity updatedAddress) {
         return addressService.updateAddress(addressId, updatedAddress);
@@ -6,13 +6,18 @@ import edu.cit.serbisyo.entity.ServiceProviderEntity;
 import edu.cit.serbisyo.repository.CustomerRepository;
 import edu.cit.serbisyo.repository.ServiceProviderRepository;
 import edu.cit.serbisyo.service.BookingService;
+import edu.cit.serbisyo.service.SlotConflictException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -37,8 +42,17 @@ public class BookingController {
     }
 
     @PostMapping("/postBooking")
-    public BookingEntity createBooking(@RequestBody BookingEntity booking) {
-        return bookingService.createBooking(booking);
+    public ResponseEntity<?> createBooking(@RequestBody BookingEntity booking) {
+        try {
+            return ResponseEntity.ok(bookingService.createBooking(booking));
+        } catch (SlotConflictException e) {
+            // The slot was taken by a concurrent booking
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
     @GetMapping("/getAll")
@@ -46,14 +60,33 @@ public class BookingController {
         return bookingService.getAllBookings();
     }
 
+    // READ A PAGE (keyset pagination)
+    @GetMapping("/list")
+    public ResponseEntity<?> listBookings(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String status) {
+        try {
+            return ResponseEntity.ok(bookingService.listBookings(cursor, limit, status));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/getById/{bookingId}")
     public BookingEntity getBookingById(@PathVariable Long bookingId) {
         return bookingService.getBookingById(bookingId);
     }
 
     @PutMapping("/updateBooking/{bookingId}")
-    public BookingEntity updateBooking(@PathVariable Long bookingId, @RequestBody BookingEntity updatedBooking) {
-        return bookingService.updateBooking(bookingId, updatedBooking);
+    public ResponseEntity<?> updateBooking(@PathVariable Long bookingId, @RequestBody BookingEntity updatedBooking) {
+        try {
+            return ResponseEntity.ok(bookingService.updateBooking(bookingId, updatedBooking));
+        } catch (SlotConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
     }
 
     @DeleteMapping("/delete/{bookingId}")
@@ -98,7 +131,12 @@ public class BookingController {
     }
 
     @GetMapping("/getProviderBookings")
-    public ResponseEntity<?> getProviderBookings() {
+    public ResponseEntity<?> getProviderBookings(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
         try {
             // Get current authenticated user
             Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -123,10 +161,27 @@ public class BookingController {
                 return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Provider ID is null for user: " + username);
             }
 
-            // Get bookings for services offered by this provider
-            List<BookingEntity> bookings = bookingService.getBookingsByProviderId(providerId);
-            return ResponseEntity.ok(bookings);
+            // Without paging or filters keep returning the plain list existing clients expect
+            if (status == null && from == null && to == null && page == null && size == null) {
+                List<BookingEntity> bookings = bookingService.getBookingsByProviderId(providerId);
+                return ResponseEntity.ok(bookings);
+            }
 
+            Page<BookingEntity> bookingPage = bookingService.getProviderBookings(
+                    providerId, status, from, to,
+                    page != null ? page : 0,
+                    size != null ? size : 20);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("content", bookingPage.getContent());
+            response.put("page", bookingPage.getNumber());
+            response.put("size", bookingPage.getSize());
+            response.put("totalElements", bookingPage.getTotalElements());
+            response.put("totalPages", bookingPage.getTotalPages());
+            return ResponseEntity.ok(response);
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             // Log the full exception for debugging
             e.printStackTrace();
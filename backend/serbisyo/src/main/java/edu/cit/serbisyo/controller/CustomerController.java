@@ -35,6 +35,18 @@ public class CustomerController {
         return customerService.getAllCustomers();
     }
 
+    // READ A PAGE (keyset pagination)
+    @GetMapping("/list")
+    public ResponseEntity<?> listCustomers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(customerService.listCustomers(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     // READ BY ID
     @GetMapping("/getById/{customerId}")
     public CustomerEntity getCustomerById(@PathVariable Long customerId) {
@@ -69,9 +81,10 @@ public class CustomerController {
     }
 
     @GetMapping("/getProfileImage/{customerId}")
-    public ResponseEntity<String> getProfileImage(@PathVariable Long customerId) {
+    public ResponseEntity<String> getProfileImage(@PathVariable Long customerId,
+            @RequestParam(required = false) String size) {
         try {
-            String profileImagePath = customerService.getProfileImage(customerId);
+            String profileImagePath = customerService.getProfileImage(customerId, size);
             return ResponseEntity.ok(profileImagePath);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
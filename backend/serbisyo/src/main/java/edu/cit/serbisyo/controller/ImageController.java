@@ -0,0 +1,67 @@
+package edu.cit.serbisyo.controller;
+
+import edu.cit.serbisyo.config.HotFileCacheResolver;
+import edu.cit.serbisyo.entity.StoredBlobEntity;
+import edu.cit.serbisyo.service.BlobStoreService;
+import edu.cit.serbisyo.service.ImageVariantService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+@RestController
+@RequestMapping("/api/images")
+public class ImageController {
+
+    @Autowired
+    private BlobStoreService blobStoreService;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private HotFileCacheResolver hotFileCacheResolver;
+
+    // Redirect to a resized variant: size is thumb, card, full or a width in pixels
+    @GetMapping("/{blobKey}")
+    public ResponseEntity<?> getImage(@PathVariable String blobKey,
+                                      @RequestParam(required = false) String size) {
+        try {
+            ImageVariantService.Variant variant = ImageVariantService.Variant.fromRequest(size);
+            StoredBlobEntity blob = blobStoreService.getBlob(blobKey);
+            String url = imageVariantService.resolveUrl(blob, variant);
+            // Only cache the redirect once it points at the variant itself
+            CacheControl cacheControl = url.equals(blob.getUrl())
+                    ? CacheControl.noCache()
+                    : CacheControl.maxAge(Duration.ofDays(1));
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .header(HttpHeaders.LOCATION, url)
+                    .cacheControl(cacheControl)
+                    .build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/variant-stats")
+    public Map<String, Object> getVariantStats() {
+        return imageVariantService.getStats();
+    }
+
+    @GetMapping("/cache-stats")
+    public Map<String, Object> getCacheStats() {
+        return hotFileCacheResolver.getStats();
+    }
+}
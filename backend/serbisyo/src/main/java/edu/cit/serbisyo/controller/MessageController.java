@@ -41,6 +41,17 @@ public class MessageController {
         return messageService.getAllMessages();
     }
 
+    @GetMapping("/list")
+    public ResponseEntity<?> listMessages(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(messageService.listMessages(cursor, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PutMapping("/updateMessage/{messageId}")
     public MessageEntity updateMessage(@PathVariable Long messageId, @RequestBody MessageEntity updatedMessage) {
         return messageService.updateMessage(messageId, updatedMessage);
@@ -80,8 +91,33 @@ public class MessageController {
         return messageService.getConversationBetweenUsers(userId1, userId2);
     }
 
+    // Cursor-based history: ?before=<messageId> pages back, ?after=<messageId> fetches only new messages
+    @GetMapping("/conversation/{userId1}/{userId2}/history")
+    public ResponseEntity<?> getConversationHistory(
+            @PathVariable Long userId1,
+            @PathVariable Long userId2,
+            @RequestParam(required = false) Long before,
+            @RequestParam(required = false) Long after,
+            @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(messageService.getConversationHistory(userId1, userId2, before, after, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/conversation-partners/{userId}")
-    public List<Map<String, Object>> getConversationPartners(@PathVariable Long userId) {
-        return messageService.getConversationPartners(userId);
+    public List<Map<String, Object>> getConversationPartners(
+            @PathVariable Long userId,
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        return messageService.getConversationPartners(userId, page, size);
+    }
+
+    // Mark every message the owner received from the partner as read
+    @PutMapping("/conversation/{ownerId}/{partnerId}/read")
+    public ResponseEntity<?> markConversationRead(@PathVariable Long ownerId, @PathVariable Long partnerId) {
+        int updated = messageService.markConversationRead(ownerId, partnerId);
+        return ResponseEntity.ok(Map.of("updated", updated));
     }
 }
@@ -1,12 +1,14 @@
 package edu.cit.serbisyo.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import edu.cit.serbisyo.entity.NotificationEntity;
 import edu.cit.serbisyo.service.NotificationService;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping(method = RequestMethod.GET, path = "/api/notifications")
@@ -20,11 +22,63 @@ public class NotificationController {
         return notificationService.createNotification(notification);
     }
 
+    // Fire-and-forget variant of /create: the notification is written asynchronously in a batch
+    @PostMapping("/enqueue")
+    public ResponseEntity<?> enqueueNotification(@RequestBody NotificationEntity notification) {
+        try {
+            notificationService.enqueueNotification(notification);
+            return ResponseEntity.accepted().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/pipeline-stats")
+    public Map<String, Object> getPipelineStats() {
+        return notificationService.getPipelineStats();
+    }
+
+    // One user's feed, newest first (cursor paginated)
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<?> getUserFeed(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = "false") boolean unreadOnly) {
+        try {
+            return ResponseEntity.ok(notificationService.getUserFeed(userId, cursor, limit, unreadOnly));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/user/{userId}/unread-count")
+    public Map<String, Object> getUnreadCount(@PathVariable Long userId) {
+        return Map.of("userId", userId, "unreadCount", notificationService.getUnreadCount(userId));
+    }
+
+    @PutMapping("/user/{userId}/read-all")
+    public Map<String, Object> markAllRead(@PathVariable Long userId) {
+        return Map.of("updated", notificationService.markAllRead(userId));
+    }
+
     @GetMapping("/getAll")
     public List<NotificationEntity> getAllNotifications() {
         return notificationService.getAllNotifications();
     }
 
+    @GetMapping("/list")
+    public ResponseEntity<?> listNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long userId) {
+        try {
+            return ResponseEntity.ok(notificationService.listNotifications(cursor, limit, userId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @PutMapping("/update/{notificationId}")
     public NotificationEntity updateNotification(@PathVariable Long notificationId, @RequestBody NotificationEntity updatedNotification) {
         return notificationService.updateNotification(notificationId, updatedNotification);
@@ -6,6 +6,7 @@ import java.util.UUID;
 import java.util.HashMap;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
@@ -20,7 +21,7 @@ import edu.cit.serbisyo.entity.AddressEntity;
 import edu.cit.serbisyo.entity.CustomerEntity;
 import edu.cit.serbisyo.entity.ServiceProviderEntity;
 import edu.cit.serbisyo.entity.UserAuthEntity;
-import edu.cit.serbisyo.repository.UserAuthRepository;
+import edu.cit.serbisyo.service.RefreshTokenService;
 import edu.cit.serbisyo.service.UserAuthService;
 
 @RestController
@@ -30,11 +31,11 @@ public class OAuthController {
     @Autowired
     private UserAuthService userAuthService;
     
-    @Autowired
-    private UserAuthRepository userAuthRepository;
-    
     @Autowired
     private JwtUtil jwtUtil;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
     
     @PostMapping("/register")
     public ResponseEntity<Map<String, String>> registerOAuthUser(
@@ -51,12 +52,6 @@ public class OAuthController {
             String platform = (String) userAuthMap.get("platform");
             boolean isMobile = "android".equalsIgnoreCase(platform) || Boolean.TRUE.equals(redirectToMobile);
             
-            // Check if email already exists
-            if (userAuthRepository.findByEmail(email) != null) {
-                return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(Map.of("message", "Email already registered"));
-            }
-            
             // Create user auth entity
             UserAuthEntity userAuth = new UserAuthEntity();
             userAuth.setUserName(userName);
@@ -108,16 +103,26 @@ public class OAuthController {
                 serviceProvider.setAddresses(List.of(address));
             }
             
-            // Register user
-            String result = userAuthService.registerUser(userAuth, customer, serviceProvider);
+            // Register user (the duplicate email/username check happens inside)
+            UserAuthEntity createdUser;
+            try {
+                createdUser = userAuthService.registerUserAccount(userAuth, customer, serviceProvider);
+            } catch (IllegalStateException e) {
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", e.getMessage().startsWith("Email") ? "Email already registered" : e.getMessage()));
+            } catch (DataIntegrityViolationException e) {
+                // A concurrent registration of the same email or username (in any case) won the unique key
+                return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(Map.of("message", "Email or username already exists."));
+            }
             
             // On success, generate token and return user details
-            UserAuthEntity createdUser = userAuthRepository.findByEmail(email);
             String token = jwtUtil.generateToken(createdUser.getUserName(), createdUser.getEmail(), createdUser.getRole());
             
             // Create response map
             Map<String, String> responseMap = new HashMap<>();
             responseMap.put("token", token);
+            responseMap.put("refreshToken", refreshTokenService.issue(createdUser));
             responseMap.put("userId", createdUser.getUserId().toString());
             responseMap.put("role", createdUser.getRole());
             responseMap.put("message", "Registration successful");
@@ -135,4 +140,14 @@ public class OAuthController {
                 .body(Map.of("message", "Registration failed: " + e.getMessage()));
         }
     }
-}
\ No newline at end of file
+
+    // Exchange the single-use code from the OAuth2 redirect for an access and refresh token
+    @PostMapping("/exchange")
+    public ResponseEntity<?> exchangeLoginCode(@RequestBody Map<String, String> body) {
+        try {
+            return ResponseEntity.ok(refreshTokenService.exchangeLoginCode(body.get("code")));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", e.getMessage()));
+        }
+    }
+}
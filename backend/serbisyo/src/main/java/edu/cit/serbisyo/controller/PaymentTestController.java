@@ -6,7 +6,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import reactor.core.publisher.Mono;
 
 import java.util.Map;
 
@@ -18,14 +17,16 @@ public class PaymentTestController {
     private PayMongoService payMongoService;
 
     @GetMapping("/test-gcash-payment")
-    public Mono<ResponseEntity<Map<String, Object>>> testGCashPayment() {
+    public ResponseEntity<Map<String, Object>> testGCashPayment() {
         double testAmount = 100.00; // 100 PHP
         String testDescription = "Test payment for SerbisYou";
         String successUrl = "http://localhost:5173/payment-success";
         String cancelUrl = "http://localhost:5173/payment-cancel";
 
-        return payMongoService.createCheckoutSession(testAmount, testDescription, successUrl, cancelUrl)
-                .map(response -> ResponseEntity.ok(response))
-                .onErrorResume(error -> Mono.just(ResponseEntity.badRequest().body(Map.of("error", error.getMessage()))));
+        try {
+            return ResponseEntity.ok(payMongoService.createCheckoutSession(testAmount, testDescription, successUrl, cancelUrl));
+        } catch (Exception error) {
+            return ResponseEntity.badRequest().body(Map.of("error", error.getMessage()));
+        }
     }
 }
\ No newline at end of file
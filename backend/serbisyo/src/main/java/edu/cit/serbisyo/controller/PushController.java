@@ -0,0 +1,52 @@
+package edu.cit.serbisyo.controller;
+
+import edu.cit.serbisyo.service.PushService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+@RestController
+@RequestMapping(path = "/api/push")
+public class PushController {
+
+    @Autowired
+    private PushService pushService;
+
+    // Single-use ticket for opening a stream, valid for a few seconds
+    @PostMapping("/ticket")
+    public ResponseEntity<?> issueTicket(Authentication authentication) {
+        try {
+            return ResponseEntity.ok(Map.of("ticket", pushService.issueTicket(authentication.getName())));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+    }
+
+    // Open an event stream of "message" and "notification" events for the ticket's user
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> stream(@RequestParam String ticket) {
+        Long userId;
+        try {
+            userId = pushService.authenticate(ticket);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        try {
+            return ResponseEntity.ok(pushService.subscribe(userId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).build();
+        }
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return pushService.getStats();
+    }
+}
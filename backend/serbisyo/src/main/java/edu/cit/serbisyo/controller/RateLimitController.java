@@ -0,0 +1,22 @@
+package edu.cit.serbisyo.controller;
+
+import edu.cit.serbisyo.config.RateLimitFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/rate-limit")
+public class RateLimitController {
+
+    @Autowired
+    private RateLimitFilter rateLimitFilter;
+
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return rateLimitFilter.getStats();
+    }
+}
@@ -68,6 +68,12 @@ public class ReviewController {
         return reviewService.getServiceRating(serviceId);
     }
 
+    // Recompute all service/provider rating aggregates from the reviews
+    @PostMapping("/rebuildRatings")
+    public Map<String, Object> rebuildRatingAggregates() {
+        return reviewService.rebuildRatingAggregates();
+    }
+
     @GetMapping("/can-review")
     public ResponseEntity<Boolean> canReviewBooking(@RequestParam Long customerId, @RequestParam Long bookingId) {
         boolean hasAlreadyReviewed = reviewService.hasCustomerReviewedBooking(customerId, bookingId);
@@ -58,6 +58,20 @@ public class ScheduleController {
         }
     }
 
+    @GetMapping("/provider/{providerId}/date/{date}")
+    public ResponseEntity<?> getProviderSchedulesByDate(
+            @PathVariable Long providerId,
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        try {
+            List<ScheduleEntity> schedules = scheduleService.getAvailableSchedulesForDate(providerId, date);
+            return new ResponseEntity<>(schedules, HttpStatus.OK);
+        } catch (NoSuchElementException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     @PutMapping("/{scheduleId}")
     public ResponseEntity<?> updateSchedule(@PathVariable Long scheduleId, @RequestBody ScheduleEntity schedule) {
         try {
@@ -90,6 +104,8 @@ public class ScheduleController {
         try {
             boolean isAvailable = scheduleService.isProviderAvailable(providerId, date, time);
             return new ResponseEntity<>(isAvailable, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
         }
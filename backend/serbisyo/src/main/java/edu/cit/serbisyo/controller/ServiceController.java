@@ -1,13 +1,17 @@
 package edu.cit.serbisyo.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import edu.cit.serbisyo.entity.ServiceEntity;
 import edu.cit.serbisyo.service.ServiceService;
 import edu.cit.serbisyo.service.ReviewService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -24,6 +28,9 @@ public class ServiceController {
     @Autowired
     private ReviewService reviewService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping("/print")
     public String print() {
         return "Service Controller is working!";
@@ -54,7 +61,7 @@ public class ServiceController {
             for (ServiceEntity service : services) {
                 Map<String, Object> serviceMap = new HashMap<>();
                 serviceMap.put("service", service);
-                serviceMap.put("rating", reviewService.getServiceRating(service.getServiceId()));
+                serviceMap.put("rating", reviewService.getServiceRating(service));
                 servicesWithRatings.add(serviceMap);
             }
             
@@ -80,16 +87,52 @@ public class ServiceController {
         return serviceService.getAllServices();
     }
 
+    // READ A PAGE (keyset pagination)
+    @GetMapping("/list")
+    public ResponseEntity<?> listServices(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long providerId) {
+        try {
+            return ResponseEntity.ok(serviceService.listServices(cursor, limit, categoryId, providerId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // READ the catalogue: flat projection of service, category, provider summary and rating,
+    // streamed as a JSON array so large catalogues are never held in memory
+    @GetMapping("/catalogue")
+    public ResponseEntity<StreamingResponseBody> getCatalogue(
+            @RequestParam(required = false) Long providerId,
+            @RequestParam(required = false) Long categoryId) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                serviceService.streamCatalogue(providerId, categoryId, entry -> {
+                    try {
+                        generator.writeObject(entry);
+                    } catch (java.io.IOException e) {
+                        throw new java.io.UncheckedIOException(e);
+                    }
+                });
+                generator.writeEndArray();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
     // READ ALL with ratings
     @GetMapping("/getAllWithRatings")
     public List<Map<String, Object>> getAllServicesWithRatings() {
-        List<ServiceEntity> services = serviceService.getAllServices();
+        List<ServiceEntity> services = serviceService.getAllServicesForCatalogue();
         List<Map<String, Object>> servicesWithRatings = new ArrayList<>();
         
         for (ServiceEntity service : services) {
             Map<String, Object> serviceMap = new HashMap<>();
             serviceMap.put("service", service);
-            serviceMap.put("rating", reviewService.getServiceRating(service.getServiceId()));
+            serviceMap.put("rating", reviewService.getServiceRating(service));
             servicesWithRatings.add(serviceMap);
         }
         
@@ -110,7 +153,7 @@ public class ServiceController {
         
         if (service != null) {
             result.put("service", service);
-            result.put("rating", reviewService.getServiceRating(serviceId));
+            result.put("rating", reviewService.getServiceRating(service));
         }
         
         return result;
@@ -147,9 +190,10 @@ public class ServiceController {
     }
 
     @GetMapping("/getServiceImage/{serviceId}")
-    public ResponseEntity<String> getServiceImage(@PathVariable Long serviceId) {
+    public ResponseEntity<String> getServiceImage(@PathVariable Long serviceId,
+            @RequestParam(required = false) String size) {
         try {
-            String profileImagePath = serviceService.getServiceImage(serviceId);
+            String profileImagePath = serviceService.getServiceImage(serviceId, size);
             return ResponseEntity.ok(profileImagePath);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
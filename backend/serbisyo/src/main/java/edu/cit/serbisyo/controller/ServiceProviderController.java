@@ -29,6 +29,18 @@ public class ServiceProviderController {
         return serviceProviderService.getAllServiceProviders();
     }
 
+    @GetMapping("/list")
+    public ResponseEntity<?> listServiceProviders(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Boolean verified) {
+        try {
+            return ResponseEntity.ok(serviceProviderService.listServiceProviders(cursor, limit, verified));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
     @GetMapping("/getById/{providerId}")
     public ServiceProviderEntity getServiceProvider(@PathVariable Long providerId) {
         return serviceProviderService.getServiceProvider(providerId);
@@ -76,9 +88,10 @@ public class ServiceProviderController {
     }
 
     @GetMapping("/getServiceProviderImage/{providerId}")
-    public ResponseEntity<String> getServiceProviderImage(@PathVariable Long providerId) {
+    public ResponseEntity<String> getServiceProviderImage(@PathVariable Long providerId,
+            @RequestParam(required = false) String size) {
         try {
-            String profileImagePath = serviceProviderService.getServiceProviderImage(providerId);
+            String profileImagePath = serviceProviderService.getServiceProviderImage(providerId, size);
             return ResponseEntity.ok(profileImagePath);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
@@ -3,14 +3,29 @@ package edu.cit.serbisyo.controller;
 import edu.cit.serbisyo.entity.CustomerEntity;
 import edu.cit.serbisyo.entity.ServiceProviderEntity;
 import edu.cit.serbisyo.entity.UserAuthEntity;
+import edu.cit.serbisyo.security.RoleAuthorities;
 import edu.cit.serbisyo.service.UserAuthService;
+import edu.cit.serbisyo.service.UserImportService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
+import io.jsonwebtoken.JwtException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -19,13 +34,15 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 public class UserAuthController {
 
     private final UserAuthService userAuthService;
+    private final UserImportService userImportService;
 
-    public UserAuthController(UserAuthService userAuthService) {
+    public UserAuthController(UserAuthService userAuthService, UserImportService userImportService) {
         this.userAuthService = userAuthService;
+        this.userImportService = userImportService;
     }
 
     @PostMapping("/register")
-    public ResponseEntity<String> registerUser(@RequestBody Map<String, Object> requestBody) {
+    public ResponseEntity<Object> registerUser(@RequestBody Map<String, Object> requestBody) {
         try {
             ObjectMapper mapper = new ObjectMapper();
             UserAuthEntity userAuth = mapper.convertValue(requestBody.get("userAuth"), UserAuthEntity.class);
@@ -36,17 +53,97 @@ public class UserAuthController {
             return ResponseEntity.ok(result);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent registration of the same email or username (in any case) won the unique key
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", "Email or username already exists."));
         }
     }
 
-    @PostMapping("/login")
-    public ResponseEntity<Object> loginUser(@RequestBody UserAuthEntity userAuth) {
+    // Bulk import (admins only): a CSV file with a header row, or a JSON array of users
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Object> importUsers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                              InputStream body,
+                                              Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "Only admins can import users"));
+        }
         try {
-            Map<String, String> response = userAuthService.loginUser(userAuth);
-            return ResponseEntity.ok(response);
+            Map<String, Object> report = contentType.toLowerCase(Locale.ROOT).startsWith("text/csv")
+                    ? userImportService.importCsv(body)
+                    : userImportService.importJson(body);
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Could not read import: " + e.getMessage()));
+        }
+    }
+
+    // Accounts left unnormalized because they duplicate another account ignoring case (admins only)
+    @GetMapping("/normalization-conflicts")
+    public ResponseEntity<Object> getNormalizationConflicts(Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "Only admins can view normalization conflicts"));
+        }
+        return ResponseEntity.ok(userAuthService.getNormalizationConflicts());
+    }
+
+    // Resolve one by giving the account a new userName and/or email (admins only)
+    @PutMapping("/normalization-conflicts/{authId}")
+    public ResponseEntity<Object> resolveNormalizationConflict(@PathVariable Long authId,
+                                                               @RequestBody Map<String, String> body,
+                                                               Authentication authentication) {
+        if (!isAdmin(authentication)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(Map.of("message", "Only admins can resolve normalization conflicts"));
+        }
+        try {
+            UserAuthEntity resolved = userAuthService.resolveNormalizationConflict(authId, body.get("userName"), body.get("email"));
+            return ResponseEntity.ok(Map.of("userId", resolved.getUserId(), "userName", resolved.getUserName(),
+                    "email", String.valueOf(resolved.getEmail())));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(Map.of("message", e.getMessage()));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    // The password check runs on the hashing pool; the servlet thread is released meanwhile
+    @PostMapping("/login")
+    public CompletableFuture<ResponseEntity<Object>> loginUser(@RequestBody UserAuthEntity userAuth) {
+        CompletableFuture<Map<String, String>> login;
+        try {
+            login = userAuthService.loginUserAsync(userAuth);
+        } catch (RuntimeException e) {
+            login = CompletableFuture.failedFuture(e);
         }
+        return login
+                .<ResponseEntity<Object>>thenApply(ResponseEntity::ok)
+                .exceptionally(UserAuthController::loginFailure);
+    }
+
+    // Same statuses the synchronous endpoint produced; anything unexpected goes to the default error handling
+    private static ResponseEntity<Object> loginFailure(Throwable ex) {
+        Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+        if (cause instanceof IllegalArgumentException) {
+            return ResponseEntity.badRequest().body(Map.of("message", cause.getMessage()));
+        }
+        if (cause instanceof NoSuchElementException) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("message", String.valueOf(cause.getMessage())));
+        }
+        if (cause instanceof ResponseStatusException statusException) {
+            return ResponseEntity.status(statusException.getStatusCode())
+                    .body(Map.of("message", String.valueOf(statusException.getReason())));
+        }
+        if (cause instanceof RejectedExecutionException) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .body(Map.of("message", "Too many login attempts in progress, retry shortly"));
+        }
+        throw ex instanceof CompletionException completion ? completion : new CompletionException(cause);
+    }
+
+    @GetMapping("/password-hashing-stats")
+    public Map<String, Object> getPasswordHashingStats() {
+        return userAuthService.getPasswordHashingStats();
     }
 
     @GetMapping("/getAll")
@@ -70,10 +167,21 @@ public class UserAuthController {
         return ResponseEntity.ok(result);
     }
 
+    // Owners only; the role can be raised above Customer/Service Provider by an admin alone
     @PutMapping("/update/{authId}")
-    public ResponseEntity<String> updateUserAuth(@PathVariable Long authId, @RequestBody UserAuthEntity userAuth) {
-        String result = userAuthService.updateUserAuth(authId, userAuth);
-        return ResponseEntity.ok(result);
+    public ResponseEntity<String> updateUserAuth(@PathVariable Long authId, @RequestBody UserAuthEntity userAuth,
+                                                 Authentication authentication) {
+        try {
+            String result = userAuthService.updateUserAuth(authId, userAuth,
+                    authentication != null ? authentication.getName() : null, isAdmin(authentication));
+            return ResponseEntity.ok(result);
+        } catch (AccessDeniedException e) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Email or username already exists.");
+        }
     }
 
     @GetMapping("/validate-token")
@@ -85,6 +193,37 @@ public class UserAuthController {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("valid", false));
     }
 
+    // Revoke the bearer token used for this request
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(
+            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestBody(required = false) Map<String, String> body) {
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            return ResponseEntity.badRequest().body(Map.of("message", "Bearer token required"));
+        }
+        try {
+            userAuthService.logout(authHeader.substring(7), body != null ? body.get("refreshToken") : null);
+            return ResponseEntity.ok(Map.of("message", "Logged out"));
+        } catch (JwtException | IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", "Invalid token"));
+        }
+    }
+
+    // Exchange a refresh token for a new access token (and the next refresh token)
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody Map<String, String> body) {
+        try {
+            return ResponseEntity.ok(userAuthService.refresh(body.get("refreshToken")));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("message", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/token-cache-stats")
+    public Map<String, Object> getTokenCacheStats() {
+        return userAuthService.getTokenCacheStats();
+    }
+
     @PutMapping("/change-password/{authId}")
     public ResponseEntity<String> changePassword(
             @PathVariable Long authId,
@@ -99,4 +238,9 @@ public class UserAuthController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+
+    private static boolean isAdmin(Authentication authentication) {
+        return authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> RoleAuthorities.ADMIN.equals(authority.getAuthority()));
+    }
 }
@@ -0,0 +1,97 @@
+package edu.cit.serbisyo.dto;
+
+import edu.cit.serbisyo.entity.NotificationEntity;
+import edu.cit.serbisyo.service.NotificationEvent;
+
+import java.time.LocalDateTime;
+
+/**
+ * Payload of the "notification" push event.
+ *
+ * Notifications reach a client either from a direct save or from the batched pipeline;
+ * both are sent in this one shape, with the field names of the notification JSON the
+ * feed endpoints return. notificationId is null for pipeline writes, whose ids are not
+ * read back from the batch insert.
+ */
+public class NotificationPush {
+
+    private final Long notificationId;
+    private final Long userId;
+    private final String type;
+    private final String message;
+    private final boolean read;
+    private final LocalDateTime createdAt;
+    private final Long referenceId;
+    private final String referenceType;
+    private final Long senderId;
+    private final String senderName;
+
+    private NotificationPush(Long notificationId, Long userId, String type, String message, boolean read,
+                             LocalDateTime createdAt, Long referenceId, String referenceType,
+                             Long senderId, String senderName) {
+        this.notificationId = notificationId;
+        this.userId = userId;
+        this.type = type;
+        this.message = message;
+        this.read = read;
+        this.createdAt = createdAt;
+        this.referenceId = referenceId;
+        this.referenceType = referenceType;
+        this.senderId = senderId;
+        this.senderName = senderName;
+    }
+
+    public static NotificationPush from(NotificationEntity notification) {
+        return new NotificationPush(notification.getNotificationId(),
+                notification.getUser() != null ? notification.getUser().getUserId() : null,
+                notification.getType(), notification.getMessage(), notification.isRead(),
+                notification.getCreatedAt(), notification.getReferenceId(), notification.getReferenceType(),
+                notification.getSenderId(), notification.getSenderName());
+    }
+
+    public static NotificationPush from(NotificationEvent event) {
+        return new NotificationPush(null, event.getRecipientUserId(), event.getType(), event.getMessage(), false,
+                event.getCreatedAt(), event.getReferenceId(), event.getReferenceType(),
+                event.getSenderId(), event.getSenderName());
+    }
+
+    public Long getNotificationId() {
+        return notificationId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public boolean isRead() {
+        return read;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public Long getReferenceId() {
+        return referenceId;
+    }
+
+    public String getReferenceType() {
+        return referenceType;
+    }
+
+    public Long getSenderId() {
+        return senderId;
+    }
+
+    public String getSenderName() {
+        return senderName;
+    }
+}
@@ -0,0 +1,122 @@
+package edu.cit.serbisyo.dto;
+
+import edu.cit.serbisyo.entity.StoredBlobEntity;
+
+/**
+ * Flat, read-only view of a service for catalogue listings.
+ *
+ * Populated directly by a JPQL constructor expression, so it carries only the columns a
+ * catalogue card needs: no provider image, addresses or other nested entity graphs.
+ */
+public class ServiceCatalogueEntry {
+
+    private final Long serviceId;
+    private final String serviceName;
+    private final String serviceDescription;
+    private final int price;
+    private final String durationEstimate;
+    private final String serviceImage;
+    // Card-sized variant (redirect), for list views
+    private final String serviceImageCard;
+
+    private final Long categoryId;
+    private final String categoryName;
+
+    private final Long providerId;
+    private final String providerFirstName;
+    private final String providerLastName;
+    private final String businessName;
+    private final boolean providerVerified;
+
+    private final double averageRating;
+    private final int reviewCount;
+
+    public ServiceCatalogueEntry(Long serviceId, String serviceName, String serviceDescription, int price,
+                                 String durationEstimate, String imageKey, String imageExtension,
+                                 Long categoryId, String categoryName,
+                                 Long providerId, String providerFirstName, String providerLastName,
+                                 String businessName, Boolean providerVerified,
+                                 long ratingSum, int ratingCount) {
+        this.serviceId = serviceId;
+        this.serviceName = serviceName;
+        this.serviceDescription = serviceDescription;
+        this.price = price;
+        this.durationEstimate = durationEstimate;
+        this.serviceImage = StoredBlobEntity.urlFor(imageKey, imageExtension);
+        this.serviceImageCard = imageKey != null ? "/api/images/" + imageKey + "?size=card" : null;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.providerId = providerId;
+        this.providerFirstName = providerFirstName;
+        this.providerLastName = providerLastName;
+        this.businessName = businessName;
+        // Null when the service has no provider (outer join)
+        this.providerVerified = Boolean.TRUE.equals(providerVerified);
+        this.averageRating = ratingCount == 0 ? 0.0 : Math.round((double) ratingSum / ratingCount * 10) / 10.0;
+        this.reviewCount = ratingCount;
+    }
+
+    public Long getServiceId() {
+        return serviceId;
+    }
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public String getServiceDescription() {
+        return serviceDescription;
+    }
+
+    public int getPrice() {
+        return price;
+    }
+
+    public String getDurationEstimate() {
+        return durationEstimate;
+    }
+
+    public String getServiceImage() {
+        return serviceImage;
+    }
+
+    public String getServiceImageCard() {
+        return serviceImageCard;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public Long getProviderId() {
+        return providerId;
+    }
+
+    public String getProviderFirstName() {
+        return providerFirstName;
+    }
+
+    public String getProviderLastName() {
+        return providerLastName;
+    }
+
+    public String getBusinessName() {
+        return businessName;
+    }
+
+    public boolean isProviderVerified() {
+        return providerVerified;
+    }
+
+    public double getAverageRating() {
+        return averageRating;
+    }
+
+    public int getReviewCount() {
+        return reviewCount;
+    }
+}
@@ -8,7 +8,11 @@ import java.util.List;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 @Entity
-@Table(name = "Booking")
+@Table(name = "Booking", indexes = {
+    // Provider booking lookups join Service on serviceId and filter/sort by date and status
+    @Index(name = "idx_booking_service_date", columnList = "serviceId, bookingDate"),
+    @Index(name = "idx_booking_service_status", columnList = "serviceId, status")
+})
 public class BookingEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,37 @@
+package edu.cit.serbisyo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Marks a one-off data migration (backfill, file move) as finished.
+ *
+ * Startup migrations check for their row instead of guessing from the data, so one
+ * that failed half way is resumed on the next start and a finished one never
+ * re-scans its tables.
+ */
+@Entity
+@Table(name = "CompletedMigration")
+public class CompletedMigrationEntity {
+    @Id
+    @Column(length = 100)
+    private String name;
+
+    private LocalDateTime completedAt;
+
+    public CompletedMigrationEntity() {
+    }
+
+    public CompletedMigrationEntity(String name) {
+        this.name = name;
+        this.completedAt = LocalDateTime.now();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+}
@@ -0,0 +1,123 @@
+package edu.cit.serbisyo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * One user's view of a conversation with one partner.
+ *
+ * Each message updates two rows (sender's and receiver's), so the inbox is a
+ * single indexed range read on (ownerId, lastActivity) rather than a scan of
+ * every message the user has ever sent or received.
+ */
+@Entity
+@Table(name = "ConversationSummary", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_conversation_summary_owner_partner", columnNames = {"ownerId", "partnerId"})
+}, indexes = {
+    @Index(name = "idx_conversation_summary_owner_activity", columnList = "ownerId, lastActivity")
+})
+public class ConversationSummaryEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long summaryId;
+
+    @Column(name = "ownerId", nullable = false)
+    private Long ownerId;
+
+    @Column(name = "partnerId", nullable = false)
+    private Long partnerId;
+
+    private Long lastMessageId;
+    private String lastMessageText;
+    private Long lastSenderId;
+    private String lastMessageStatus;
+
+    @Column(name = "lastActivity")
+    private LocalDateTime lastActivity;
+
+    // Messages from the partner to the owner that the owner has not read yet
+    @Column(nullable = false)
+    private int unreadCount;
+
+    public ConversationSummaryEntity() {
+    }
+
+    public ConversationSummaryEntity(Long ownerId, Long partnerId) {
+        this.ownerId = ownerId;
+        this.partnerId = partnerId;
+    }
+
+    // Getters and Setters
+
+    public Long getSummaryId() {
+        return summaryId;
+    }
+
+    public void setSummaryId(Long summaryId) {
+        this.summaryId = summaryId;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public void setOwnerId(Long ownerId) {
+        this.ownerId = ownerId;
+    }
+
+    public Long getPartnerId() {
+        return partnerId;
+    }
+
+    public void setPartnerId(Long partnerId) {
+        this.partnerId = partnerId;
+    }
+
+    public Long getLastMessageId() {
+        return lastMessageId;
+    }
+
+    public void setLastMessageId(Long lastMessageId) {
+        this.lastMessageId = lastMessageId;
+    }
+
+    public String getLastMessageText() {
+        return lastMessageText;
+    }
+
+    public void setLastMessageText(String lastMessageText) {
+        this.lastMessageText = lastMessageText;
+    }
+
+    public Long getLastSenderId() {
+        return lastSenderId;
+    }
+
+    public void setLastSenderId(Long lastSenderId) {
+        this.lastSenderId = lastSenderId;
+    }
+
+    public String getLastMessageStatus() {
+        return lastMessageStatus;
+    }
+
+    public void setLastMessageStatus(String lastMessageStatus) {
+        this.lastMessageStatus = lastMessageStatus;
+    }
+
+    public LocalDateTime getLastActivity() {
+        return lastActivity;
+    }
+
+    public void setLastActivity(LocalDateTime lastActivity) {
+        this.lastActivity = lastActivity;
+    }
+
+    public int getUnreadCount() {
+        return unreadCount;
+    }
+
+    public void setUnreadCount(int unreadCount) {
+        this.unreadCount = unreadCount;
+    }
+}
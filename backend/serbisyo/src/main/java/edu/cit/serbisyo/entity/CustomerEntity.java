@@ -3,8 +3,10 @@ package edu.cit.serbisyo.entity;
 import jakarta.persistence.*;
 
 import java.util.List;
+import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
 @Table(name = "Customer")
@@ -25,8 +27,17 @@ public class CustomerEntity {
     private String lastName;
     private String phoneNumber;
 
+    // Image in the content-addressed store, referenced by its fixed-length key
+    @JsonIgnore
+    @ManyToOne
+    @JoinColumn(name = "profileImageKey")
+    private StoredBlobEntity profileImageBlob;
+
+    // Pre-blob-store file path; moved into the store at startup, then cleared
+    @JsonIgnore
     @Lob
-    private String profileImage;
+    @Column(name = "profileImage")
+    private String legacyProfileImage;
 
     @JsonIgnore
     @OneToMany(mappedBy = "customer", cascade = CascadeType.ALL)
@@ -83,11 +94,31 @@ public class CustomerEntity {
         this.address = address;
     }
 
+    // Public URL of the image, kept under the original JSON property name
+    @JsonProperty(value = "profileImage", access = JsonProperty.Access.READ_ONLY)
     public String getProfileImage() {
-        return profileImage;
+        return profileImageBlob != null ? profileImageBlob.getUrl() : null;
+    }
+
+    // thumb/card/full variant URLs, so lists can pick a size without another request
+    @JsonProperty(value = "profileImageVariants", access = JsonProperty.Access.READ_ONLY)
+    public Map<String, String> getProfileImageVariants() {
+        return profileImageBlob != null ? profileImageBlob.getVariantUrls() : null;
+    }
+
+    public StoredBlobEntity getProfileImageBlob() {
+        return profileImageBlob;
+    }
+
+    public void setProfileImageBlob(StoredBlobEntity profileImageBlob) {
+        this.profileImageBlob = profileImageBlob;
+    }
+
+    public String getLegacyProfileImage() {
+        return legacyProfileImage;
     }
 
-    public void setProfileImage(String profileImage) {
-        this.profileImage = profileImage;
+    public void setLegacyProfileImage(String legacyProfileImage) {
+        this.legacyProfileImage = legacyProfileImage;
     }
 }
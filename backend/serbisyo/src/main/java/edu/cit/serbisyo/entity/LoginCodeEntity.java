@@ -0,0 +1,63 @@
+package edu.cit.serbisyo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A short-lived, single-use code that stands in for a credential in a URL.
+ *
+ * At the end of an OAuth2 login the redirect back to the client carries only a LOGIN
+ * code, which the client exchanges at /api/oauth/exchange for a refresh token. A STREAM
+ * code is the ticket an event stream is opened with, since EventSource cannot send an
+ * Authorization header. Either way no long-lived token appears in a URL (browser
+ * history, proxy and server logs, Referer headers). Stored only as a hash, and a code
+ * is only accepted for the purpose it was issued for.
+ */
+@Entity
+@Table(name = "LoginCode", indexes = {
+    @Index(name = "idx_login_code_expires_at", columnList = "expiresAt")
+})
+public class LoginCodeEntity {
+    public static final String PURPOSE_LOGIN = "LOGIN";
+    public static final String PURPOSE_STREAM = "STREAM";
+
+    // Base64url SHA-256 of the raw code
+    @Id
+    @Column(length = 44)
+    private String codeHash;
+
+    @Column(nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false, length = 16)
+    private String purpose;
+
+    public LoginCodeEntity() {
+    }
+
+    public LoginCodeEntity(String codeHash, Long userId, LocalDateTime expiresAt, String purpose) {
+        this.codeHash = codeHash;
+        this.userId = userId;
+        this.expiresAt = expiresAt;
+        this.purpose = purpose;
+    }
+
+    public String getCodeHash() {
+        return codeHash;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public String getPurpose() {
+        return purpose;
+    }
+}
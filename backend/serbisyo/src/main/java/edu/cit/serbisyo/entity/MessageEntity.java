@@ -5,7 +5,10 @@ import java.time.LocalDateTime;
 import jakarta.persistence.*;
 
 @Entity
-@Table(name = "Message")
+@Table(name = "Message", indexes = {
+    // Serves the per-direction halves of the conversation history cursor queries
+    @Index(name = "idx_message_sender_receiver_id", columnList = "senderId, receiverId, messageId")
+})
 public class MessageEntity {
 
     @Id
@@ -4,7 +4,11 @@ import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "Notification")
+@Table(name = "Notification", indexes = {
+    // User feed (newest first) and the unread count both read only this user's index range
+    @Index(name = "idx_notification_user_id", columnList = "userId, notificationId"),
+    @Index(name = "idx_notification_user_read", columnList = "userId, isRead")
+})
 public class NotificationEntity {
 
     @Id
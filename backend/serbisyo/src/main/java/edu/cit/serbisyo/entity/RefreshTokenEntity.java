@@ -0,0 +1,103 @@
+package edu.cit.serbisyo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A single-use refresh token, stored only as a hash.
+ *
+ * Tokens from one login form a family: each refresh consumes the presented token and
+ * issues its successor in the same family. Presenting an already consumed token means
+ * it was copied, so the whole family is revoked. Every token of a family shares the
+ * expiry set at login, so rotating does not extend the session. The access token's
+ * claims are read from the user's current row on each refresh.
+ */
+@Entity
+@Table(name = "RefreshToken", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_refresh_token_hash", columnNames = {"tokenHash"})
+}, indexes = {
+    @Index(name = "idx_refresh_token_family", columnList = "familyId"),
+    @Index(name = "idx_refresh_token_user", columnList = "userId")
+})
+public class RefreshTokenEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long tokenId;
+
+    // Base64url SHA-256 of the raw token
+    @Column(name = "tokenHash", nullable = false, length = 44)
+    private String tokenHash;
+
+    @Column(name = "familyId", nullable = false, length = 36)
+    private String familyId;
+
+    @Column(name = "userId", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    // Set when the token is exchanged; a second exchange is treated as theft
+    private LocalDateTime usedAt;
+
+    @Column(nullable = false)
+    private boolean revoked;
+
+    // Getters and Setters
+
+    public Long getTokenId() {
+        return tokenId;
+    }
+
+    public void setTokenId(Long tokenId) {
+        this.tokenId = tokenId;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public void setTokenHash(String tokenHash) {
+        this.tokenHash = tokenHash;
+    }
+
+    public String getFamilyId() {
+        return familyId;
+    }
+
+    public void setFamilyId(String familyId) {
+        this.familyId = familyId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(LocalDateTime expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public LocalDateTime getUsedAt() {
+        return usedAt;
+    }
+
+    public void setUsedAt(LocalDateTime usedAt) {
+        this.usedAt = usedAt;
+    }
+
+    public boolean isRevoked() {
+        return revoked;
+    }
+
+    public void setRevoked(boolean revoked) {
+        this.revoked = revoked;
+    }
+}
@@ -0,0 +1,44 @@
+package edu.cit.serbisyo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * An access token rejected before its expiry (logout), stored only as a hash.
+ *
+ * The row is kept until the token would have expired anyway. Every node loads new
+ * rows periodically, so a logout on one node is honoured by all of them and survives
+ * a restart.
+ */
+@Entity
+@Table(name = "RevokedToken", indexes = {
+    @Index(name = "idx_revoked_token_revoked_at", columnList = "revokedAt"),
+    @Index(name = "idx_revoked_token_expires_at", columnList = "expiresAt")
+})
+public class RevokedTokenEntity {
+    // Base64 SHA-256 of the raw token
+    @Id
+    @Column(length = 44)
+    private String tokenHash;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+
+    public RevokedTokenEntity() {
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+
+    public LocalDateTime getRevokedAt() {
+        return revokedAt;
+    }
+}
@@ -1,13 +1,22 @@
 package edu.cit.serbisyo.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.util.List;
+import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
+// Saves write only changed columns, so a load-and-save never puts back rating aggregates
+// read before a concurrent adjustRating
 @Entity
-@Table(name = "Service")
+@DynamicUpdate
+@Table(name = "Service", indexes = {
+    // Lets provider-scoped booking queries resolve a provider's service ids from the index alone
+    @Index(name = "idx_service_provider", columnList = "providerId, serviceId")
+})
 public class ServiceEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,8 +35,24 @@ public class ServiceEntity {
     private int price; // Changed from String priceRange
     private String durationEstimate;
     
+    // Image in the content-addressed store, referenced by its fixed-length key
+    @JsonIgnore
+    @ManyToOne
+    @JoinColumn(name = "serviceImageKey")
+    private StoredBlobEntity serviceImageBlob;
+
+    // Pre-blob-store file path; moved into the store at startup, then cleared
+    @JsonIgnore
     @Lob
-    private String serviceImage;
+    @Column(name = "serviceImage")
+    private String legacyServiceImage;
+
+    // Rating aggregates, kept up to date by ReviewService on every review write
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long ratingSum;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private int ratingCount;
 
     @JsonIgnore
     @OneToMany(mappedBy = "service", cascade = CascadeType.ALL)
@@ -98,11 +123,53 @@ public class ServiceEntity {
         this.bookings = bookings;
     }
 
+    // Public URL of the image, kept under the original JSON property name
+    @JsonProperty(value = "serviceImage", access = JsonProperty.Access.READ_ONLY)
     public String getServiceImage() {
-        return serviceImage;
+        return serviceImageBlob != null ? serviceImageBlob.getUrl() : null;
+    }
+
+    // thumb/card/full variant URLs, so lists can pick a size without another request
+    @JsonProperty(value = "serviceImageVariants", access = JsonProperty.Access.READ_ONLY)
+    public Map<String, String> getServiceImageVariants() {
+        return serviceImageBlob != null ? serviceImageBlob.getVariantUrls() : null;
+    }
+
+    public StoredBlobEntity getServiceImageBlob() {
+        return serviceImageBlob;
+    }
+
+    public void setServiceImageBlob(StoredBlobEntity serviceImageBlob) {
+        this.serviceImageBlob = serviceImageBlob;
+    }
+
+    public String getLegacyServiceImage() {
+        return legacyServiceImage;
+    }
+
+    public void setLegacyServiceImage(String legacyServiceImage) {
+        this.legacyServiceImage = legacyServiceImage;
+    }
+
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(long ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
+    public int getRatingCount() {
+        return ratingCount;
+    }
+
+    public void setRatingCount(int ratingCount) {
+        this.ratingCount = ratingCount;
     }
 
-    public void setServiceImage(String serviceImage) {
-        this.serviceImage = serviceImage;
+    // Average rating rounded to 1 decimal place, 0.0 when there are no reviews
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    public double getAverageRating() {
+        return ratingCount == 0 ? 0.0 : Math.round(ratingSum * 10.0 / ratingCount) / 10.0;
     }
 }
@@ -1,11 +1,17 @@
 package edu.cit.serbisyo.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.DynamicUpdate;
 import java.util.List;
+import java.util.Map;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 
+// Saves write only changed columns, so a load-and-save never puts back rating aggregates
+// read before a concurrent adjustRating
 @Entity
+@DynamicUpdate
 @Table(name = "ServiceProvider")
 public class ServiceProviderEntity {
     @Id
@@ -31,11 +37,27 @@ public class ServiceProviderEntity {
     private int yearsOfExperience;
     private String availabilitySchedule;
     private double averageRating;
+
+    // Rating aggregates behind averageRating, kept up to date by ReviewService on every review write
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long ratingSum;
+
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private int ratingCount;
     private String status;
     private String paymentMethod;
 
+    // Image in the content-addressed store, referenced by its fixed-length key
+    @JsonIgnore
+    @ManyToOne
+    @JoinColumn(name = "serviceProviderImageKey")
+    private StoredBlobEntity serviceProviderImageBlob;
+
+    // Pre-blob-store file path; moved into the store at startup, then cleared
+    @JsonIgnore
     @Lob
-    private String serviceProviderImage;
+    @Column(name = "serviceProviderImage")
+    private String legacyServiceProviderImage;
 
     @JsonIgnore
     @OneToMany(mappedBy = "provider", cascade = CascadeType.ALL)
@@ -133,6 +155,22 @@ public class ServiceProviderEntity {
         this.averageRating = averageRating;
     }
 
+    public long getRatingSum() {
+        return ratingSum;
+    }
+
+    public void setRatingSum(long ratingSum) {
+        this.ratingSum = ratingSum;
+    }
+
+    public int getRatingCount() {
+        return ratingCount;
+    }
+
+    public void setRatingCount(int ratingCount) {
+        this.ratingCount = ratingCount;
+    }
+
     public String getStatus() {
         return status;
     }
@@ -165,12 +203,32 @@ public class ServiceProviderEntity {
         this.verification = verification;
     }
 
+    // Public URL of the image, kept under the original JSON property name
+    @JsonProperty(value = "serviceProviderImage", access = JsonProperty.Access.READ_ONLY)
     public String getServiceProviderImage() {
-        return serviceProviderImage;
+        return serviceProviderImageBlob != null ? serviceProviderImageBlob.getUrl() : null;
+    }
+
+    // thumb/card/full variant URLs, so lists can pick a size without another request
+    @JsonProperty(value = "serviceProviderImageVariants", access = JsonProperty.Access.READ_ONLY)
+    public Map<String, String> getServiceProviderImageVariants() {
+        return serviceProviderImageBlob != null ? serviceProviderImageBlob.getVariantUrls() : null;
+    }
+
+    public StoredBlobEntity getServiceProviderImageBlob() {
+        return serviceProviderImageBlob;
+    }
+
+    public void setServiceProviderImageBlob(StoredBlobEntity serviceProviderImageBlob) {
+        this.serviceProviderImageBlob = serviceProviderImageBlob;
+    }
+
+    public String getLegacyServiceProviderImage() {
+        return legacyServiceProviderImage;
     }
 
-    public void setServiceProviderImage(String serviceProviderImage) {
-        this.serviceProviderImage = serviceProviderImage;
+    public void setLegacyServiceProviderImage(String legacyServiceProviderImage) {
+        this.legacyServiceProviderImage = legacyServiceProviderImage;
     }
 
     public List<ScheduleEntity> getSchedules() {
@@ -0,0 +1,114 @@
+package edu.cit.serbisyo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * A provider's schedule slot taken on one specific date.
+ *
+ * ScheduleEntity describes the weekly template; a reservation row marks a single
+ * dated instance of that template as booked. The unique key on
+ * (providerId, slotDate, startTime) is what prevents double booking: concurrent
+ * inserts for the same slot cannot both commit, so no row or table lock is needed.
+ */
+@Entity
+@Table(name = "SlotReservation", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_slot_reservation_provider_date_time",
+                      columnNames = {"providerId", "slotDate", "startTime"})
+}, indexes = {
+    @Index(name = "idx_slot_reservation_booking", columnList = "bookingId")
+})
+public class SlotReservationEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long reservationId;
+
+    @Column(name = "providerId", nullable = false)
+    private Long providerId;
+
+    @Column(nullable = false)
+    private LocalDate slotDate;
+
+    @Column(nullable = false)
+    private LocalTime startTime;
+
+    // Weekly schedule slot this reservation was made against, if one matched
+    private Long scheduleId;
+
+    @Column(name = "bookingId", nullable = false)
+    private Long bookingId;
+
+    private LocalDateTime reservedAt;
+
+    @Version
+    private Long version;
+
+    public SlotReservationEntity() {
+    }
+
+    public Long getReservationId() {
+        return reservationId;
+    }
+
+    public void setReservationId(Long reservationId) {
+        this.reservationId = reservationId;
+    }
+
+    public Long getProviderId() {
+        return providerId;
+    }
+
+    public void setProviderId(Long providerId) {
+        this.providerId = providerId;
+    }
+
+    public LocalDate getSlotDate() {
+        return slotDate;
+    }
+
+    public void setSlotDate(LocalDate slotDate) {
+        this.slotDate = slotDate;
+    }
+
+    public LocalTime getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(LocalTime startTime) {
+        this.startTime = startTime;
+    }
+
+    public Long getScheduleId() {
+        return scheduleId;
+    }
+
+    public void setScheduleId(Long scheduleId) {
+        this.scheduleId = scheduleId;
+    }
+
+    public Long getBookingId() {
+        return bookingId;
+    }
+
+    public void setBookingId(Long bookingId) {
+        this.bookingId = bookingId;
+    }
+
+    public LocalDateTime getReservedAt() {
+        return reservedAt;
+    }
+
+    public void setReservedAt(LocalDateTime reservedAt) {
+        this.reservedAt = reservedAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,97 @@
+package edu.cit.serbisyo.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One file in the content-addressed image store.
+ *
+ * The key is the file's SHA-256 in hex, so identical uploads share a row and a file.
+ * Files live in two levels of hash-prefix directories (ab/cd/abcd...) to keep every
+ * directory small. refCount is maintained as entities point at or away from the blob;
+ * blobs left at zero past the grace period are removed by the garbage collector.
+ */
+@Entity
+@Table(name = "StoredBlob", indexes = {
+    @Index(name = "idx_stored_blob_orphans", columnList = "refCount, unreferencedSince")
+})
+@BatchSize(size = 50)
+public class StoredBlobEntity {
+
+    public static final int KEY_LENGTH = 64;
+
+    private static final List<String> VARIANT_SIZES = List.of("thumb", "card", "full");
+
+    @Id
+    @Column(length = KEY_LENGTH)
+    private String blobKey;
+
+    // Including the dot, e.g. ".png"; empty when the upload had none
+    @Column(length = 11, nullable = false)
+    private String extension;
+
+    private long size;
+    private int refCount;
+    private LocalDateTime createdAt;
+    private LocalDateTime unreferencedSince;
+
+    public StoredBlobEntity() {
+        super();
+    }
+
+    // Path below the uploads directory, e.g. "3f/1c/3f1c...9a.png"
+    public static String relativePath(String blobKey, String extension) {
+        return blobKey.substring(0, 2) + "/" + blobKey.substring(2, 4) + "/" + blobKey + (extension != null ? extension : "");
+    }
+
+    // Public URL served by the /uploads/** resource handler
+    public static String urlFor(String blobKey, String extension) {
+        return blobKey == null ? null : "/uploads/" + relativePath(blobKey, extension);
+    }
+
+    public String getRelativePath() {
+        return relativePath(blobKey, extension);
+    }
+
+    public String getUrl() {
+        return urlFor(blobKey, extension);
+    }
+
+    // Resized variant URLs (served by /api/images), so clients need no extra lookup per image
+    public Map<String, String> getVariantUrls() {
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (String size : VARIANT_SIZES) {
+            urls.put(size, "/api/images/" + blobKey + "?size=" + size);
+        }
+        return urls;
+    }
+
+    public String getBlobKey() {
+        return blobKey;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public int getRefCount() {
+        return refCount;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getUnreferencedSince() {
+        return unreferencedSince;
+    }
+}
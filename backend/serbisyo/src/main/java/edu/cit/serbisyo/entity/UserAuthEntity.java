@@ -3,6 +3,7 @@ package edu.cit.serbisyo.entity;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
@@ -21,6 +22,15 @@ public class UserAuthEntity {
     private String role;
     private LocalDateTime createdAt;
 
+    // Trimmed, lower-cased copies used for lookups and case-insensitive uniqueness
+    @JsonIgnore
+    @Column(name = "normalizedEmail", unique = true)
+    private String normalizedEmail;
+
+    @JsonIgnore
+    @Column(name = "normalizedUserName", unique = true)
+    private String normalizedUserName;
+
     @JsonIgnore
     @OneToOne(mappedBy = "userAuth", cascade = CascadeType.ALL)
     private CustomerEntity customer;
@@ -33,6 +43,17 @@ public class UserAuthEntity {
     @OneToOne(mappedBy = "userAuth", cascade = CascadeType.ALL)
     private AdminEntity admin;
 
+    @PrePersist
+    @PreUpdate
+    private void normalize() {
+        normalizedEmail = normalize(email);
+        normalizedUserName = normalize(userName);
+    }
+
+    public static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
     public Long getUserId() {
         return userId;
     }
@@ -57,6 +78,14 @@ public class UserAuthEntity {
         this.password = password;
     }
 
+    public String getNormalizedEmail() {
+        return normalizedEmail;
+    }
+
+    public String getNormalizedUserName() {
+        return normalizedUserName;
+    }
+
     public String getEmail() {
         return email;
     }
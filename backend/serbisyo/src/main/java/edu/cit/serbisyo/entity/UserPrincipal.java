@@ -1,11 +1,10 @@
 package edu.cit.serbisyo.entity;
 
+import edu.cit.serbisyo.security.RoleAuthorities;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 
 import java.util.Collection;
-import java.util.Collections;
 
 public class UserPrincipal implements UserDetails {
 
@@ -17,7 +16,7 @@ public class UserPrincipal implements UserDetails {
 
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
-        return Collections.singleton(new SimpleGrantedAuthority("USER"));
+        return RoleAuthorities.authoritiesFor(user.getRole());
     }
 
     @Override
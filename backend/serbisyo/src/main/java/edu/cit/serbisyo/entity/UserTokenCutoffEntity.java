@@ -0,0 +1,42 @@
+package edu.cit.serbisyo.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * The moment before which every access token of a user is rejected, set whenever the
+ * user's credentials change.
+ *
+ * The cutoff is kept in epoch milliseconds, since a token issued within the same second
+ * as the change must still be told apart. The row can be dropped once every token
+ * issued before the cutoff has expired.
+ */
+@Entity
+@Table(name = "UserTokenCutoff", indexes = {
+    @Index(name = "idx_user_token_cutoff_updated_at", columnList = "updatedAt")
+})
+public class UserTokenCutoffEntity {
+    @Id
+    @Column(length = 255)
+    private String userName;
+
+    private long cutoffMillis;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    public UserTokenCutoffEntity() {
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public long getCutoffMillis() {
+        return cutoffMillis;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -0,0 +1,117 @@
+package edu.cit.serbisyo.pagination;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Shared keyset ("seek") pagination for listing endpoints.
+ *
+ * Pages are walked by a stable, unique sort key (the entity's generated id), so every
+ * page is a bounded index range scan no matter how deep the client is in the listing.
+ * The repository query receives the last key of the previous page and a {@link Pageable}
+ * sized one row larger than the page, which is how we detect whether more rows exist.
+ */
+@Component
+public class KeysetPaginator {
+
+    private static final String TOKEN_VERSION = "v1";
+
+    @Value("${app.pagination.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.pagination.max-page-size:100}")
+    private int maxPageSize;
+
+    /**
+     * Page through rows in ascending key order.
+     *
+     * @param cursor       continuation token from the previous page, or null for the first page
+     * @param limit        requested page size, clamped to the configured maximum
+     * @param fetcher      repository query returning rows with key greater than the given key
+     * @param keyExtractor returns the sort key of a row
+     */
+    public <T> CursorPage<T> ascending(String cursor, Integer limit,
+                                       BiFunction<Long, Pageable, List<T>> fetcher,
+                                       Function<T, Long> keyExtractor) {
+        return page(Direction.ASC, cursor, limit, fetcher, keyExtractor);
+    }
+
+    /**
+     * Page through rows in descending key order (newest first).
+     *
+     * @param fetcher repository query returning rows with key less than the given key
+     */
+    public <T> CursorPage<T> descending(String cursor, Integer limit,
+                                        BiFunction<Long, Pageable, List<T>> fetcher,
+                                        Function<T, Long> keyExtractor) {
+        return page(Direction.DESC, cursor, limit, fetcher, keyExtractor);
+    }
+
+    private <T> CursorPage<T> page(Direction direction, String cursor, Integer limit,
+                                   BiFunction<Long, Pageable, List<T>> fetcher,
+                                   Function<T, Long> keyExtractor) {
+        int pageSize = resolvePageSize(limit);
+        Long startKey = cursor == null || cursor.isBlank()
+                ? direction.firstKey
+                : decodeCursor(cursor, direction);
+
+        // Ask for one extra row so we know whether another page follows
+        List<T> rows = fetcher.apply(startKey, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<T> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = hasMore
+                ? encodeCursor(keyExtractor.apply(items.get(items.size() - 1)), direction)
+                : null;
+
+        return new CursorPage<>(items, nextCursor, hasMore, pageSize);
+    }
+
+    private int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return Math.min(defaultPageSize, maxPageSize);
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
+        }
+        return Math.min(limit, maxPageSize);
+    }
+
+    private String encodeCursor(Long key, Direction direction) {
+        String raw = TOKEN_VERSION + ":" + direction.name() + ":" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Long decodeCursor(String cursor, Direction direction) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3 || !TOKEN_VERSION.equals(parts[0]) || !direction.name().equals(parts[1])) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return Long.parseLong(parts[2]);
+        } catch (IllegalArgumentException e) {
+            // Also covers malformed Base64 and NumberFormatException
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    private enum Direction {
+        ASC(0L),
+        DESC(Long.MAX_VALUE);
+
+        private final Long firstKey;
+
+        Direction(Long firstKey) {
+            this.firstKey = firstKey;
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package edu.cit.serbisyo.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import edu.cit.serbisyo.entity.AddressEntity;
 
+import java.util.List;
+
 @Repository
 public interface AddressRepository extends JpaRepository <AddressEntity, Long> {
     
     public AddressEntity findByProvince(String province);
+
+    // Keyset page of addresses after the given id
+    public List<AddressEntity> findByAddressIdGreaterThanOrderByAddressIdAsc(Long addressId, Pageable pageable);
     
 }
@@ -1,13 +1,45 @@
 package edu.cit.serbisyo.repository;
 
 import edu.cit.serbisyo.entity.BookingEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 
 @Repository
 public interface BookingRepository extends JpaRepository<BookingEntity, Long> {
     List<BookingEntity> findByCustomerCustomerId(Long customerId);
     List<BookingEntity> findByServiceServiceId(Long serviceId);
+
+    // Provider-scoped lookup resolved in the database instead of filtering findAll() in memory
+    @EntityGraph(attributePaths = {"service", "service.provider", "customer"})
+    List<BookingEntity> findByServiceProviderProviderId(Long providerId);
+
+    // Paged provider bookings with optional status and booking date range filters
+    @EntityGraph(attributePaths = {"service", "service.provider", "customer"})
+    @Query("SELECT b FROM BookingEntity b WHERE b.service.provider.providerId = :providerId " +
+           "AND (:status IS NULL OR b.status = :status) " +
+           "AND (:fromDate IS NULL OR b.bookingDate >= :fromDate) " +
+           "AND (:toDate IS NULL OR b.bookingDate <= :toDate)")
+    Page<BookingEntity> findProviderBookings(
+        @Param("providerId") Long providerId,
+        @Param("status") String status,
+        @Param("fromDate") LocalDate fromDate,
+        @Param("toDate") LocalDate toDate,
+        Pageable pageable);
+
+    // Keyset page of bookings after the given id, optionally filtered by status
+    @EntityGraph(attributePaths = {"service", "customer"})
+    @Query("SELECT b FROM BookingEntity b WHERE b.bookingId > :afterId " +
+           "AND (:status IS NULL OR b.status = :status) ORDER BY b.bookingId ASC")
+    List<BookingEntity> findKeysetPage(
+        @Param("afterId") Long afterId,
+        @Param("status") String status,
+        Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package edu.cit.serbisyo.repository;
+
+import edu.cit.serbisyo.entity.CompletedMigrationEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CompletedMigrationRepository extends JpaRepository<CompletedMigrationEntity, String> {
+}
@@ -0,0 +1,102 @@
+package edu.cit.serbisyo.repository;
+
+import edu.cit.serbisyo.entity.ConversationSummaryEntity;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface ConversationSummaryRepository extends JpaRepository<ConversationSummaryEntity, Long> {
+
+    // The incoming message is at least as recent as the one the row shows
+    String NEWER = "(incoming.last_activity >= conversation_summary.last_activity OR conversation_summary.last_activity IS NULL)";
+
+    // Inbox page, most recent conversation first
+    Page<ConversationSummaryEntity> findByOwnerIdOrderByLastActivityDescSummaryIdDesc(Long ownerId, Pageable pageable);
+
+    Optional<ConversationSummaryEntity> findByOwnerIdAndPartnerId(Long ownerId, Long partnerId);
+
+    /**
+     * Record a message in one owner's summary row, creating the row if needed.
+     * Runs as a single statement so concurrent messages in the same conversation
+     * cannot lose each other's unread increments. The last-message columns only
+     * move forward in time; last_activity is assigned last because MySQL applies
+     * the assignments left to right. Uses the row alias form (MySQL 8.0.19+);
+     * VALUES(col) in ON DUPLICATE KEY UPDATE is deprecated.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO conversation_summary " +
+                   "(owner_id, partner_id, last_message_id, last_message_text, last_sender_id, last_message_status, last_activity, unread_count) " +
+                   "VALUES (:ownerId, :partnerId, :messageId, :messageText, :senderId, :status, :sentAt, :unreadDelta) AS incoming " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "last_message_id = IF(" + NEWER + ", incoming.last_message_id, conversation_summary.last_message_id), " +
+                   "last_message_text = IF(" + NEWER + ", incoming.last_message_text, conversation_summary.last_message_text), " +
+                   "last_sender_id = IF(" + NEWER + ", incoming.last_sender_id, conversation_summary.last_sender_id), " +
+                   "last_message_status = IF(" + NEWER + ", incoming.last_message_status, conversation_summary.last_message_status), " +
+                   "unread_count = conversation_summary.unread_count + incoming.unread_count, " +
+                   "last_activity = IF(" + NEWER + ", incoming.last_activity, conversation_summary.last_activity)",
+           nativeQuery = true)
+    int upsertMessage(@Param("ownerId") Long ownerId,
+                      @Param("partnerId") Long partnerId,
+                      @Param("messageId") Long messageId,
+                      @Param("messageText") String messageText,
+                      @Param("senderId") Long senderId,
+                      @Param("status") String status,
+                      @Param("sentAt") LocalDateTime sentAt,
+                      @Param("unreadDelta") int unreadDelta);
+
+    /**
+     * Write a summary computed from the Message table (backfill). Idempotent: the unread
+     * count is replaced, and the last message still only moves forward, so a message
+     * recorded live while the backfill runs is not overwritten by an older one.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO conversation_summary " +
+                   "(owner_id, partner_id, last_message_id, last_message_text, last_sender_id, last_message_status, last_activity, unread_count) " +
+                   "VALUES (:ownerId, :partnerId, :messageId, :messageText, :senderId, :status, :lastActivity, :unreadCount) AS incoming " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "last_message_id = IF(" + NEWER + ", incoming.last_message_id, conversation_summary.last_message_id), " +
+                   "last_message_text = IF(" + NEWER + ", incoming.last_message_text, conversation_summary.last_message_text), " +
+                   "last_sender_id = IF(" + NEWER + ", incoming.last_sender_id, conversation_summary.last_sender_id), " +
+                   "last_message_status = IF(" + NEWER + ", incoming.last_message_status, conversation_summary.last_message_status), " +
+                   "unread_count = incoming.unread_count, " +
+                   "last_activity = IF(" + NEWER + ", incoming.last_activity, conversation_summary.last_activity)",
+           nativeQuery = true)
+    int upsertComputedSummary(@Param("ownerId") Long ownerId,
+                              @Param("partnerId") Long partnerId,
+                              @Param("messageId") Long messageId,
+                              @Param("messageText") String messageText,
+                              @Param("senderId") Long senderId,
+                              @Param("status") String status,
+                              @Param("lastActivity") LocalDateTime lastActivity,
+                              @Param("unreadCount") int unreadCount);
+
+    @Modifying
+    @Query("UPDATE ConversationSummaryEntity c SET c.unreadCount = CASE WHEN c.unreadCount + :delta < 0 THEN 0 " +
+           "ELSE c.unreadCount + :delta END WHERE c.ownerId = :ownerId AND c.partnerId = :partnerId")
+    int adjustUnread(@Param("ownerId") Long ownerId, @Param("partnerId") Long partnerId, @Param("delta") int delta);
+
+    // Keep both participants' rows in step when the message they show is edited
+    @Modifying
+    @Query("UPDATE ConversationSummaryEntity c SET c.lastMessageText = :messageText, c.lastMessageStatus = :status " +
+           "WHERE c.lastMessageId = :messageId")
+    int updateLastMessage(@Param("messageId") Long messageId,
+                          @Param("messageText") String messageText,
+                          @Param("status") String status);
+
+    // Clear the owner's unread count and show the partner's last message as read on both rows
+    @Modifying
+    @Query("UPDATE ConversationSummaryEntity c SET " +
+           "c.unreadCount = CASE WHEN c.ownerId = :ownerId THEN 0 ELSE c.unreadCount END, " +
+           "c.lastMessageStatus = CASE WHEN c.lastSenderId = :partnerId THEN 'READ' ELSE c.lastMessageStatus END " +
+           "WHERE (c.ownerId = :ownerId AND c.partnerId = :partnerId) " +
+           "OR (c.ownerId = :partnerId AND c.partnerId = :ownerId)")
+    int markRead(@Param("ownerId") Long ownerId, @Param("partnerId") Long partnerId);
+}
@@ -1,13 +1,21 @@
 package edu.cit.serbisyo.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import edu.cit.serbisyo.entity.CustomerEntity;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<CustomerEntity, Long> {
     Optional<CustomerEntity> findByUserAuthUserName(String userName);
-}
\ No newline at end of file
+
+    // Keyset page of customers after the given id
+    List<CustomerEntity> findByCustomerIdGreaterThanOrderByCustomerIdAsc(Long customerId, Pageable pageable);
+
+    // Rows still pointing at a pre-blob-store image path
+    List<CustomerEntity> findByLegacyProfileImageIsNotNull();
+}
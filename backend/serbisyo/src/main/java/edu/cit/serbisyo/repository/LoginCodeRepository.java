@@ -0,0 +1,23 @@
+package edu.cit.serbisyo.repository;
+
+import edu.cit.serbisyo.entity.LoginCodeEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface LoginCodeRepository extends JpaRepository<LoginCodeEntity, String> {
+
+    // Consume a code; returns 0 if another request already consumed it
+    @Modifying
+    @Query("DELETE FROM LoginCodeEntity c WHERE c.codeHash = :codeHash")
+    int consume(@Param("codeHash") String codeHash);
+
+    @Modifying
+    @Query("DELETE FROM LoginCodeEntity c WHERE c.expiresAt < :cutoff")
+    int deleteExpired(@Param("cutoff") LocalDateTime cutoff);
+}
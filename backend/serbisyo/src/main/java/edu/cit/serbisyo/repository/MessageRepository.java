@@ -1,12 +1,15 @@
 package edu.cit.serbisyo.repository;
 
 import edu.cit.serbisyo.entity.MessageEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface MessageRepository extends JpaRepository<MessageEntity, Long> {
@@ -30,4 +33,52 @@ public interface MessageRepository extends JpaRepository<MessageEntity, Long> {
     List<MessageEntity> findBySenderUserIdOrReceiverUserId(
         @Param("userId") Long userId,
         @Param("userId") Long sameUserId);
+
+    // Conversation history older than the given message id, newest first
+    @Query("SELECT m FROM MessageEntity m WHERE " +
+           "((m.sender.userId = :userId1 AND m.receiver.userId = :userId2) OR " +
+           "(m.sender.userId = :userId2 AND m.receiver.userId = :userId1)) " +
+           "AND m.messageId < :beforeId ORDER BY m.messageId DESC")
+    List<MessageEntity> findConversationBefore(@Param("userId1") Long userId1,
+                                               @Param("userId2") Long userId2,
+                                               @Param("beforeId") Long beforeId,
+                                               Pageable pageable);
+
+    // Conversation history newer than the given message id, oldest first (used for polling)
+    @Query("SELECT m FROM MessageEntity m WHERE " +
+           "((m.sender.userId = :userId1 AND m.receiver.userId = :userId2) OR " +
+           "(m.sender.userId = :userId2 AND m.receiver.userId = :userId1)) " +
+           "AND m.messageId > :afterId ORDER BY m.messageId ASC")
+    List<MessageEntity> findConversationAfter(@Param("userId1") Long userId1,
+                                              @Param("userId2") Long userId2,
+                                              @Param("afterId") Long afterId,
+                                              Pageable pageable);
+
+    // Most recent messages exchanged between two users, newest first
+    @Query("SELECT m FROM MessageEntity m WHERE " +
+           "(m.sender.userId = :userId1 AND m.receiver.userId = :userId2) OR " +
+           "(m.sender.userId = :userId2 AND m.receiver.userId = :userId1) " +
+           "ORDER BY m.sentAt DESC, m.messageId DESC")
+    List<MessageEntity> findLatestBetween(@Param("userId1") Long userId1,
+                                          @Param("userId2") Long userId2,
+                                          Pageable pageable);
+
+    @Query("SELECT COUNT(m) FROM MessageEntity m WHERE m.receiver.userId = :receiverId " +
+           "AND m.sender.userId = :senderId AND (m.status IS NULL OR m.status <> 'READ')")
+    long countUnread(@Param("receiverId") Long receiverId, @Param("senderId") Long senderId);
+
+    // Mark everything one user has received from another as read
+    @Modifying
+    @Query("UPDATE MessageEntity m SET m.status = 'READ' WHERE m.receiver.userId = :receiverId " +
+           "AND m.sender.userId = :senderId AND (m.status IS NULL OR m.status <> 'READ')")
+    int markConversationRead(@Param("receiverId") Long receiverId, @Param("senderId") Long senderId);
+
+    // Column-only scan used to backfill conversation summaries:
+    // [messageId, senderId, receiverId, messageText, status, sentAt]
+    @Query("SELECT m.messageId, m.sender.userId, m.receiver.userId, m.messageText, m.status, m.sentAt " +
+           "FROM MessageEntity m ORDER BY m.messageId ASC")
+    Stream<Object[]> streamSummaryColumns();
+
+    // Keyset page of messages after the given id
+    List<MessageEntity> findByMessageIdGreaterThanOrderByMessageIdAsc(Long messageId, Pageable pageable);
 }
\ No newline at end of file
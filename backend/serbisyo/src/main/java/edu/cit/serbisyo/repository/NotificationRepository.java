@@ -1,10 +1,40 @@
 package edu.cit.serbisyo.repository;
 
 import edu.cit.serbisyo.entity.NotificationEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface NotificationRepository extends JpaRepository<NotificationEntity, Long> {
     NotificationEntity findByMessage(String message);
+
+    // One user's feed, newest first, starting below the given id
+    @Query("SELECT n FROM NotificationEntity n WHERE n.user.userId = :userId AND n.notificationId < :beforeId " +
+           "AND (:unreadOnly = false OR n.isRead = false) ORDER BY n.notificationId DESC")
+    List<NotificationEntity> findUserFeedPage(
+        @Param("userId") Long userId,
+        @Param("beforeId") Long beforeId,
+        @Param("unreadOnly") boolean unreadOnly,
+        Pageable pageable);
+
+    @Query("SELECT COUNT(n) FROM NotificationEntity n WHERE n.user.userId = :userId AND n.isRead = false")
+    long countUnreadByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("UPDATE NotificationEntity n SET n.isRead = true WHERE n.user.userId = :userId AND n.isRead = false")
+    int markAllReadByUserId(@Param("userId") Long userId);
+
+    // Keyset page of notifications after the given id, optionally for a single user
+    @Query("SELECT n FROM NotificationEntity n WHERE n.notificationId > :afterId " +
+           "AND (:userId IS NULL OR n.user.userId = :userId) ORDER BY n.notificationId ASC")
+    List<NotificationEntity> findKeysetPage(
+        @Param("afterId") Long afterId,
+        @Param("userId") Long userId,
+        Pageable pageable);
 }
\ No newline at end of file
@@ -26,4 +26,14 @@ public interface ReviewRepository extends JpaRepository<ReviewEntity, Long> {
     Long countReviewsForService(@Param("serviceId") Long serviceId);
     
     boolean existsByCustomerCustomerIdAndBookingBookingId(Long customerId, Long bookingId);
+
+    // Rating totals per service as [serviceId, reviewCount, ratingSum], used to rebuild aggregates
+    @Query("SELECT r.booking.service.serviceId, COUNT(r), COALESCE(SUM(r.rating), 0) FROM ReviewEntity r " +
+           "GROUP BY r.booking.service.serviceId")
+    List<Object[]> sumRatingsByService();
+
+    // Rating totals per provider as [providerId, reviewCount, ratingSum], used to rebuild aggregates
+    @Query("SELECT r.provider.providerId, COUNT(r), COALESCE(SUM(r.rating), 0) FROM ReviewEntity r " +
+           "GROUP BY r.provider.providerId")
+    List<Object[]> sumRatingsByProvider();
 }
\ No newline at end of file
@@ -0,0 +1,32 @@
+package edu.cit.serbisyo.repository;
+
+import edu.cit.serbisyo.entity.RevokedTokenEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface RevokedTokenRepository extends JpaRepository<RevokedTokenEntity, String> {
+
+    // A no-op if the token is already revoked
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT IGNORE INTO revoked_token (token_hash, expires_at, revoked_at) " +
+                   "VALUES (:tokenHash, :expiresAt, :revokedAt)", nativeQuery = true)
+    int insertIfAbsent(@Param("tokenHash") String tokenHash,
+                       @Param("expiresAt") LocalDateTime expiresAt,
+                       @Param("revokedAt") LocalDateTime revokedAt);
+
+    List<RevokedTokenEntity> findByRevokedAtAfterAndExpiresAtAfter(LocalDateTime revokedAfter, LocalDateTime expiresAfter);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RevokedTokenEntity t WHERE t.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,7 +1,11 @@
 package edu.cit.serbisyo.repository;
 
 import edu.cit.serbisyo.entity.ServiceProviderEntity;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -15,4 +19,44 @@ public interface ServiceProviderRepository extends JpaRepository<ServiceProvider
     
     // Make sure the method is defined correctly
     Optional<ServiceProviderEntity> findByUserAuthUserId(Long userId);
+
+    // Atomically apply a review write to a provider's rating aggregates. averageRating is
+    // assigned first so it is computed from the pre-update sum and count on every database.
+    @Modifying
+    @Query("UPDATE ServiceProviderEntity p SET " +
+           "p.averageRating = CASE WHEN p.ratingCount + :countDelta > 0 " +
+           "THEN (p.ratingSum + :sumDelta) * 1.0 / (p.ratingCount + :countDelta) ELSE 0 END, " +
+           "p.ratingSum = p.ratingSum + :sumDelta, " +
+           "p.ratingCount = p.ratingCount + :countDelta " +
+           "WHERE p.providerId = :providerId")
+    int adjustRating(@Param("providerId") Long providerId,
+                     @Param("sumDelta") long sumDelta,
+                     @Param("countDelta") int countDelta);
+
+    // Used by the rating rebuild job
+    @Modifying
+    @Query("UPDATE ServiceProviderEntity p SET p.ratingSum = :ratingSum, p.ratingCount = :ratingCount, " +
+           "p.averageRating = :averageRating WHERE p.providerId = :providerId")
+    int setRating(@Param("providerId") Long providerId,
+                  @Param("ratingSum") long ratingSum,
+                  @Param("ratingCount") int ratingCount,
+                  @Param("averageRating") double averageRating);
+
+    @Modifying
+    @Query("UPDATE ServiceProviderEntity p SET p.ratingSum = 0, p.ratingCount = 0, p.averageRating = 0")
+    int resetRatings();
+
+    // Keyset page of providers after the given id, optionally filtered by verification state
+    @Query("SELECT p FROM ServiceProviderEntity p WHERE p.providerId > :afterId " +
+           "AND (:verified IS NULL OR p.verified = :verified) ORDER BY p.providerId ASC")
+    List<ServiceProviderEntity> findKeysetPage(
+        @Param("afterId") Long afterId,
+        @Param("verified") Boolean verified,
+        Pageable pageable);
+
+    // Rows still pointing at a pre-blob-store image path
+    List<ServiceProviderEntity> findByLegacyServiceProviderImageIsNotNull();
+
+    // Whether the rating aggregates have been built at all
+    boolean existsByRatingCountGreaterThan(int ratingCount);
 }
@@ -1,9 +1,18 @@
 package edu.cit.serbisyo.repository;
 
+import edu.cit.serbisyo.dto.ServiceCatalogueEntry;
 import edu.cit.serbisyo.entity.ServiceEntity;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ServiceRepository extends JpaRepository<ServiceEntity, Long> {
@@ -13,4 +22,68 @@ public interface ServiceRepository extends JpaRepository<ServiceEntity, Long> {
     List<ServiceEntity> findByPriceGreaterThanEqual(int minimumPrice);
     List<ServiceEntity> findByPriceLessThanEqual(int maximumPrice);
     List<ServiceEntity> findByPriceBetween(int minimumPrice, int maximumPrice);
-}
\ No newline at end of file
+
+    // Services belonging to one provider, resolved in the database instead of filtering findAll()
+    @EntityGraph(attributePaths = {"provider", "category"})
+    List<ServiceEntity> findByProviderProviderId(Long providerId);
+
+    // Catalogue projection: service, category, provider summary and rating in one statement.
+    // Outer joins, so services without a category or provider are listed as findAll() lists them.
+    // Streamed row by row (MySQL streams when the fetch size is Integer.MIN_VALUE).
+    @QueryHints({
+        @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+        @QueryHint(name = org.hibernate.jpa.HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new edu.cit.serbisyo.dto.ServiceCatalogueEntry(" +
+           "s.serviceId, s.serviceName, s.serviceDescription, s.price, s.durationEstimate, img.blobKey, img.extension, " +
+           "c.categoryId, c.categoryName, " +
+           "p.providerId, p.firstName, p.lastName, p.businessName, p.verified, " +
+           "s.ratingSum, s.ratingCount) " +
+           "FROM ServiceEntity s LEFT JOIN s.category c LEFT JOIN s.provider p LEFT JOIN s.serviceImageBlob img " +
+           "WHERE (:providerId IS NULL OR p.providerId = :providerId) " +
+           "AND (:categoryId IS NULL OR c.categoryId = :categoryId) " +
+           "ORDER BY s.serviceId ASC")
+    Stream<ServiceCatalogueEntry> streamCatalogue(@Param("providerId") Long providerId,
+                                                  @Param("categoryId") Long categoryId);
+
+    // Catalogue read: services with their provider and category fetched in the same statement
+    @EntityGraph(attributePaths = {"provider", "category", "serviceImageBlob"})
+    @Query("SELECT s FROM ServiceEntity s")
+    List<ServiceEntity> findAllWithProviderAndCategory();
+
+    // Atomically apply a review write to a service's rating aggregates
+    @Modifying
+    @Query("UPDATE ServiceEntity s SET s.ratingSum = s.ratingSum + :sumDelta, " +
+           "s.ratingCount = s.ratingCount + :countDelta WHERE s.serviceId = :serviceId")
+    int adjustRating(@Param("serviceId") Long serviceId,
+                     @Param("sumDelta") long sumDelta,
+                     @Param("countDelta") int countDelta);
+
+    // Used by the rating rebuild job
+    @Modifying
+    @Query("UPDATE ServiceEntity s SET s.ratingSum = :ratingSum, s.ratingCount = :ratingCount WHERE s.serviceId = :serviceId")
+    int setRating(@Param("serviceId") Long serviceId,
+                  @Param("ratingSum") long ratingSum,
+                  @Param("ratingCount") int ratingCount);
+
+    @Modifying
+    @Query("UPDATE ServiceEntity s SET s.ratingSum = 0, s.ratingCount = 0")
+    int resetRatings();
+
+    // Keyset page of services after the given id, optionally filtered by category and provider
+    @Query("SELECT s FROM ServiceEntity s WHERE s.serviceId > :afterId " +
+           "AND (:categoryId IS NULL OR s.category.categoryId = :categoryId) " +
+           "AND (:providerId IS NULL OR s.provider.providerId = :providerId) " +
+           "ORDER BY s.serviceId ASC")
+    List<ServiceEntity> findKeysetPage(
+        @Param("afterId") Long afterId,
+        @Param("categoryId") Long categoryId,
+        @Param("providerId") Long providerId,
+        Pageable pageable);
+
+    // Rows still pointing at a pre-blob-store image path
+    List<ServiceEntity> findByLegacyServiceImageIsNotNull();
+
+    // Whether the rating aggregates have been built at all
+    boolean existsByRatingCountGreaterThan(int ratingCount);
+}
@@ -0,0 +1,24 @@
+package edu.cit.serbisyo.repository;
+
+import edu.cit.serbisyo.entity.SlotReservationEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+@Repository
+public interface SlotReservationRepository extends JpaRepository<SlotReservationEntity, Long> {
+    boolean existsByProviderIdAndSlotDateAndStartTime(Long providerId, LocalDate slotDate, LocalTime startTime);
+
+    List<SlotReservationEntity> findByProviderIdAndSlotDate(Long providerId, LocalDate slotDate);
+
+    // Frees the slot held by a booking; a no-op if the booking never held one
+    @Modifying
+    @Query("DELETE FROM SlotReservationEntity r WHERE r.bookingId = :bookingId")
+    int deleteByBookingId(@Param("bookingId") Long bookingId);
+}
@@ -0,0 +1,84 @@
+package edu.cit.serbisyo.repository;
+
+import edu.cit.serbisyo.entity.StoredBlobEntity;
+import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StoredBlobRepository extends JpaRepository<StoredBlobEntity, String> {
+
+    /**
+     * Register content about to be written, or claim an existing blob for a new upload.
+     * An unreferenced blob's grace period restarts, so the collector (which re-checks it
+     * under a row lock) leaves its file alone; if the collector holds the lock this waits
+     * until the old row and file are gone, and the upload then recreates both.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO stored_blob (blob_key, extension, size, ref_count, created_at, unreferenced_since) " +
+                   "VALUES (:blobKey, :extension, :size, 0, :now, :now) AS incoming " +
+                   "ON DUPLICATE KEY UPDATE unreferenced_since = " +
+                   "IF(stored_blob.ref_count = 0, incoming.unreferenced_since, stored_blob.unreferenced_since)",
+           nativeQuery = true)
+    int claim(@Param("blobKey") String blobKey,
+              @Param("extension") String extension,
+              @Param("size") long size,
+              @Param("now") LocalDateTime now);
+
+    // Held by the collector while it re-checks a blob and unlinks its file
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM StoredBlobEntity b WHERE b.blobKey = :blobKey")
+    Optional<StoredBlobEntity> lockById(@Param("blobKey") String blobKey);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StoredBlobEntity b SET b.refCount = b.refCount + 1, b.unreferencedSince = NULL " +
+           "WHERE b.blobKey = :blobKey")
+    int addReference(@Param("blobKey") String blobKey);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StoredBlobEntity b SET b.refCount = b.refCount - 1, " +
+           "b.unreferencedSince = CASE WHEN b.refCount = 1 THEN :now ELSE b.unreferencedSince END " +
+           "WHERE b.blobKey = :blobKey AND b.refCount > 0")
+    int releaseReference(@Param("blobKey") String blobKey, @Param("now") LocalDateTime now);
+
+    // Recount references from every image column; repairs drift from cascaded deletes
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE stored_blob b SET b.ref_count = " +
+                   "(SELECT COUNT(*) FROM service s WHERE s.service_image_key = b.blob_key) + " +
+                   "(SELECT COUNT(*) FROM customer c WHERE c.profile_image_key = b.blob_key) + " +
+                   "(SELECT COUNT(*) FROM service_provider p WHERE p.service_provider_image_key = b.blob_key)",
+           nativeQuery = true)
+    int recountReferences();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE StoredBlobEntity b SET b.unreferencedSince = " +
+           "CASE WHEN b.refCount = 0 THEN COALESCE(b.unreferencedSince, :now) ELSE NULL END")
+    int markUnreferenced(@Param("now") LocalDateTime now);
+
+    @Query("SELECT b FROM StoredBlobEntity b WHERE b.refCount = 0 AND b.unreferencedSince < :cutoff ORDER BY b.unreferencedSince")
+    List<StoredBlobEntity> findOrphans(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // Deletes only if still unreferenced, so a concurrent attach wins over the collector
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM StoredBlobEntity b WHERE b.blobKey = :blobKey AND b.refCount = 0")
+    int deleteIfUnreferenced(@Param("blobKey") String blobKey);
+
+    @Query("SELECT COUNT(b), COALESCE(SUM(b.size), 0), COALESCE(SUM(b.refCount), 0) FROM StoredBlobEntity b")
+    List<Object[]> summarize();
+}
@@ -1,13 +1,107 @@
 package edu.cit.serbisyo.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import edu.cit.serbisyo.entity.UserAuthEntity;
 
+import java.util.Collection;
+import java.util.List;
+
 @Repository
 public interface UserAuthRepository extends JpaRepository <UserAuthEntity, Long> {
     
-    public UserAuthEntity findByEmail(String email);
-    public UserAuthEntity findByUserName(String userName); // Add this method to find by username
+    /**
+     * Lookups go through the uniquely indexed normalized columns, so they are case-insensitive.
+     * An account the backfill left unnormalized (its value collides with another account's
+     * in a different case) has a NULL normalized column, and the case-insensitive match would
+     * be that other account. So unless the match is exact, an unnormalized account with
+     * exactly the given value wins; it stays reachable only that way until an admin
+     * resolves the conflict.
+     */
+    public default UserAuthEntity findByEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        UserAuthEntity match = findByNormalizedEmail(UserAuthEntity.normalize(email));
+        if (match != null && email.equals(match.getEmail())) {
+            return match;
+        }
+        return findByEmailAndNormalizedEmailIsNull(email).stream()
+                .filter(user -> email.equals(user.getEmail()))
+                .findFirst()
+                .orElse(match);
+    }
+
+    public default UserAuthEntity findByUserName(String userName) {
+        if (userName == null) {
+            return null;
+        }
+        UserAuthEntity match = findByNormalizedUserName(UserAuthEntity.normalize(userName));
+        if (match != null && userName.equals(match.getUserName())) {
+            return match;
+        }
+        return findByUserNameAndNormalizedUserNameIsNull(userName).stream()
+                .filter(user -> userName.equals(user.getUserName()))
+                .findFirst()
+                .orElse(match);
+    }
+
+    public UserAuthEntity findByNormalizedEmail(String normalizedEmail);
+    public UserAuthEntity findByNormalizedUserName(String normalizedUserName);
+
+    // Candidates only: the column collation may ignore case, so callers compare exactly
+    public List<UserAuthEntity> findByEmailAndNormalizedEmailIsNull(String email);
+    public List<UserAuthEntity> findByUserNameAndNormalizedUserNameIsNull(String userName);
+
+    // Registration's single existence check against both unique keys
+    @Query("SELECT u FROM UserAuthEntity u WHERE u.normalizedEmail = :normalizedEmail " +
+           "OR u.normalizedUserName = :normalizedUserName")
+    public List<UserAuthEntity> findConflicting(@Param("normalizedEmail") String normalizedEmail,
+                                                @Param("normalizedUserName") String normalizedUserName);
+
+    // Backfill for rows written before the normalized columns existed
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserAuthEntity u SET u.normalizedEmail = LOWER(TRIM(u.email)), " +
+           "u.normalizedUserName = LOWER(TRIM(u.userName)) " +
+           "WHERE u.normalizedUserName IS NULL OR (u.normalizedEmail IS NULL AND u.email IS NOT NULL)")
+    public int backfillNormalizedColumns();
+
+    @Query("SELECT u.userId FROM UserAuthEntity u WHERE u.normalizedUserName IS NULL " +
+           "OR (u.normalizedEmail IS NULL AND u.email IS NOT NULL)")
+    public List<Long> findIdsMissingNormalizedColumns();
+
+    // Accounts the backfill could not normalize because another account already holds the value
+    @Query("SELECT u FROM UserAuthEntity u WHERE u.normalizedUserName IS NULL " +
+           "OR (u.normalizedEmail IS NULL AND u.email IS NOT NULL) ORDER BY u.userId")
+    public List<UserAuthEntity> findMissingNormalizedColumns();
+
+    // Per-row backfill, one column at a time, so a collision on one column does not block the other
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserAuthEntity u SET u.normalizedUserName = LOWER(TRIM(u.userName)) " +
+           "WHERE u.userId = :userId AND u.normalizedUserName IS NULL")
+    public int normalizeUserName(@Param("userId") Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserAuthEntity u SET u.normalizedEmail = LOWER(TRIM(u.email)) " +
+           "WHERE u.userId = :userId AND u.normalizedEmail IS NULL AND u.email IS NOT NULL")
+    public int normalizeEmail(@Param("userId") Long userId);
+
+    // Replace only the password hash (used when upgrading a hash on login)
+    @Modifying
+    @Transactional
+    @Query("UPDATE UserAuthEntity u SET u.password = :password WHERE u.userId = :userId")
+    public int updatePassword(@Param("userId") Long userId, @Param("password") String password);
+
+    // Users together with their customer/provider profile, in one statement
+    @Query("SELECT u FROM UserAuthEntity u LEFT JOIN FETCH u.customer LEFT JOIN FETCH u.serviceProvider " +
+           "WHERE u.userId IN :userIds")
+    public List<UserAuthEntity> findAllWithProfiles(@Param("userIds") Collection<Long> userIds);
 }
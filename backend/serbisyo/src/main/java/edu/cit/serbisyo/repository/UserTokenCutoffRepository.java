@@ -0,0 +1,36 @@
+package edu.cit.serbisyo.repository;
+
+import edu.cit.serbisyo.entity.UserTokenCutoffEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UserTokenCutoffRepository extends JpaRepository<UserTokenCutoffEntity, String> {
+
+    // The cutoff only moves forward, whichever node writes last
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO user_token_cutoff (user_name, cutoff_millis, updated_at) " +
+                   "VALUES (:userName, :cutoffMillis, :updatedAt) AS incoming " +
+                   "ON DUPLICATE KEY UPDATE " +
+                   "cutoff_millis = GREATEST(user_token_cutoff.cutoff_millis, incoming.cutoff_millis), " +
+                   "updated_at = incoming.updated_at",
+           nativeQuery = true)
+    int upsertCutoff(@Param("userName") String userName,
+                     @Param("cutoffMillis") long cutoffMillis,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    List<UserTokenCutoffEntity> findByUpdatedAtAfter(LocalDateTime updatedAfter);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM UserTokenCutoffEntity c WHERE c.cutoffMillis < :cutoffMillis")
+    int deleteOlderThan(@Param("cutoffMillis") long cutoffMillis);
+}
@@ -15,6 +15,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 import edu.cit.serbisyo.config.JwtUtil;
 import edu.cit.serbisyo.entity.UserAuthEntity;
 import edu.cit.serbisyo.repository.UserAuthRepository;
+import edu.cit.serbisyo.service.RefreshTokenService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -30,17 +31,14 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
     
     @Autowired
     private UserAuthRepository userAuthRepository;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
     
     @Override
     public void onAuthenticationSuccess(HttpServletRequest request, HttpServletResponse response, Authentication authentication)
             throws IOException, ServletException {
         
-        // Set CORS headers to allow redirect to frontend
-        response.setHeader("Access-Control-Allow-Origin", frontendUrl);
-        response.setHeader("Access-Control-Allow-Credentials", "true");
-        response.setHeader("Access-Control-Allow-Methods", "GET,POST,PUT,DELETE,OPTIONS");
-        response.setHeader("Access-Control-Allow-Headers", "Authorization,Content-Type,Accept,Origin");
-        
         // Get OAuth2 user information
         OAuth2AuthenticationToken oAuth2AuthenticationToken = (OAuth2AuthenticationToken) authentication;
         OAuth2User oAuth2User = oAuth2AuthenticationToken.getPrincipal();
@@ -78,10 +76,13 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
             } else {
                 // For existing users, generate token
                 String token = jwtUtil.generateToken(existingUser.getUserName(), existingUser.getEmail(), existingUser.getRole());
+                // The refresh token is never put in a URL; the client exchanges this single-use code for it
+                String loginCode = refreshTokenService.issueLoginCode(existingUser);
                 
                 redirectUrl = UriComponentsBuilder
                     .fromUriString(redirectUri)
                     .queryParam("token", token)
+                    .queryParam("code", loginCode)
                     .queryParam("userId", existingUser.getUserId())
                     .queryParam("role", existingUser.getRole())
                     .build().toUriString();
@@ -104,10 +105,13 @@ public class OAuth2LoginSuccessHandler extends SimpleUrlAuthenticationSuccessHan
             } else {
                 // For existing users, generate token and redirect to home
                 String token = jwtUtil.generateToken(existingUser.getUserName(), existingUser.getEmail(), existingUser.getRole());
+                // The refresh token is never put in a URL; the client exchanges this single-use code for it
+                String loginCode = refreshTokenService.issueLoginCode(existingUser);
                 
                 redirectUrl = UriComponentsBuilder
                     .fromUriString(redirectBaseUrl + "/oauth2/redirect")
                     .queryParam("token", token)
+                    .queryParam("code", loginCode)
                     .queryParam("userId", existingUser.getUserId())
                     .queryParam("role", existingUser.getRole())
                     .build().toUriString();
@@ -0,0 +1,45 @@
+package edu.cit.serbisyo.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Maps the role stored on a user ("Customer", "Service Provider", "Admin") to Spring
+ * Security authorities.
+ *
+ * Every signed-in user has "USER"; the role adds ROLE_ followed by the role in upper
+ * case with each run of other characters turned into one underscore, so
+ * "Service Provider" becomes ROLE_SERVICE_PROVIDER and hasRole("SERVICE_PROVIDER") works.
+ */
+public final class RoleAuthorities {
+
+    public static final String ADMIN = "ROLE_ADMIN";
+
+    private RoleAuthorities() {
+    }
+
+    // Null for a missing or blank role
+    public static String authorityFor(String role) {
+        if (role == null) {
+            return null;
+        }
+        String name = role.trim().toUpperCase(Locale.ROOT)
+                .replaceAll("[^A-Z0-9]+", "_")
+                .replaceAll("^_+|_+$", "");
+        return name.isEmpty() ? null : "ROLE_" + name;
+    }
+
+    public static List<GrantedAuthority> authoritiesFor(String role) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority("USER"));
+        String authority = authorityFor(role);
+        if (authority != null) {
+            authorities.add(new SimpleGrantedAuthority(authority));
+        }
+        return authorities;
+    }
+}
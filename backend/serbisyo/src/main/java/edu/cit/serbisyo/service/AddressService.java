@@ -1,6 +1,8 @@
 package edu.cit.serbisyo.service;
 
 import edu.cit.serbisyo.entity.AddressEntity;
+import edu.cit.serbisyo.pagination.CursorPage;
+import edu.cit.serbisyo.pagination.KeysetPaginator;
 import edu.cit.serbisyo.repository.AddressRepository;
 import org.springframework.stereotype.Service;
 
@@ -9,15 +11,23 @@ import java.util.List;
 @Service
 public class AddressService {
     private final AddressRepository addressRepository;
+    private final KeysetPaginator keysetPaginator;
 
-    public AddressService(AddressRepository addressRepository) {
+    public AddressService(AddressRepository addressRepository, KeysetPaginator keysetPaginator) {
         this.addressRepository = addressRepository;
+        this.keysetPaginator = keysetPaginator;
     }
 
     public List<AddressEntity> getAllAddresses() {
         return addressRepository.findAll();
     }
 
+    public CursorPage<AddressEntity> listAddresses(String cursor, Integer limit) {
+        return keysetPaginator.ascending(cursor, limit,
+                addressRepository::findByAddressIdGreaterThanOrderByAddressIdAsc,
+                AddressEntity::getAddressId);
+    }
+
     public AddressEntity createAddress(AddressEntity address) {
         return addressRepository.save(address);
     }
@@ -0,0 +1,307 @@
+package edu.cit.serbisyo.service;
+
+import edu.cit.serbisyo.config.HotFileCacheResolver;
+import edu.cit.serbisyo.entity.CompletedMigrationEntity;
+import edu.cit.serbisyo.entity.StoredBlobEntity;
+import edu.cit.serbisyo.repository.CompletedMigrationRepository;
+import edu.cit.serbisyo.repository.CustomerRepository;
+import edu.cit.serbisyo.repository.ServiceProviderRepository;
+import edu.cit.serbisyo.repository.ServiceRepository;
+import edu.cit.serbisyo.repository.StoredBlobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Reference-counted, content-addressed image store on top of FileStorageService.
+ *
+ * Entities point at a StoredBlobEntity by its 64-character key. Uploading registers the
+ * blob; swapping an entity's image adds a reference to the new blob and releases the old
+ * one. A nightly job recounts references from the image columns (catching cascaded
+ * deletes), then removes blobs that have been unreferenced for longer than the grace
+ * period, together with their files. An upload claims its blob row before writing the
+ * file and the collector re-checks the row under a lock before unlinking, so the two
+ * never leave a row without its file.
+ */
+@Service
+public class BlobStoreService {
+    private static final Logger log = LoggerFactory.getLogger(BlobStoreService.class);
+    static final String LEGACY_IMAGE_MIGRATION = "legacy-image-migration";
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private StoredBlobRepository storedBlobRepository;
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
+    @Autowired
+    private CompletedMigrationRepository completedMigrationRepository;
+
+    @Autowired
+    private HotFileCacheResolver hotFileCacheResolver;
+
+    // Fresh uploads start unreferenced; the grace period keeps them until they are attached
+    @Value("${app.blobs.gc-grace-hours:24}")
+    private long gcGraceHours;
+
+    @Value("${app.blobs.gc-batch-size:500}")
+    private int gcBatchSize;
+
+    // Stream the upload to disk and register it; the caller attaches it with swapReference.
+    // Resized variants are generated in the background.
+    public StoredBlobEntity store(MultipartFile file) throws IOException {
+        StoredBlobEntity blob = register(fileStorageService.store(file, this::claim));
+        imageVariantService.generateAsync(blob);
+        return blob;
+    }
+
+    public StoredBlobEntity getBlob(String blobKey) {
+        return storedBlobRepository.findById(blobKey)
+                .orElseThrow(() -> new NoSuchElementException("Image " + blobKey + " not found"));
+    }
+
+    // Runs before the file is moved into place, so the collector cannot unlink it afterwards.
+    // The key is the content hash alone, so a re-upload under another extension reuses the
+    // registered extension (and file).
+    private String claim(FileStorageService.StoredFile stored) {
+        storedBlobRepository.claim(stored.getHash(), stored.getExtension(), stored.getSize(), LocalDateTime.now());
+        return storedBlobRepository.findById(stored.getHash())
+                .map(StoredBlobEntity::getExtension)
+                .orElseThrow(() -> new IllegalStateException("Blob " + stored.getHash() + " was not registered"));
+    }
+
+    private StoredBlobEntity register(FileStorageService.StoredFile stored) {
+        return storedBlobRepository.findById(stored.getHash())
+                .orElseThrow(() -> new IllegalStateException("Blob " + stored.getHash() + " was not registered"));
+    }
+
+    // Move one reference from the previous blob (may be null) to the next one (may be null)
+    @Transactional
+    public void swapReference(StoredBlobEntity previous, StoredBlobEntity next) {
+        String previousKey = previous != null ? previous.getBlobKey() : null;
+        String nextKey = next != null ? next.getBlobKey() : null;
+        if (previousKey != null && previousKey.equals(nextKey)) {
+            return;
+        }
+        if (nextKey != null && storedBlobRepository.addReference(nextKey) == 0) {
+            throw new IllegalStateException("Blob " + nextKey + " no longer exists; upload it again");
+        }
+        if (previousKey != null) {
+            storedBlobRepository.releaseReference(previousKey, LocalDateTime.now());
+        }
+    }
+
+    @Transactional
+    public void release(StoredBlobEntity blob) {
+        swapReference(blob, null);
+    }
+
+    /**
+     * Recount references, then delete blobs unreferenced for longer than the grace period.
+     */
+    @Scheduled(cron = "${app.blobs.gc-cron:0 0 4 * * *}")
+    public Map<String, Object> collectGarbage() {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            storedBlobRepository.recountReferences();
+            storedBlobRepository.markUnreferenced(now);
+        });
+
+        LocalDateTime cutoff = now.minusHours(gcGraceHours);
+        int deletedBlobs = 0;
+        long freedBytes = 0;
+        List<StoredBlobEntity> orphans;
+        int deletedInBatch;
+        do {
+            orphans = storedBlobRepository.findOrphans(cutoff, PageRequest.of(0, gcBatchSize));
+            deletedInBatch = 0;
+            for (StoredBlobEntity orphan : orphans) {
+                try {
+                    if (Boolean.TRUE.equals(transactionTemplate.execute(status -> deleteIfStillOrphaned(orphan.getBlobKey(), cutoff)))) {
+                        evictCachedFiles(orphan);
+                        deletedInBatch++;
+                        freedBytes += orphan.getSize();
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Could not delete blob {}; kept for the next run", orphan.getRelativePath(), e);
+                }
+            }
+            deletedBlobs += deletedInBatch;
+            // Blobs that failed stay at the head of the next page; stop once a page is all failures
+        } while (orphans.size() == gcBatchSize && deletedInBatch > 0);
+
+        if (deletedBlobs > 0) {
+            log.info("Blob GC removed {} unreferenced file(s), {} bytes", deletedBlobs, freedBytes);
+        }
+        Map<String, Object> result = new HashMap<>();
+        result.put("deletedBlobs", deletedBlobs);
+        result.put("freedBytes", freedBytes);
+        result.putAll(getStats());
+        return result;
+    }
+
+    /**
+     * Re-check the blob under a row lock and, if it is still unreferenced past the grace
+     * period, delete the row and then unlink its files. An upload of the same content
+     * claims the row first, so it either makes this re-check fail or waits for the lock
+     * and then writes the file again. A failed unlink rolls the row delete back.
+     */
+    private boolean deleteIfStillOrphaned(String blobKey, LocalDateTime cutoff) {
+        StoredBlobEntity blob = storedBlobRepository.lockById(blobKey).orElse(null);
+        if (blob == null || blob.getRefCount() > 0
+                || blob.getUnreferencedSince() == null || !blob.getUnreferencedSince().isBefore(cutoff)) {
+            return false;
+        }
+        storedBlobRepository.deleteIfUnreferenced(blobKey);
+        try {
+            fileStorageService.delete(blob.getRelativePath());
+            imageVariantService.deleteVariants(blob);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return true;
+    }
+
+    // The hot cache would otherwise keep serving a deleted file until it aged out
+    private void evictCachedFiles(StoredBlobEntity blob) {
+        hotFileCacheResolver.evict(blob.getRelativePath());
+        ImageVariantService.variantPaths(blob).forEach(hotFileCacheResolver::evict);
+    }
+
+    public Map<String, Object> getStats() {
+        Object[] summary = storedBlobRepository.summarize().get(0);
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("blobs", summary[0]);
+        stats.put("storedBytes", summary[1]);
+        stats.put("references", summary[2]);
+        return stats;
+    }
+
+    /**
+     * Move images still referenced by a legacy path column into the blob store.
+     * Legacy files are deleted once every row pointing at them has been migrated.
+     * Completion is recorded in CompletedMigration, so once every row has moved (or its
+     * file turned out to be missing) later starts skip the scan; a run with failures is
+     * retried on the next start.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyImages() {
+        if (completedMigrationRepository.existsById(LEGACY_IMAGE_MIGRATION)) {
+            return;
+        }
+        Set<Path> migratedFiles = new HashSet<>();
+        Set<Path> failedFiles = new HashSet<>();
+        int migrated = 0;
+        migrated += migrate(serviceRepository.findByLegacyServiceImageIsNotNull(),
+                service -> service.getLegacyServiceImage(),
+                (service, blob) -> {
+                    service.setServiceImageBlob(blob);
+                    service.setLegacyServiceImage(null);
+                },
+                serviceRepository::save, migratedFiles, failedFiles);
+        migrated += migrate(customerRepository.findByLegacyProfileImageIsNotNull(),
+                customer -> customer.getLegacyProfileImage(),
+                (customer, blob) -> {
+                    customer.setProfileImageBlob(blob);
+                    customer.setLegacyProfileImage(null);
+                },
+                customerRepository::save, migratedFiles, failedFiles);
+        migrated += migrate(serviceProviderRepository.findByLegacyServiceProviderImageIsNotNull(),
+                provider -> provider.getLegacyServiceProviderImage(),
+                (provider, blob) -> {
+                    provider.setServiceProviderImageBlob(blob);
+                    provider.setLegacyServiceProviderImage(null);
+                },
+                serviceProviderRepository::save, migratedFiles, failedFiles);
+
+        // A file is only removed when no row that still needs it failed to migrate
+        migratedFiles.removeAll(failedFiles);
+        for (Path legacyFile : migratedFiles) {
+            try {
+                Files.deleteIfExists(legacyFile);
+            } catch (IOException e) {
+                log.warn("Could not delete migrated legacy image {}: {}", legacyFile, e.getMessage());
+            }
+        }
+        if (migrated > 0) {
+            log.info("Moved {} legacy image reference(s) into the blob store", migrated);
+        }
+        if (failedFiles.isEmpty()) {
+            completedMigrationRepository.save(new CompletedMigrationEntity(LEGACY_IMAGE_MIGRATION));
+        }
+    }
+
+    private <T> int migrate(List<T> rows, Function<T, String> legacyPath, BiConsumer<T, StoredBlobEntity> attach,
+                            Consumer<T> save, Set<Path> migratedFiles, Set<Path> failedFiles) {
+        int migrated = 0;
+        for (T row : rows) {
+            Path legacyFile = legacyFile(legacyPath.apply(row));
+            if (legacyFile == null || !Files.isRegularFile(legacyFile)) {
+                log.warn("Legacy image {} is missing; left as is", legacyPath.apply(row));
+                continue;
+            }
+            try {
+                StoredBlobEntity blob = register(fileStorageService.store(legacyFile, this::claim));
+                transactionTemplate.executeWithoutResult(status -> {
+                    storedBlobRepository.addReference(blob.getBlobKey());
+                    attach.accept(row, blob);
+                    save.accept(row);
+                });
+                migratedFiles.add(legacyFile);
+                migrated++;
+            } catch (IOException | RuntimeException e) {
+                failedFiles.add(legacyFile);
+                log.warn("Could not migrate legacy image {}: {}", legacyFile, e.getMessage());
+            }
+        }
+        return migrated;
+    }
+
+    // Legacy values look like "uploads/12_photo.jpg" (or with Windows separators); all lived flat in the uploads root
+    private Path legacyFile(String legacyPath) {
+        if (legacyPath == null || legacyPath.isBlank()) {
+            return null;
+        }
+        String fileName = legacyPath.substring(Math.max(legacyPath.lastIndexOf('/'), legacyPath.lastIndexOf('\\')) + 1);
+        return fileName.isEmpty() ? null : fileStorageService.resolve(fileName);
+    }
+}
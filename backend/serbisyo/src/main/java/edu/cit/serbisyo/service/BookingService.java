@@ -1,33 +1,43 @@
 package edu.cit.serbisyo.service;
 
 import edu.cit.serbisyo.entity.BookingEntity;
-import edu.cit.serbisyo.entity.NotificationEntity;
-import edu.cit.serbisyo.entity.ScheduleEntity;
 import edu.cit.serbisyo.entity.ServiceEntity;
 import edu.cit.serbisyo.entity.TransactionEntity;
 import edu.cit.serbisyo.entity.UserAuthEntity;
+import edu.cit.serbisyo.pagination.CursorPage;
+import edu.cit.serbisyo.pagination.KeysetPaginator;
 import edu.cit.serbisyo.repository.BookingRepository;
-import edu.cit.serbisyo.repository.NotificationRepository;
-import edu.cit.serbisyo.repository.ScheduleRepository;
 import edu.cit.serbisyo.repository.TransactionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.NoSuchElementException;
-import java.util.stream.Collectors;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 public class BookingService {
 
+    private static final int MAX_PROVIDER_PAGE_SIZE = 100;
+
+    // Booking statuses that give the reserved slot back to the provider
+    private static final Set<String> RELEASING_STATUSES = Set.of("CANCELLED", "CANCELED", "DECLINED", "REJECTED");
+
     @Autowired
     private BookingRepository bookingRepository;
 
     @Autowired
-    private ScheduleRepository scheduleRepository;
+    private SlotReservationService slotReservationService;
 
     @Autowired
     private TransactionRepository transactionRepository;
@@ -36,7 +46,10 @@ public class BookingService {
     private edu.cit.serbisyo.repository.ServiceRepository serviceRepository;
     
     @Autowired
-    private NotificationRepository notificationRepository;
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private KeysetPaginator keysetPaginator;
 
     public BookingService() {
         super();
@@ -57,14 +70,6 @@ public class BookingService {
         // First save the booking
         BookingEntity savedBooking = bookingRepository.save(booking);
 
-        try {
-            // Create notification for service provider
-            createBookingNotificationForProvider(savedBooking);
-        } catch (Exception e) {
-            // Log the error but don't prevent the booking from being created
-            System.err.println("Failed to create notification: " + e.getMessage());
-        }
-
         // Get the provider ID from the booking's service
         ServiceEntity service = booking.getService();
         if (service == null || service.getProvider() == null) {
@@ -73,24 +78,19 @@ public class BookingService {
         
         Long providerId = service.getProvider().getProviderId();
 
-        // Get the day of week from the booking date
-        DayOfWeek dayOfWeek = booking.getBookingDate().getDayOfWeek();
-
-        // Find the schedule slot that exactly matches this booking time (using start time)
-        List<ScheduleEntity> schedules = scheduleRepository.findByServiceProviderProviderIdAndDayOfWeekAndStartTime(
-                providerId, dayOfWeek, booking.getBookingTime());
-
-        // If no exact match found, try the previous query as fallback
-        if (schedules.isEmpty()) {
-            schedules = scheduleRepository.findByServiceProviderProviderIdAndDayOfWeekAndStartTimeLessThanEqualAndEndTimeGreaterThanEqual(
-                    providerId, dayOfWeek, booking.getBookingTime(), booking.getBookingTime());
+        // Reserve this date's instance of the provider's slot. If another booking got the
+        // slot first this throws and the whole booking transaction rolls back.
+        if (booking.getBookingDate() != null && booking.getBookingTime() != null) {
+            slotReservationService.reserve(providerId, booking.getBookingDate(), booking.getBookingTime(),
+                    savedBooking.getBookingId());
         }
 
-        // If a matching schedule is found, update it to not available
-        if (!schedules.isEmpty()) {
-            ScheduleEntity schedule = schedules.get(0);
-            schedule.setAvailable(false);
-            scheduleRepository.save(schedule);
+        try {
+            // Create notification for service provider
+            createBookingNotificationForProvider(savedBooking);
+        } catch (Exception e) {
+            // Log the error but don't prevent the booking from being created
+            System.err.println("Failed to create notification: " + e.getMessage());
         }
 
         // Create transaction record for any payment method
@@ -105,7 +105,7 @@ public class BookingService {
         return savedBooking;
     }
 
-    // Create notification for the service provider
+    // Queue a notification for the service provider; it is written by NotificationDispatcher after commit
     private void createBookingNotificationForProvider(BookingEntity booking) {
         if (booking == null || booking.getService() == null || booking.getService().getProvider() == null 
                 || booking.getService().getProvider().getUserAuth() == null) {
@@ -113,35 +113,21 @@ public class BookingService {
             return;
         }
         
-        // Create a notification for the service provider
-        NotificationEntity notification = new NotificationEntity();
-        
-        // Set the user (service provider) who will receive the notification
+        // The service provider who will receive the notification
         UserAuthEntity providerUser = booking.getService().getProvider().getUserAuth();
-        notification.setUser(providerUser);
-        
-        // Set notification type and reference information
-        notification.setType("booking");
-        notification.setReferenceId(booking.getBookingId());
-        notification.setReferenceType("Booking");
         
         // Get customer and service information for the message
         String customerName = booking.getCustomer() != null && booking.getCustomer().getUserAuth() != null 
                 ? booking.getCustomer().getUserAuth().getUserName() 
                 : "A customer";
-                
-        // Use getServiceName() instead of getTitle() which doesn't exist
         String serviceName = booking.getService().getServiceName();
         
-        // Create notification message
-        notification.setMessage(customerName + " has booked your service: " + serviceName);
-        
-        // Set other notification properties
-        notification.setRead(false);
-        notification.setCreatedAt(LocalDateTime.now());
-        
-        // Save the notification
-        notificationRepository.save(notification);
+        eventPublisher.publishEvent(new NotificationEvent(
+                providerUser.getUserId(),
+                "booking",
+                customerName + " has booked your service: " + serviceName,
+                booking.getBookingId(),
+                "Booking"));
     }
 
     // Helper method to create a transaction record
@@ -178,6 +164,14 @@ public class BookingService {
         return bookingRepository.findAll();
     }
 
+    // READ a page of bookings (keyset pagination)
+    public CursorPage<BookingEntity> listBookings(String cursor, Integer limit, String status) {
+        String statusFilter = (status == null || status.isBlank()) ? null : status;
+        return keysetPaginator.ascending(cursor, limit,
+                (afterId, pageable) -> bookingRepository.findKeysetPage(afterId, statusFilter, pageable),
+                BookingEntity::getBookingId);
+    }
+
     // READ a booking by ID
     public BookingEntity getBookingById(Long bookingId) {
         return bookingRepository.findById(bookingId)
@@ -190,38 +184,47 @@ public class BookingService {
     }
 
     /**
-     * Get bookings for services offered by a specific provider - enhanced with better null checking
+     * Get bookings for services offered by a specific provider
      */
     public List<BookingEntity> getBookingsByProviderId(Long providerId) {
         if (providerId == null) {
             throw new IllegalArgumentException("Provider ID cannot be null");
         }
-        
-        List<BookingEntity> allBookings = bookingRepository.findAll();
-        
-        return allBookings.stream()
-            .filter(booking -> {
-                // Careful null checking for the entire object chain
-                if (booking == null) return false;
-                
-                ServiceEntity service = booking.getService();
-                if (service == null) return false;
-                
-                // Check if service has a provider
-                if (service.getProvider() == null) return false;
-                
-                // Check if provider ID matches
-                Long bookingProviderId = service.getProvider().getProviderId();
-                return bookingProviderId != null && bookingProviderId.equals(providerId);
-            })
-            .collect(Collectors.toList());
+
+        return bookingRepository.findByServiceProviderProviderId(providerId);
+    }
+
+    /**
+     * Get a page of a provider's bookings, optionally filtered by status and booking date range.
+     * Newest bookings come first.
+     */
+    public Page<BookingEntity> getProviderBookings(Long providerId, String status, LocalDate fromDate,
+                                                   LocalDate toDate, int page, int size) {
+        if (providerId == null) {
+            throw new IllegalArgumentException("Provider ID cannot be null");
+        }
+        if (fromDate != null && toDate != null && fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("'from' date must not be after 'to' date");
+        }
+
+        int pageSize = Math.min(Math.max(size, 1), MAX_PROVIDER_PAGE_SIZE);
+        Pageable pageable = PageRequest.of(Math.max(page, 0), pageSize,
+                Sort.by(Sort.Direction.DESC, "bookingDate", "bookingTime", "bookingId"));
+
+        String statusFilter = (status == null || status.isBlank()) ? null : status;
+        return bookingRepository.findProviderBookings(providerId, statusFilter, fromDate, toDate, pageable);
     }
 
     // UPDATE an existing booking
+    @Transactional
     public BookingEntity updateBooking(Long bookingId, BookingEntity newBookingDetails) {
         BookingEntity existingBooking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new NoSuchElementException("Booking with ID " + bookingId + " not found"));
 
+        boolean slotChanged = !Objects.equals(existingBooking.getBookingDate(), newBookingDetails.getBookingDate())
+                || !Objects.equals(existingBooking.getBookingTime(), newBookingDetails.getBookingTime());
+        boolean wasReleased = releasesSlot(existingBooking.getStatus());
+
         existingBooking.setService(newBookingDetails.getService());
         existingBooking.setBookingDate(newBookingDetails.getBookingDate());
         existingBooking.setBookingTime(newBookingDetails.getBookingTime());
@@ -235,19 +238,42 @@ public class BookingService {
             // This might be where you'd update transaction status if needed
         }
 
-        return bookingRepository.save(existingBooking);
+        BookingEntity savedBooking = bookingRepository.save(existingBooking);
+
+        // Move the reservation to the new date/time, drop it if the booking was cancelled,
+        // or take the slot again if a cancelled booking was reactivated
+        if (slotChanged || wasReleased || releasesSlot(savedBooking.getStatus())) {
+            slotReservationService.release(bookingId);
+            if (!releasesSlot(savedBooking.getStatus())) {
+                reserveSlot(savedBooking);
+            }
+        }
+
+        return savedBooking;
     }
 
     // Update booking status
+    @Transactional
     public BookingEntity updateBookingStatus(Long bookingId, String status) {
         BookingEntity booking = getBookingById(bookingId);
+        boolean wasReleased = releasesSlot(booking.getStatus());
         booking.setStatus(status);
+
+        // A cancelled or declined booking frees its slot for that date; reactivating it takes the slot back
+        if (releasesSlot(status)) {
+            slotReservationService.release(bookingId);
+        } else if (wasReleased) {
+            reserveSlot(booking);
+        }
+
         return bookingRepository.save(booking);
     }
 
     // DELETE a booking
+    @Transactional
     public String deleteBooking(Long bookingId) {
         if (bookingRepository.existsById(bookingId)) {
+            slotReservationService.release(bookingId);
             bookingRepository.deleteById(bookingId);
             return "Booking with ID " + bookingId + " has been deleted successfully.";
         } else {
@@ -256,7 +282,8 @@ public class BookingService {
     }
 
     /**
-     * Complete a booking and update the provider's schedule
+     * Complete a booking. The slot reservation for the booking's date is kept, since
+     * that dated slot has been used; the weekly schedule itself is never modified.
      */
     public BookingEntity completeBookingAndReleaseSchedule(Long bookingId) {
         // Get the booking
@@ -265,31 +292,23 @@ public class BookingService {
         // Update status to completed
         booking.setStatus("COMPLETED");
 
-        // Get the provider ID from the booking's service
-        ServiceEntity service = booking.getService();
-        Long providerId = service.getProvider().getProviderId();
-
-        // Get the day of week from the booking date
-        DayOfWeek dayOfWeek = booking.getBookingDate().getDayOfWeek();
-
-        // Find the schedule slot that exactly matches this booking time (using start time)
-        List<ScheduleEntity> schedules = scheduleRepository.findByServiceProviderProviderIdAndDayOfWeekAndStartTime(
-                providerId, dayOfWeek, booking.getBookingTime());
-
-        // If no exact match found, try the previous query as fallback
-        if (schedules.isEmpty()) {
-            schedules = scheduleRepository.findByServiceProviderProviderIdAndDayOfWeekAndStartTimeLessThanEqualAndEndTimeGreaterThanEqual(
-                    providerId, dayOfWeek, booking.getBookingTime(), booking.getBookingTime());
-        }
+        // Save the updated booking
+        return bookingRepository.save(booking);
+    }
 
-        // If a matching schedule is found, update it to available
-        if (!schedules.isEmpty()) {
-            ScheduleEntity schedule = schedules.get(0);
-            schedule.setAvailable(true);
-            scheduleRepository.save(schedule);
+    // Throws SlotConflictException if the slot was taken by another booking meanwhile
+    private void reserveSlot(BookingEntity booking) {
+        if (booking.getService() == null || booking.getBookingDate() == null || booking.getBookingTime() == null) {
+            return;
         }
+        Long serviceId = booking.getService().getServiceId();
+        ServiceEntity service = serviceRepository.findById(serviceId)
+                .orElseThrow(() -> new NoSuchElementException("Service with ID " + serviceId + " not found"));
+        slotReservationService.reserve(service.getProvider().getProviderId(),
+                booking.getBookingDate(), booking.getBookingTime(), booking.getBookingId());
+    }
 
-        // Save the updated booking
-        return bookingRepository.save(booking);
+    private boolean releasesSlot(String status) {
+        return status != null && RELEASING_STATUSES.contains(status.toUpperCase(Locale.ROOT));
     }
 }
\ No newline at end of file
@@ -0,0 +1,271 @@
+package edu.cit.serbisyo.service;
+
+import edu.cit.serbisyo.entity.CompletedMigrationEntity;
+import edu.cit.serbisyo.entity.ConversationSummaryEntity;
+import edu.cit.serbisyo.entity.MessageEntity;
+import edu.cit.serbisyo.entity.UserAuthEntity;
+import edu.cit.serbisyo.repository.CompletedMigrationRepository;
+import edu.cit.serbisyo.repository.ConversationSummaryRepository;
+import edu.cit.serbisyo.repository.MessageRepository;
+import edu.cit.serbisyo.repository.UserAuthRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the per-user conversation summaries behind the chat inbox.
+ *
+ * Every message write is folded into the sender's and receiver's summary rows,
+ * so listing conversation partners never has to read the Message table.
+ */
+@Service
+public class ConversationSummaryService {
+    private static final Logger log = LoggerFactory.getLogger(ConversationSummaryService.class);
+    private static final int MAX_INBOX_PAGE_SIZE = 100;
+    static final String BACKFILL_MIGRATION = "conversation-summary-backfill";
+    private static final int BACKFILL_CHUNK_SIZE = 500;
+
+    private final ConversationSummaryRepository conversationSummaryRepository;
+    private final MessageRepository messageRepository;
+    private final UserAuthRepository userAuthRepository;
+    private final CompletedMigrationRepository completedMigrationRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public ConversationSummaryService(ConversationSummaryRepository conversationSummaryRepository,
+                                      MessageRepository messageRepository,
+                                      UserAuthRepository userAuthRepository,
+                                      CompletedMigrationRepository completedMigrationRepository,
+                                      TransactionTemplate transactionTemplate) {
+        this.conversationSummaryRepository = conversationSummaryRepository;
+        this.messageRepository = messageRepository;
+        this.userAuthRepository = userAuthRepository;
+        this.completedMigrationRepository = completedMigrationRepository;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    // Fold a newly written message into both participants' summaries
+    @Transactional
+    public void recordMessage(MessageEntity message) {
+        Long senderId = message.getSender().getUserId();
+        Long receiverId = message.getReceiver().getUserId();
+        if (senderId.equals(receiverId)) {
+            return;
+        }
+
+        conversationSummaryRepository.upsertMessage(senderId, receiverId, message.getMessageId(),
+                message.getMessageText(), senderId, message.getStatus(), message.getSentAt(), 0);
+        conversationSummaryRepository.upsertMessage(receiverId, senderId, message.getMessageId(),
+                message.getMessageText(), senderId, message.getStatus(), message.getSentAt(),
+                isUnread(message.getStatus()) ? 1 : 0);
+    }
+
+    // Reflect an edit or status change of an existing message
+    @Transactional
+    public void recordUpdate(MessageEntity message, String previousStatus) {
+        Long senderId = message.getSender().getUserId();
+        Long receiverId = message.getReceiver().getUserId();
+        if (senderId.equals(receiverId)) {
+            return;
+        }
+
+        boolean wasUnread = isUnread(previousStatus);
+        boolean nowUnread = isUnread(message.getStatus());
+        if (wasUnread != nowUnread) {
+            conversationSummaryRepository.adjustUnread(receiverId, senderId, nowUnread ? 1 : -1);
+        }
+        conversationSummaryRepository.updateLastMessage(message.getMessageId(), message.getMessageText(), message.getStatus());
+    }
+
+    // After a delete the last message may be gone, so rebuild the pair from the messages
+    @Transactional
+    public void recordDelete(MessageEntity message) {
+        Long senderId = message.getSender().getUserId();
+        Long receiverId = message.getReceiver().getUserId();
+        if (senderId.equals(receiverId)) {
+            return;
+        }
+        refresh(senderId, receiverId);
+        refresh(receiverId, senderId);
+    }
+
+    // Mark everything the owner received from the partner as read
+    @Transactional
+    public int markConversationRead(Long ownerId, Long partnerId) {
+        int updated = messageRepository.markConversationRead(ownerId, partnerId);
+        conversationSummaryRepository.markRead(ownerId, partnerId);
+        return updated;
+    }
+
+    /**
+     * Inbox for a user, most recent conversation first. Partner names and images
+     * are loaded for the whole page in one query.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getInbox(Long userId, Integer page, Integer size) {
+        Pageable pageable = (page == null && size == null)
+                ? Pageable.unpaged()
+                : PageRequest.of(page == null ? 0 : Math.max(page, 0),
+                                 size == null ? 20 : Math.min(Math.max(size, 1), MAX_INBOX_PAGE_SIZE));
+
+        List<ConversationSummaryEntity> summaries = conversationSummaryRepository
+                .findByOwnerIdOrderByLastActivityDescSummaryIdDesc(userId, pageable)
+                .getContent();
+        if (summaries.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Set<Long> partnerIds = summaries.stream()
+                .map(ConversationSummaryEntity::getPartnerId)
+                .collect(Collectors.toSet());
+        Map<Long, UserAuthEntity> partners = userAuthRepository.findAllWithProfiles(partnerIds).stream()
+                .collect(Collectors.toMap(UserAuthEntity::getUserId, u -> u));
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (ConversationSummaryEntity summary : summaries) {
+            UserAuthEntity partner = partners.get(summary.getPartnerId());
+            if (partner == null) {
+                continue;
+            }
+
+            Map<String, Object> partnerData = new HashMap<>();
+            partnerData.put("userId", partner.getUserId());
+            partnerData.put("userName", partner.getUserName());
+            partnerData.put("role", partner.getRole());
+
+            if (partner.getCustomer() != null) {
+                partnerData.put("firstName", partner.getCustomer().getFirstName());
+                partnerData.put("lastName", partner.getCustomer().getLastName());
+                if (partner.getCustomer().getProfileImage() != null) {
+                    partnerData.put("profileImage", partner.getCustomer().getProfileImage());
+                    partnerData.put("profileImageThumb", partner.getCustomer().getProfileImageVariants().get("thumb"));
+                }
+            } else if (partner.getServiceProvider() != null) {
+                partnerData.put("firstName", partner.getServiceProvider().getFirstName());
+                partnerData.put("lastName", partner.getServiceProvider().getLastName());
+                partnerData.put("businessName", partner.getServiceProvider().getBusinessName());
+                if (partner.getServiceProvider().getServiceProviderImage() != null) {
+                    partnerData.put("profileImage", partner.getServiceProvider().getServiceProviderImage());
+                    partnerData.put("profileImageThumb", partner.getServiceProvider().getServiceProviderImageVariants().get("thumb"));
+                }
+            }
+
+            partnerData.put("lastMessage", summary.getLastMessageText());
+            partnerData.put("lastMessageTime", summary.getLastActivity());
+            partnerData.put("isUnread", summary.getPartnerId().equals(summary.getLastSenderId())
+                    && isUnread(summary.getLastMessageStatus()));
+            partnerData.put("unreadCount", summary.getUnreadCount());
+
+            result.add(partnerData);
+        }
+        return result;
+    }
+
+    /**
+     * Build the summaries from the existing messages until that has completed once.
+     * Completion is recorded in CompletedMigration, so a backfill that failed part way
+     * (while live messages were already creating rows) is finished on the next start.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        try {
+            if (completedMigrationRepository.existsById(BACKFILL_MIGRATION)) {
+                return;
+            }
+            int written = backfill();
+            completedMigrationRepository.save(new CompletedMigrationEntity(BACKFILL_MIGRATION));
+            if (written > 0) {
+                log.info("Backfilled {} conversation summaries", written);
+            }
+        } catch (Exception e) {
+            log.error("Failed to backfill conversation summaries; will retry on next start", e);
+        }
+    }
+
+    int backfill() {
+        Map<String, ConversationSummaryEntity> summaries = new HashMap<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<Object[]> rows = messageRepository.streamSummaryColumns()) {
+                rows.forEach(row -> {
+                    Long messageId = (Long) row[0];
+                    Long senderId = (Long) row[1];
+                    Long receiverId = (Long) row[2];
+                    String text = (String) row[3];
+                    String messageStatus = (String) row[4];
+                    LocalDateTime sentAt = (LocalDateTime) row[5];
+                    if (senderId.equals(receiverId)) {
+                        return;
+                    }
+
+                    apply(summaries.computeIfAbsent(senderId + ":" + receiverId,
+                            k -> new ConversationSummaryEntity(senderId, receiverId)),
+                            messageId, text, senderId, messageStatus, sentAt, false);
+                    apply(summaries.computeIfAbsent(receiverId + ":" + senderId,
+                            k -> new ConversationSummaryEntity(receiverId, senderId)),
+                            messageId, text, senderId, messageStatus, sentAt, isUnread(messageStatus));
+                });
+            }
+        });
+
+        // Idempotent upserts, committed in chunks so a retry after a failure redoes little
+        List<ConversationSummaryEntity> pending = new ArrayList<>(summaries.values());
+        for (int start = 0; start < pending.size(); start += BACKFILL_CHUNK_SIZE) {
+            List<ConversationSummaryEntity> chunk = pending.subList(start, Math.min(start + BACKFILL_CHUNK_SIZE, pending.size()));
+            transactionTemplate.executeWithoutResult(status -> chunk.forEach(summary ->
+                    conversationSummaryRepository.upsertComputedSummary(summary.getOwnerId(), summary.getPartnerId(),
+                            summary.getLastMessageId(), summary.getLastMessageText(), summary.getLastSenderId(),
+                            summary.getLastMessageStatus(), summary.getLastActivity(), summary.getUnreadCount())));
+        }
+        return pending.size();
+    }
+
+    private void refresh(Long ownerId, Long partnerId) {
+        List<MessageEntity> latest = messageRepository.findLatestBetween(ownerId, partnerId, PageRequest.of(0, 1));
+        Optional<ConversationSummaryEntity> existing = conversationSummaryRepository.findByOwnerIdAndPartnerId(ownerId, partnerId);
+
+        if (latest.isEmpty()) {
+            existing.ifPresent(conversationSummaryRepository::delete);
+            return;
+        }
+
+        MessageEntity message = latest.get(0);
+        ConversationSummaryEntity summary = existing.orElseGet(() -> new ConversationSummaryEntity(ownerId, partnerId));
+        summary.setLastMessageId(message.getMessageId());
+        summary.setLastMessageText(message.getMessageText());
+        summary.setLastSenderId(message.getSender().getUserId());
+        summary.setLastMessageStatus(message.getStatus());
+        summary.setLastActivity(message.getSentAt());
+        summary.setUnreadCount((int) messageRepository.countUnread(ownerId, partnerId));
+        conversationSummaryRepository.save(summary);
+    }
+
+    private static void apply(ConversationSummaryEntity summary, Long messageId, String text, Long senderId,
+                              String status, LocalDateTime sentAt, boolean unread) {
+        if (summary.getLastActivity() == null || sentAt == null || !sentAt.isBefore(summary.getLastActivity())) {
+            summary.setLastMessageId(messageId);
+            summary.setLastMessageText(text);
+            summary.setLastSenderId(senderId);
+            summary.setLastMessageStatus(status);
+            if (sentAt != null) {
+                summary.setLastActivity(sentAt);
+            }
+        }
+        if (unread) {
+            summary.setUnreadCount(summary.getUnreadCount() + 1);
+        }
+    }
+
+    private static boolean isUnread(String status) {
+        return !"READ".equalsIgnoreCase(status);
+    }
+}
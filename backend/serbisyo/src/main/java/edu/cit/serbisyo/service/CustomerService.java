@@ -4,12 +4,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import edu.cit.serbisyo.entity.StoredBlobEntity;
 import edu.cit.serbisyo.entity.CustomerEntity;
+import edu.cit.serbisyo.pagination.CursorPage;
+import edu.cit.serbisyo.pagination.KeysetPaginator;
 import edu.cit.serbisyo.repository.CustomerRepository;
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -20,6 +20,15 @@ public class CustomerService {
     @Autowired
     private CustomerRepository customerRepository;
 
+    @Autowired
+    private KeysetPaginator keysetPaginator;
+
+    @Autowired
+    private BlobStoreService blobStoreService;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
     public CustomerService() {
         super();
     }
@@ -34,6 +43,13 @@ public class CustomerService {
         return customerRepository.findAll();
     }
 
+    // READ A PAGE (keyset pagination)
+    public CursorPage<CustomerEntity> listCustomers(String cursor, Integer limit) {
+        return keysetPaginator.ascending(cursor, limit,
+                customerRepository::findByCustomerIdGreaterThanOrderByCustomerIdAsc,
+                CustomerEntity::getCustomerId);
+    }
+
     // READ BY ID
     public Optional<CustomerEntity> getCustomerById(Long customerId) {
         return customerRepository.findById(customerId);
@@ -55,8 +71,10 @@ public class CustomerService {
 
     // DELETE
     public String deleteCustomer(Long customerId) {
-        if (customerRepository.findById(customerId).isPresent()) {
-            customerRepository.deleteById(customerId);
+        CustomerEntity customer = customerRepository.findById(customerId).orElse(null);
+        if (customer != null) {
+            customerRepository.delete(customer);
+            blobStoreService.release(customer.getProfileImageBlob());
             return "Customer successfully deleted.";
         } else {
             return "Customer with ID " + customerId + " not found.";
@@ -67,35 +85,30 @@ public class CustomerService {
         CustomerEntity customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new IllegalArgumentException("Customer not found"));
 
-        // Ensure the uploads directory exists
-        Path uploadDir = Paths.get("uploads");
-        if (!Files.exists(uploadDir)) {
-            Files.createDirectories(uploadDir); // Create the directory if it doesn't exist
-        }
-        
-        // Save the image to a local directory or cloud storage
-        String fileName = customerId + "_" + image.getOriginalFilename();
-        Path filePath = Paths.get("uploads/" + fileName);
-        Files.write(filePath, image.getBytes());
-
-        // Save the file path to the database
-        customer.setProfileImage(filePath.toString());
+        // Stream the image into the blob store and move the reference over to it
+        StoredBlobEntity storedImage = blobStoreService.store(image);
+        blobStoreService.swapReference(customer.getProfileImageBlob(), storedImage);
+
+        // Save the image key to the database
+        customer.setProfileImageBlob(storedImage);
         customerRepository.save(customer);
 
         return "Profile image uploaded successfully.";
     }
 
-    public String getProfileImage(Long customerId) {
+    // size (thumb, card, full or a width) selects a resized variant; null returns the original
+    public String getProfileImage(Long customerId, String size) {
         CustomerEntity customer = customerRepository.findById(customerId)
                 .orElseThrow(() -> new IllegalArgumentException("Customer not found"));
     
-        if (customer.getProfileImage() == null || customer.getProfileImage().isEmpty()) {
+        if (customer.getProfileImageBlob() == null) {
             throw new IllegalArgumentException("Profile image not found for the customer.");
         }
 
-        System.out.println("Profile Image Path: " + "/uploads/" + Paths.get(customer.getProfileImage()).getFileName().toString());
-    
-        // Return the relative path of the profile image
-        return "/uploads/" + Paths.get(customer.getProfileImage()).getFileName().toString();
+        // Return the public URL of the profile image
+        if (size == null || size.isBlank()) {
+            return customer.getProfileImage();
+        }
+        return imageVariantService.resolveUrl(customer.getProfileImageBlob(), ImageVariantService.Variant.fromRequest(size));
     }
 }
\ No newline at end of file
@@ -0,0 +1,193 @@
+package edu.cit.serbisyo.service;
+
+import edu.cit.serbisyo.entity.StoredBlobEntity;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Stores uploaded files under the uploads directory.
+ *
+ * The upload is streamed from the multipart part straight into a temp file through a
+ * FileChannel, hashing it on the way, so heap use per upload is a fixed buffer whatever
+ * the file size. The size limit is enforced while streaming. The finished temp file is
+ * atomically moved to a name derived from its SHA-256 inside two levels of hash-prefix
+ * directories (ab/cd/abcd...), so identical uploads share one file, no directory grows
+ * huge, and a reader never sees a half-written one. BlobStoreService tracks which
+ * stored files are still referenced.
+ */
+@Service
+public class FileStorageService {
+
+    @Value("${app.uploads.dir:uploads}")
+    private String uploadDir;
+
+    @Value("${app.uploads.max-size:10MB}")
+    private DataSize maxSize;
+
+    private Path root;
+    private Path tempDir;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Paths.get(uploadDir);
+        tempDir = root.resolve(".tmp");
+        Files.createDirectories(tempDir);
+    }
+
+    /**
+     * Store an upload under its content hash. claim is called once the hash is known
+     * and before the file is moved into place; it returns the extension to store the file
+     * under, which is the first upload's when the same content was stored before, so one
+     * content never ends up in two files. If claim throws, nothing is stored.
+     * Throws IllegalArgumentException if the file is empty or over the size limit.
+     */
+    public StoredFile store(MultipartFile file, Function<StoredFile, String> claim) throws IOException {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("No file was uploaded.");
+        }
+        // Reject early when the client declared the size; the stream is still checked below
+        if (file.getSize() > maxSize.toBytes()) {
+            throw new IllegalArgumentException(tooLargeMessage());
+        }
+        try (InputStream in = file.getInputStream()) {
+            return write(in, file.getOriginalFilename(), claim);
+        }
+    }
+
+    // Store a file that is already on disk (used when migrating legacy uploads)
+    public StoredFile store(Path source, Function<StoredFile, String> claim) throws IOException {
+        try (InputStream in = Files.newInputStream(source)) {
+            return write(in, source.getFileName().toString(), claim);
+        }
+    }
+
+    // Absolute location of a stored file, given its path relative to the uploads directory
+    public Path resolve(String relativePath) {
+        return root.resolve(relativePath);
+    }
+
+    public boolean delete(String relativePath) throws IOException {
+        return Files.deleteIfExists(root.resolve(relativePath));
+    }
+
+    private StoredFile write(InputStream input, String originalFilename, Function<StoredFile, String> claim) throws IOException {
+        Path temp = Files.createTempFile(tempDir, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            long written;
+            try (InputStream in = new DigestInputStream(input, digest);
+                 ReadableByteChannel source = Channels.newChannel(in);
+                 FileChannel target = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                // Ask for one byte more than allowed so an oversized stream is detected without reading it all
+                written = target.transferFrom(source, 0, maxSize.toBytes() + 1);
+                target.force(false);
+            }
+            if (written > maxSize.toBytes()) {
+                throw new IllegalArgumentException(tooLargeMessage());
+            }
+            if (written == 0) {
+                throw new IllegalArgumentException("No file was uploaded.");
+            }
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            StoredFile stored = new StoredFile(hash, extensionOf(originalFilename), written);
+            String extension = claim.apply(stored);
+            if (!stored.getExtension().equals(extension)) {
+                stored = new StoredFile(hash, extension, written);
+            }
+            Path destination = root.resolve(StoredBlobEntity.relativePath(hash, extension));
+            Files.createDirectories(destination.getParent());
+            moveIntoPlace(temp, destination);
+            return stored;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void moveIntoPlace(Path temp, Path destination) throws IOException {
+        if (Files.exists(destination)) {
+            // Same content already stored
+            return;
+        }
+        try {
+            Files.move(temp, destination, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException e) {
+            // A concurrent upload of the same content won the race
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, destination, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // Keep a short, alphanumeric extension so static serving still picks the right content type
+    private static String extensionOf(String originalFilename) {
+        if (originalFilename == null) {
+            return "";
+        }
+        int dot = originalFilename.lastIndexOf('.');
+        if (dot < 0 || dot == originalFilename.length() - 1) {
+            return "";
+        }
+        String extension = originalFilename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return extension.length() <= 10 && extension.chars().allMatch(Character::isLetterOrDigit)
+                ? "." + extension
+                : "";
+    }
+
+    private String tooLargeMessage() {
+        return "File exceeds the maximum upload size of " + maxSize.toMegabytes() + " MB.";
+    }
+
+    public static final class StoredFile {
+        private final String hash;
+        private final String extension;
+        private final long size;
+
+        StoredFile(String hash, String extension, long size) {
+            this.hash = hash;
+            this.extension = extension;
+            this.size = size;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public long getSize() {
+            return size;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,368 @@
+package edu.cit.serbisyo.service;
+
+import edu.cit.serbisyo.config.BoundedExpiringMap;
+import edu.cit.serbisyo.entity.StoredBlobEntity;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOException;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Resized copies of uploaded images for list and card views.
+ *
+ * Each stored image gets a thumb, card and full variant, scaled to fit a square of the
+ * variant's size and written next to the original (ab/cd/{hash}_card.jpg). Generation
+ * runs on a small background pool with plain ImageIO/Java2D, so uploads return as soon
+ * as the original is stored. A variant that is not ready yet (or could not be made)
+ * falls back to the original, and is queued again when someone asks for it. Images
+ * ImageIO cannot decode (or that are over the pixel limit) are remembered for a while
+ * so requests stop re-queuing them; I/O errors are not, and are retried on next request.
+ */
+@Service
+public class ImageVariantService {
+    private static final Logger log = LoggerFactory.getLogger(ImageVariantService.class);
+
+    public enum Variant {
+        THUMB(160),
+        CARD(480),
+        FULL(1280);
+
+        private final int maxDimension;
+
+        Variant(int maxDimension) {
+            this.maxDimension = maxDimension;
+        }
+
+        public int getMaxDimension() {
+            return maxDimension;
+        }
+
+        // Accepts a variant name, or a pixel width mapped to the smallest variant at least that wide
+        public static Variant fromRequest(String size) {
+            if (size == null || size.isBlank()) {
+                return CARD;
+            }
+            String value = size.trim().toUpperCase(Locale.ROOT);
+            if (value.chars().allMatch(Character::isDigit)) {
+                int width = Integer.parseInt(value);
+                for (Variant variant : values()) {
+                    if (variant.maxDimension >= width) {
+                        return variant;
+                    }
+                }
+                return FULL;
+            }
+            try {
+                return valueOf(value);
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("size must be thumb, card, full or a width in pixels");
+            }
+        }
+    }
+
+    private static final Set<String> IMAGE_EXTENSIONS = Set.of(".jpg", ".jpeg", ".png", ".gif", ".bmp");
+    private static final Set<String> ALPHA_EXTENSIONS = Set.of(".png", ".gif");
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Value("${app.images.variant-threads:2}")
+    private int threads;
+
+    @Value("${app.images.variant-queue-capacity:500}")
+    private int queueCapacity;
+
+    // Larger images are not decoded, to bound worker memory (a 40 MP ARGB image is ~160 MB)
+    @Value("${app.images.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Value("${app.images.jpeg-quality:0.82}")
+    private float jpegQuality;
+
+    @Value("${app.images.unsupported-cache.ttl-minutes:60}")
+    private long unsupportedTtlMinutes;
+
+    @Value("${app.images.unsupported-cache.max-entries:10000}")
+    private int unsupportedMaxEntries;
+
+    private ThreadPoolExecutor executor;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+    // Blobs that could not be decoded, with the System.nanoTime() at which to try again
+    private final BoundedExpiringMap<String, Long> unsupported =
+            new BoundedExpiringMap<>(() -> unsupportedMaxEntries, System::nanoTime, (blobKey, retryAt) -> retryAt);
+
+    private final AtomicLong generated = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    // Queue variant generation; never blocks the caller
+    public void generateAsync(StoredBlobEntity blob) {
+        if (blob == null || !isImage(blob.getExtension()) || isUnsupported(blob.getBlobKey())
+                || !inFlight.add(blob.getBlobKey())) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(blob.getBlobKey(), blob.getExtension());
+                } finally {
+                    inFlight.remove(blob.getBlobKey());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Busy: the variant is queued again the next time it is requested
+            inFlight.remove(blob.getBlobKey());
+            rejected.incrementAndGet();
+        }
+    }
+
+    /**
+     * URL of the requested variant, or of the original while the variant is not available.
+     */
+    public String resolveUrl(StoredBlobEntity blob, Variant variant) {
+        String variantPath = variantPath(blob.getBlobKey(), blob.getExtension(), variant);
+        if (Files.exists(fileStorageService.resolve(variantPath))) {
+            return "/uploads/" + variantPath;
+        }
+        generateAsync(blob);
+        return blob.getUrl();
+    }
+
+    public void deleteVariants(StoredBlobEntity blob) throws IOException {
+        for (String path : variantPaths(blob)) {
+            fileStorageService.delete(path);
+        }
+    }
+
+    public static List<String> variantPaths(StoredBlobEntity blob) {
+        List<String> paths = new ArrayList<>();
+        for (Variant variant : Variant.values()) {
+            paths.add(variantPath(blob.getBlobKey(), blob.getExtension(), variant));
+        }
+        return paths;
+    }
+
+    public static String variantPath(String blobKey, String extension, Variant variant) {
+        String original = StoredBlobEntity.relativePath(blobKey, "");
+        return original + "_" + variant.name().toLowerCase(Locale.ROOT) + outputExtension(extension);
+    }
+
+    private void generate(String blobKey, String extension) {
+        Path source = fileStorageService.resolve(StoredBlobEntity.relativePath(blobKey, extension));
+        try {
+            BufferedImage original = read(source);
+            if (original == null) {
+                markUnsupported(blobKey);
+                skipped.incrementAndGet();
+                return;
+            }
+            boolean keepAlpha = ALPHA_EXTENSIONS.contains(extension);
+            for (Variant variant : Variant.values()) {
+                Path target = fileStorageService.resolve(variantPath(blobKey, extension, variant));
+                if (Files.exists(target)) {
+                    continue;
+                }
+                BufferedImage scaled = scaleToFit(original, variant.maxDimension, keepAlpha);
+                writeAtomically(scaled, target, keepAlpha);
+            }
+            generated.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            // Missing file, full disk and the like: not remembered, so the next request retries
+            failed.incrementAndGet();
+            log.warn("Could not create image variants for {}: {}", blobKey, e.getMessage());
+        }
+    }
+
+    /**
+     * Decode, refusing images whose dimensions would need too much memory. Returns null
+     * when the content cannot be decoded or is too large; throws IOException only when
+     * the file itself could not be read.
+     */
+    private BufferedImage read(Path source) throws IOException {
+        // ImageIO answers a missing file with a null stream, which would look like bad content
+        if (!Files.isRegularFile(source)) {
+            throw new NoSuchFileException(source.toString());
+        }
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    log.info("Skipping variants for {}: {} pixels exceeds the limit", source.getFileName(), pixels);
+                    return null;
+                }
+                return reader.read(0);
+            } catch (IIOException | RuntimeException e) {
+                // Corrupt or unsupported content; ImageIO reports it as IIOException or unchecked
+                log.info("Cannot decode {}: {}", source.getFileName(), e.getMessage());
+                return null;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Scale down to fit within maxDimension, halving in steps so bilinear filtering keeps
+     * quality close to bicubic at a fraction of the cost. Never scales up.
+     */
+    private static BufferedImage scaleToFit(BufferedImage source, int maxDimension, boolean keepAlpha) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+        int type = keepAlpha ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        BufferedImage current = source;
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (!keepAlpha) {
+                    // JPEG has no alpha: flatten transparent pixels onto white
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, currentWidth, currentHeight);
+                }
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+        return current;
+    }
+
+    private void writeAtomically(BufferedImage image, Path target, boolean png) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), "variant-", ".part");
+        try {
+            if (png) {
+                ImageIO.write(image, "png", temp.toFile());
+            } else {
+                writeJpeg(image, temp);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        try (ImageOutputStream output = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(output);
+            ImageWriteParam params = writer.getDefaultWriteParam();
+            params.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            params.setCompressionQuality(jpegQuality);
+            params.setProgressiveMode(ImageWriteParam.MODE_DEFAULT);
+            writer.write(null, new IIOImage(image, null, null), params);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private boolean isUnsupported(String blobKey) {
+        return unsupported.get(blobKey) != null;
+    }
+
+    private void markUnsupported(String blobKey) {
+        unsupported.put(blobKey, System.nanoTime() + TimeUnit.MINUTES.toNanos(unsupportedTtlMinutes));
+    }
+
+    private static String outputExtension(String extension) {
+        return ALPHA_EXTENSIONS.contains(extension) ? ".png" : ".jpg";
+    }
+
+    private static boolean isImage(String extension) {
+        return IMAGE_EXTENSIONS.contains(extension);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("threads", threads);
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("generated", generated.get());
+        stats.put("skipped", skipped.get());
+        stats.put("failed", failed.get());
+        stats.put("rejected", rejected.get());
+        stats.put("unsupported", unsupported.size());
+        return stats;
+    }
+}
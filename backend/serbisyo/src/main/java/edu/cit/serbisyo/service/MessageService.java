@@ -1,44 +1,83 @@
 package edu.cit.serbisyo.service;
 
 import edu.cit.serbisyo.entity.MessageEntity;
-import edu.cit.serbisyo.entity.UserAuthEntity;
+import edu.cit.serbisyo.pagination.CursorPage;
+import edu.cit.serbisyo.pagination.KeysetPaginator;
 import edu.cit.serbisyo.repository.MessageRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
 
 @Service
 public class MessageService {
+    private static final int DEFAULT_HISTORY_LIMIT = 50;
+    private static final int MAX_HISTORY_LIMIT = 200;
+
     private final MessageRepository messageRepository;
+    private final KeysetPaginator keysetPaginator;
+    private final ConversationSummaryService conversationSummaryService;
+    private final ApplicationEventPublisher eventPublisher;
 
-    public MessageService(MessageRepository messageRepository) {
+    public MessageService(MessageRepository messageRepository, KeysetPaginator keysetPaginator,
+                          ConversationSummaryService conversationSummaryService,
+                          ApplicationEventPublisher eventPublisher) {
         this.messageRepository = messageRepository;
+        this.keysetPaginator = keysetPaginator;
+        this.conversationSummaryService = conversationSummaryService;
+        this.eventPublisher = eventPublisher;
     }
 
+    @Transactional
     public MessageEntity createMessage(MessageEntity message) {
-        return messageRepository.save(message);
+        if (message.getSentAt() == null) {
+            message.setSentAt(LocalDateTime.now());
+        }
+        MessageEntity savedMessage = messageRepository.save(message);
+        conversationSummaryService.recordMessage(savedMessage);
+
+        // Push to both participants' open streams (sender's other devices included) once committed
+        eventPublisher.publishEvent(new PushEvent(savedMessage.getReceiver().getUserId(), "message", savedMessage));
+        if (!savedMessage.getSender().getUserId().equals(savedMessage.getReceiver().getUserId())) {
+            eventPublisher.publishEvent(new PushEvent(savedMessage.getSender().getUserId(), "message", savedMessage));
+        }
+        return savedMessage;
     }
 
     public List<MessageEntity> getAllMessages() {
         return messageRepository.findAll();
     }
 
+    public CursorPage<MessageEntity> listMessages(String cursor, Integer limit) {
+        return keysetPaginator.ascending(cursor, limit,
+                messageRepository::findByMessageIdGreaterThanOrderByMessageIdAsc,
+                MessageEntity::getMessageId);
+    }
+
     public MessageEntity getMessage(Long messageId) {
         return messageRepository.findById(messageId)
                 .orElseThrow(() -> new RuntimeException("Message not found with ID: " + messageId));
     }
 
+    @Transactional
     public MessageEntity updateMessage(Long messageId, MessageEntity updatedMessage) {
         MessageEntity existingMessage = messageRepository.findById(messageId)
                 .orElseThrow(() -> new RuntimeException("Message not found"));
+        String previousStatus = existingMessage.getStatus();
 
         existingMessage.setMessageText(updatedMessage.getMessageText());
         existingMessage.setStatus(updatedMessage.getStatus());
 
-        return messageRepository.save(existingMessage);
+        MessageEntity savedMessage = messageRepository.save(existingMessage);
+        conversationSummaryService.recordUpdate(savedMessage, previousStatus);
+        return savedMessage;
     }
 
+    @Transactional
     public MessageEntity updateMessageStatus(Long messageId, String status) {
         MessageEntity existingMessage = messageRepository.findById(messageId)
                 .orElseThrow(() -> new RuntimeException("Message not found with ID: " + messageId));
@@ -48,8 +87,11 @@ public class MessageService {
             throw new IllegalArgumentException("Invalid message status: " + status);
         }
         
+        String previousStatus = existingMessage.getStatus();
         existingMessage.setStatus(status.toUpperCase());
-        return messageRepository.save(existingMessage);
+        MessageEntity savedMessage = messageRepository.save(existingMessage);
+        conversationSummaryService.recordUpdate(savedMessage, previousStatus);
+        return savedMessage;
     }
     
     private boolean isValidStatus(String status) {
@@ -63,12 +105,16 @@ public class MessageService {
                "READ".equals(upperStatus);
     }
 
+    @Transactional
     public String deleteMessage(Long messageId) {
-        if (messageRepository.existsById(messageId)) {
-            messageRepository.deleteById(messageId);
-            return "Message successfully deleted.";
-        }
-        return "Message not found.";
+        return messageRepository.findById(messageId)
+                .map(message -> {
+                    messageRepository.delete(message);
+                    messageRepository.flush();
+                    conversationSummaryService.recordDelete(message);
+                    return "Message successfully deleted.";
+                })
+                .orElse("Message not found.");
     }
     
     public List<MessageEntity> getConversationBetweenUsers(Long userId1, Long userId2) {
@@ -76,64 +122,52 @@ public class MessageService {
             userId1, userId2, userId2, userId1);
     }
 
-    public List<Map<String, Object>> getConversationPartners(Long userId) {
-        List<MessageEntity> allMessages = messageRepository.findBySenderUserIdOrReceiverUserId(userId, userId);
-        
-        Map<Long, MessageEntity> latestMessageByPartner = new HashMap<>();
-        Map<Long, UserAuthEntity> partners = new HashMap<>();
-        
-        for (MessageEntity message : allMessages) {
-            boolean isCurrentUserSender = message.getSender().getUserId().equals(userId);
-            UserAuthEntity partner = isCurrentUserSender ? message.getReceiver() : message.getSender();
-            Long partnerId = partner.getUserId();
-            
-            if (partnerId.equals(userId)) {
-                continue;
-            }
-            
-            partners.putIfAbsent(partnerId, partner);
-            
-            MessageEntity existingLatest = latestMessageByPartner.get(partnerId);
-            if (existingLatest == null || message.getSentAt().isAfter(existingLatest.getSentAt())) {
-                latestMessageByPartner.put(partnerId, message);
-            }
+    /**
+     * One window of the conversation between two users, keyed by message id.
+     * With {@code afterId} it returns the messages newer than that id (what a polling
+     * client is missing); otherwise the messages older than {@code beforeId}, or the
+     * latest ones when neither is given. Messages are always returned oldest first.
+     */
+    public Map<String, Object> getConversationHistory(Long userId1, Long userId2,
+                                                      Long beforeId, Long afterId, Integer limit) {
+        if (beforeId != null && afterId != null) {
+            throw new IllegalArgumentException("Use either before or after, not both");
         }
-        
-        List<Map<String, Object>> result = new ArrayList<>();
-        
-        for (Map.Entry<Long, UserAuthEntity> entry : partners.entrySet()) {
-            Long partnerId = entry.getKey();
-            UserAuthEntity partner = entry.getValue();
-            MessageEntity latestMessage = latestMessageByPartner.get(partnerId);
-            
-            Map<String, Object> partnerData = new HashMap<>();
-            partnerData.put("userId", partnerId);
-            partnerData.put("userName", partner.getUserName());
-            partnerData.put("role", partner.getRole());
-            
-            if (partner.getCustomer() != null) {
-                partnerData.put("firstName", partner.getCustomer().getFirstName());
-                partnerData.put("lastName", partner.getCustomer().getLastName());
-                if (partner.getCustomer().getProfileImage() != null) {
-                    partnerData.put("profileImage", partner.getCustomer().getProfileImage());
-                }
-            } else if (partner.getServiceProvider() != null) {
-                partnerData.put("firstName", partner.getServiceProvider().getFirstName());
-                partnerData.put("lastName", partner.getServiceProvider().getLastName());
-                partnerData.put("businessName", partner.getServiceProvider().getBusinessName());
-            }
-            
-            partnerData.put("lastMessage", latestMessage.getMessageText());
-            partnerData.put("lastMessageTime", latestMessage.getSentAt());
-            partnerData.put("isUnread", userId.equals(latestMessage.getReceiver().getUserId()) && 
-                                        !"READ".equals(latestMessage.getStatus()));
-            
-            result.add(partnerData);
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("limit must be at least 1");
         }
-        
-        result.sort((a, b) -> ((LocalDateTime)b.get("lastMessageTime"))
-                    .compareTo((LocalDateTime)a.get("lastMessageTime")));
-        
+        int pageSize = limit == null ? DEFAULT_HISTORY_LIMIT : Math.min(limit, MAX_HISTORY_LIMIT);
+        Pageable pageable = PageRequest.of(0, pageSize + 1);
+
+        List<MessageEntity> rows;
+        if (afterId != null) {
+            rows = messageRepository.findConversationAfter(userId1, userId2, afterId, pageable);
+        } else {
+            rows = messageRepository.findConversationBefore(userId1, userId2,
+                    beforeId != null ? beforeId : Long.MAX_VALUE, pageable);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        List<MessageEntity> messages = new ArrayList<>(hasMore ? rows.subList(0, pageSize) : rows);
+        if (afterId == null) {
+            Collections.reverse(messages);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("messages", messages);
+        result.put("hasMore", hasMore);
+        result.put("oldestId", messages.isEmpty() ? null : messages.get(0).getMessageId());
+        result.put("newestId", messages.isEmpty() ? null : messages.get(messages.size() - 1).getMessageId());
+        result.put("limit", pageSize);
         return result;
     }
+
+    // Inbox read from the conversation summaries; page and size are optional
+    public List<Map<String, Object>> getConversationPartners(Long userId, Integer page, Integer size) {
+        return conversationSummaryService.getInbox(userId, page, size);
+    }
+
+    public int markConversationRead(Long ownerId, Long partnerId) {
+        return conversationSummaryService.markConversationRead(ownerId, partnerId);
+    }
 }
@@ -0,0 +1,395 @@
+package edu.cit.serbisyo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import edu.cit.serbisyo.dto.NotificationPush;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes notifications off the request thread.
+ *
+ * NotificationEvents are queued after the publishing transaction commits. A small pool
+ * of workers drains the queue and inserts whatever has accumulated as one JDBC batch,
+ * so request latency no longer depends on notification persistence. Plain JDBC is used
+ * because Hibernate cannot batch inserts for IDENTITY-generated ids (JdbcBatchingConfig
+ * turns on rewriteBatchedStatements so a batch is one round trip).
+ *
+ * A failed batch is retried with backoff, then written row by row so one bad row does
+ * not sink the others. Rows that still fail are appended to a dead-letter file, which
+ * is replayed periodically, so a database outage delays notifications instead of
+ * losing them.
+ */
+@Service
+public class NotificationDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationDispatcher.class);
+    private static final ObjectMapper DEAD_LETTER_MAPPER = new ObjectMapper();
+
+    private static final String INSERT_SQL =
+            "INSERT INTO notification (user_id, type, message, is_read, created_at, " +
+            "reference_id, reference_type, sender_id, sender_name) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PushService pushService;
+
+    @Autowired
+    private UnreadNotificationCounter unreadCounter;
+
+    @Value("${app.notifications.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${app.notifications.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.notifications.workers:2}")
+    private int workerCount;
+
+    @Value("${app.notifications.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${app.notifications.retry-backoff-ms:200}")
+    private long retryBackoffMs;
+
+    // Next to the uploads by default, since that is the directory deployments already persist
+    @Value("${app.notifications.dead-letter-file:${app.uploads.dir:uploads}/.notifications/dead-letter.jsonl}")
+    private String deadLetterFile;
+
+    @Value("${app.notifications.max-replays:12}")
+    private int maxReplays;
+
+    private final Object deadLetterLock = new Object();
+
+    private BlockingQueue<NotificationEvent> queue;
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    // Pipeline metrics
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong retried = new AtomicLong();
+    private final AtomicLong deadLettered = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong writtenOnCallerThread = new AtomicLong();
+    private final AtomicInteger lastBatchSize = new AtomicInteger();
+    private final AtomicInteger maxBatchSize = new AtomicInteger();
+
+    @PostConstruct
+    public void start() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        running = true;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(workerCount, runnable -> {
+            Thread thread = new Thread(runnable, "notification-writer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            workers.submit(this::drainLoop);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        workers.shutdown();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+
+        // Flush anything still queued so shutdown does not lose notifications
+        List<NotificationEvent> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            writeBatch(remaining);
+        }
+    }
+
+    // Queue events only once the publishing transaction has committed
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onNotificationEvent(NotificationEvent event) {
+        enqueue(event);
+    }
+
+    public void enqueue(NotificationEvent event) {
+        if (event == null || event.getRecipientUserId() == null) {
+            return;
+        }
+        if (queue.offer(event)) {
+            enqueued.incrementAndGet();
+        } else {
+            // Queue is full: apply back-pressure to the producer instead of dropping the notification
+            writtenOnCallerThread.incrementAndGet();
+            writeBatch(List.of(event));
+        }
+    }
+
+    private void drainLoop() {
+        List<NotificationEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                NotificationEvent first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Notification worker error", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<NotificationEvent> events) {
+        if (insertWithRetry(events)) {
+            delivered(events);
+            return;
+        }
+        if (events.size() == 1) {
+            deadLetter(events.get(0), 0);
+            return;
+        }
+        // Isolate the rows that cannot be written so the rest still go through
+        log.warn("Batch of {} notification(s) kept failing; writing them one by one", events.size());
+        for (NotificationEvent event : events) {
+            List<NotificationEvent> single = List.of(event);
+            if (insert(single)) {
+                delivered(single);
+            } else {
+                deadLetter(event, 0);
+            }
+        }
+    }
+
+    private boolean insertWithRetry(List<NotificationEvent> events) {
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            if (insert(events)) {
+                return true;
+            }
+            if (attempt < maxAttempts) {
+                retried.incrementAndGet();
+                try {
+                    Thread.sleep(retryBackoffMs * attempt);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean insert(List<NotificationEvent> events) {
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, event) -> {
+                ps.setLong(1, event.getRecipientUserId());
+                ps.setString(2, event.getType());
+                ps.setString(3, event.getMessage());
+                ps.setBoolean(4, false);
+                ps.setTimestamp(5, Timestamp.valueOf(event.getCreatedAt()));
+                if (event.getReferenceId() != null) {
+                    ps.setLong(6, event.getReferenceId());
+                } else {
+                    ps.setNull(6, Types.BIGINT);
+                }
+                ps.setString(7, event.getReferenceType());
+                if (event.getSenderId() != null) {
+                    ps.setLong(8, event.getSenderId());
+                } else {
+                    ps.setNull(8, Types.BIGINT);
+                }
+                ps.setString(9, event.getSenderName());
+            });
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to write {} notification(s): {}", events.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void delivered(List<NotificationEvent> events) {
+        recordBatch(events.size());
+        for (NotificationEvent event : events) {
+            unreadCounter.increment(event.getRecipientUserId());
+            pushService.publish(event.getRecipientUserId(), "notification", NotificationPush.from(event));
+        }
+    }
+
+    // Append to the dead-letter file; replayDeadLetters() retries it later
+    private void deadLetter(NotificationEvent event, int replays) {
+        failed.incrementAndGet();
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("replays", replays);
+        line.put("recipientUserId", event.getRecipientUserId());
+        line.put("type", event.getType());
+        line.put("message", event.getMessage());
+        line.put("referenceId", event.getReferenceId());
+        line.put("referenceType", event.getReferenceType());
+        line.put("senderId", event.getSenderId());
+        line.put("senderName", event.getSenderName());
+        line.put("createdAt", event.getCreatedAt().toString());
+        try {
+            String json = DEAD_LETTER_MAPPER.writeValueAsString(line);
+            synchronized (deadLetterLock) {
+                Path target = Paths.get(deadLetterFile);
+                if (target.getParent() != null) {
+                    Files.createDirectories(target.getParent());
+                }
+                try (BufferedWriter writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                    writer.write(json);
+                    writer.newLine();
+                }
+            }
+            deadLettered.incrementAndGet();
+        } catch (IOException e) {
+            log.error("Notification lost, could not write dead letter {}: {}", line, e.getMessage());
+        }
+    }
+
+    /**
+     * Retry dead-lettered notifications. The file is moved aside first, so rows that fail
+     * again go to a fresh dead-letter file instead of being read twice. A row is dropped
+     * (and logged) after max-replays failed replays, so a row the database will never
+     * accept does not cycle forever.
+     */
+    @Scheduled(fixedDelayString = "${app.notifications.dead-letter-replay-ms:300000}",
+            initialDelayString = "${app.notifications.dead-letter-replay-ms:300000}")
+    public int replayDeadLetters() {
+        Path source = Paths.get(deadLetterFile);
+        Path replaying = Paths.get(deadLetterFile + ".replaying");
+        List<String> lines;
+        synchronized (deadLetterLock) {
+            try {
+                // A leftover .replaying file means an earlier replay was interrupted; finish it first
+                if (!Files.exists(replaying)) {
+                    if (!Files.exists(source)) {
+                        return 0;
+                    }
+                    Files.move(source, replaying, StandardCopyOption.ATOMIC_MOVE);
+                }
+                lines = Files.readAllLines(replaying, StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                log.error("Could not read notification dead letters: {}", e.getMessage());
+                return 0;
+            }
+        }
+
+        int count = 0;
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                Map<?, ?> fields = DEAD_LETTER_MAPPER.readValue(line, Map.class);
+                NotificationEvent event = fromDeadLetter(fields);
+                int replays = fields.get("replays") instanceof Number n ? n.intValue() + 1 : 1;
+                List<NotificationEvent> single = List.of(event);
+                if (insert(single)) {
+                    delivered(single);
+                    count++;
+                } else if (replays >= maxReplays) {
+                    log.error("Dropping notification after {} failed replays: {}", replays, line);
+                } else {
+                    deadLetter(event, replays);
+                }
+            } catch (IOException | RuntimeException e) {
+                log.error("Dropping unreadable notification dead letter {}: {}", line, e.getMessage());
+            }
+        }
+        try {
+            Files.deleteIfExists(replaying);
+        } catch (IOException e) {
+            log.error("Could not remove replayed dead-letter file {}: {}", replaying, e.getMessage());
+        }
+        replayed.addAndGet(count);
+        if (count > 0) {
+            log.info("Wrote {} dead-lettered notification(s)", count);
+        }
+        return count;
+    }
+
+    private static NotificationEvent fromDeadLetter(Map<?, ?> line) {
+        return new NotificationEvent(
+                toLong(line.get("recipientUserId")),
+                (String) line.get("type"),
+                (String) line.get("message"),
+                toLong(line.get("referenceId")),
+                (String) line.get("referenceType"),
+                toLong(line.get("senderId")),
+                (String) line.get("senderName"),
+                LocalDateTime.parse((String) line.get("createdAt")));
+    }
+
+    private static Long toLong(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    private void recordBatch(int size) {
+        written.addAndGet(size);
+        batches.incrementAndGet();
+        lastBatchSize.set(size);
+        maxBatchSize.accumulateAndGet(size, Math::max);
+    }
+
+    public Map<String, Object> getStats() {
+        long batchCount = batches.get();
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("queueDepth", queue.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("enqueued", enqueued.get());
+        stats.put("written", written.get());
+        stats.put("failed", failed.get());
+        stats.put("retried", retried.get());
+        stats.put("deadLettered", deadLettered.get());
+        stats.put("replayed", replayed.get());
+        stats.put("writtenOnCallerThread", writtenOnCallerThread.get());
+        stats.put("batches", batchCount);
+        stats.put("lastBatchSize", lastBatchSize.get());
+        stats.put("maxBatchSize", maxBatchSize.get());
+        stats.put("averageBatchSize", batchCount == 0 ? 0.0 : (double) written.get() / batchCount);
+        return stats;
+    }
+}
@@ -0,0 +1,80 @@
+package edu.cit.serbisyo.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * A notification to be written by the notification pipeline.
+ *
+ * Publish it with Spring's ApplicationEventPublisher from any service. It is only
+ * queued once the publishing transaction commits, so a rolled-back booking never
+ * produces a notification. It carries plain ids and text so the worker threads
+ * never touch the publisher's entities.
+ */
+public class NotificationEvent {
+
+    private final Long recipientUserId;
+    private final String type;
+    private final String message;
+    private final Long referenceId;
+    private final String referenceType;
+    private final Long senderId;
+    private final String senderName;
+    private final LocalDateTime createdAt;
+
+    public NotificationEvent(Long recipientUserId, String type, String message,
+                             Long referenceId, String referenceType) {
+        this(recipientUserId, type, message, referenceId, referenceType, null, null);
+    }
+
+    public NotificationEvent(Long recipientUserId, String type, String message,
+                             Long referenceId, String referenceType,
+                             Long senderId, String senderName) {
+        this(recipientUserId, type, message, referenceId, referenceType, senderId, senderName, LocalDateTime.now());
+    }
+
+    // Re-creates an event with its original timestamp (dead-letter replay)
+    NotificationEvent(Long recipientUserId, String type, String message,
+                      Long referenceId, String referenceType,
+                      Long senderId, String senderName, LocalDateTime createdAt) {
+        this.recipientUserId = recipientUserId;
+        this.type = type;
+        this.message = message;
+        this.referenceId = referenceId;
+        this.referenceType = referenceType;
+        this.senderId = senderId;
+        this.senderName = senderName;
+        this.createdAt = createdAt;
+    }
+
+    public Long getRecipientUserId() {
+        return recipientUserId;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Long getReferenceId() {
+        return referenceId;
+    }
+
+    public String getReferenceType() {
+        return referenceType;
+    }
+
+    public Long getSenderId() {
+        return senderId;
+    }
+
+    public String getSenderName() {
+        return senderName;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -1,9 +1,14 @@
 package edu.cit.serbisyo.service;
 
 import java.util.List;
+import java.util.Map;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import edu.cit.serbisyo.dto.NotificationPush;
 import edu.cit.serbisyo.entity.NotificationEntity;
+import edu.cit.serbisyo.pagination.CursorPage;
+import edu.cit.serbisyo.pagination.KeysetPaginator;
 import edu.cit.serbisyo.repository.BookingRepository;
 import edu.cit.serbisyo.repository.NotificationRepository;
 import edu.cit.serbisyo.repository.ReviewRepository;
@@ -24,14 +29,77 @@ public class NotificationService {
     @Autowired
     private MessageRepository messageRepository;
 
+    @Autowired
+    private KeysetPaginator keysetPaginator;
+
+    @Autowired
+    private NotificationDispatcher notificationDispatcher;
+
+    @Autowired
+    private PushService pushService;
+
+    @Autowired
+    private UnreadNotificationCounter unreadCounter;
+
     public NotificationEntity createNotification(NotificationEntity notification) {
-        return notificationRepository.save(notification);
+        NotificationEntity savedNotification = notificationRepository.save(notification);
+        if (savedNotification.getUser() != null) {
+            if (!savedNotification.isRead()) {
+                unreadCounter.increment(savedNotification.getUser().getUserId());
+            }
+            pushService.publish(savedNotification.getUser().getUserId(), "notification", NotificationPush.from(savedNotification));
+        }
+        return savedNotification;
+    }
+
+    // Queue a notification for asynchronous, batched persistence
+    public void enqueueNotification(NotificationEntity notification) {
+        if (notification.getUser() == null || notification.getUser().getUserId() == null) {
+            throw new IllegalArgumentException("Notification recipient (user.userId) is required");
+        }
+
+        notificationDispatcher.enqueue(new NotificationEvent(
+                notification.getUser().getUserId(),
+                notification.getType(),
+                notification.getMessage(),
+                notification.getReferenceId(),
+                notification.getReferenceType(),
+                notification.getSenderId(),
+                notification.getSenderName()));
+    }
+
+    public Map<String, Object> getPipelineStats() {
+        return notificationDispatcher.getStats();
     }
 
     public List<NotificationEntity> getAllNotifications() {
         return notificationRepository.findAll();
     }
 
+    // READ one user's feed, newest first
+    public CursorPage<NotificationEntity> getUserFeed(Long userId, String cursor, Integer limit, boolean unreadOnly) {
+        return keysetPaginator.descending(cursor, limit,
+                (beforeId, pageable) -> notificationRepository.findUserFeedPage(userId, beforeId, unreadOnly, pageable),
+                NotificationEntity::getNotificationId);
+    }
+
+    public long getUnreadCount(Long userId) {
+        return unreadCounter.get(userId);
+    }
+
+    @Transactional
+    public int markAllRead(Long userId) {
+        int updated = notificationRepository.markAllReadByUserId(userId);
+        unreadCounter.reset(userId);
+        return updated;
+    }
+
+    public CursorPage<NotificationEntity> listNotifications(String cursor, Integer limit, Long userId) {
+        return keysetPaginator.ascending(cursor, limit,
+                (afterId, pageable) -> notificationRepository.findKeysetPage(afterId, userId, pageable),
+                NotificationEntity::getNotificationId);
+    }
+
     public NotificationEntity updateNotification(Long notificationId, NotificationEntity updatedNotification) {
         NotificationEntity existingNotification = notificationRepository.findById(notificationId)
                 .orElseThrow(() -> new RuntimeException("Notification not found"));
@@ -47,17 +115,31 @@ public class NotificationService {
         }
         
         // Always update the read status
+        boolean wasRead = existingNotification.isRead();
         existingNotification.setRead(updatedNotification.isRead());
         
-        return notificationRepository.save(existingNotification);
+        NotificationEntity savedNotification = notificationRepository.save(existingNotification);
+        if (wasRead != savedNotification.isRead()) {
+            Long userId = savedNotification.getUser().getUserId();
+            if (savedNotification.isRead()) {
+                unreadCounter.decrement(userId);
+            } else {
+                unreadCounter.increment(userId);
+            }
+        }
+        return savedNotification;
     }
 
     public String deleteNotification(Long notificationId) {
-        if (notificationRepository.existsById(notificationId)) {
-            notificationRepository.deleteById(notificationId);
-            return "Notification successfully deleted.";
-        }
-        return "Notification not found.";
+        return notificationRepository.findById(notificationId)
+                .map(notification -> {
+                    notificationRepository.delete(notification);
+                    if (!notification.isRead()) {
+                        unreadCounter.decrement(notification.getUser().getUserId());
+                    }
+                    return "Notification successfully deleted.";
+                })
+                .orElse("Notification not found.");
     }
 
     public Object getRelatedEntity(NotificationEntity notification) {
@@ -0,0 +1,153 @@
+package edu.cit.serbisyo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * The single place passwords are hashed and checked.
+ *
+ * All hashes use one BCrypt cost (security.bcrypt.strength). Login checks run on a
+ * dedicated, bounded pool sized to the CPU rather than on Tomcat threads, so a login
+ * burst cannot starve the rest of the API; when the queue is full the caller gets a
+ * 429 instead of waiting. Hashes created with a lower cost are upgraded on the next
+ * successful login. Bulk imports hash on a separate pool so they never queue behind,
+ * or ahead of, interactive logins.
+ */
+@Service
+public class PasswordHashingService {
+
+    @Value("${security.bcrypt.strength:12}")
+    private int strength;
+
+    @Value("${security.bcrypt.threads:0}")
+    private int threads;
+
+    @Value("${security.bcrypt.queue-capacity:200}")
+    private int queueCapacity;
+
+    @Value("${security.bcrypt.import-threads:0}")
+    private int importThreads;
+
+    private BCryptPasswordEncoder encoder;
+    private ThreadPoolExecutor executor;
+    private ForkJoinPool importPool;
+    private String dummyHash;
+
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong rehashed = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        encoder = new BCryptPasswordEncoder(strength);
+        // Compared against when the user does not exist, so both paths take as long
+        dummyHash = encoder.encode("serbisyo-dummy-password");
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hasher-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+
+        // Half the cores by default, leaving the rest for logins and request handling
+        int importPoolSize = importThreads > 0 ? importThreads : Math.max(1, poolSize / 2);
+        importPool = new ForkJoinPool(importPoolSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+        importPool.shutdown();
+    }
+
+    public PasswordEncoder getEncoder() {
+        return encoder;
+    }
+
+    public String encode(String rawPassword) {
+        return encoder.encode(rawPassword);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return encodedPassword != null && encoder.matches(rawPassword, encodedPassword);
+    }
+
+    // Stored hash uses a lower cost than the configured one
+    public boolean needsRehash(String encodedPassword) {
+        return encodedPassword != null && encoder.upgradeEncoding(encodedPassword);
+    }
+
+    // Burn the same CPU as a real check when there is no stored hash to compare with
+    public boolean matchesDummy(String rawPassword) {
+        encoder.matches(rawPassword == null ? "" : rawPassword, dummyHash);
+        return false;
+    }
+
+    // Hash a batch of passwords in parallel on the import pool, preserving order
+    public List<String> encodeAll(List<String> rawPasswords) {
+        try {
+            return importPool.submit(() -> rawPasswords.parallelStream().map(encoder::encode).toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing passwords");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    public void recordRehash() {
+        rehashed.incrementAndGet();
+    }
+
+    /**
+     * Run hashing work on the hashing pool.
+     * Throws 429 (Too Many Requests) if the pool's queue is full.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        try {
+            return CompletableFuture.supplyAsync(work, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Too many login attempts in progress, retry shortly");
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("strength", strength);
+        stats.put("poolSize", executor.getPoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("completed", executor.getCompletedTaskCount());
+        stats.put("rejected", rejected.get());
+        stats.put("rehashed", rehashed.get());
+        stats.put("importParallelism", importPool.getParallelism());
+        stats.put("importActive", importPool.getActiveThreadCount());
+        return stats;
+    }
+}
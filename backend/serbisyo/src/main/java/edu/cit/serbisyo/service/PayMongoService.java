@@ -4,11 +4,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
-import reactor.core.publisher.Mono;
+import org.springframework.web.client.RestClient;
 
+import java.net.http.HttpClient;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
@@ -16,18 +18,27 @@ import java.util.Map;
 @Service
 public class PayMongoService {
 
-    private final WebClient webClient;
+    private final RestClient restClient;
     private final String secretKey;
 
-    public PayMongoService(@Value("${paymongo.secret-key}") String secretKey) {
+    // Blocking client on the JDK's HttpClient, so the servlet app needs no reactive stack
+    public PayMongoService(@Value("${paymongo.secret-key}") String secretKey,
+                           @Value("${paymongo.timeout-ms:10000}") long timeoutMs) {
         this.secretKey = secretKey;
-        this.webClient = WebClient.builder()
+        HttpClient httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(timeoutMs))
+                .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(Duration.ofMillis(timeoutMs));
+        this.restClient = RestClient.builder()
+                .requestFactory(requestFactory)
                 .baseUrl("https://api.paymongo.com/v1")
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .build();
     }
 
-    public Mono<Map<String, Object>> createCheckoutSession(double amount, String description, 
+    // Throws RestClientException if PayMongo cannot be reached or rejects the request
+    public Map<String, Object> createCheckoutSession(double amount, String description, 
                                                          String successUrl, String cancelUrl) {
         // Convert amount to smallest currency unit (centavos)
         int amountInCentavos = (int) (amount * 100);
@@ -60,12 +71,12 @@ public class PayMongoService {
                 (secretKey + ":").getBytes(StandardCharsets.UTF_8));
         
         // Make API request to PayMongo
-        return webClient.post()
+        return restClient.post()
                 .uri("/checkout_sessions")
                 .header("Authorization", "Basic " + credentials)
-                .bodyValue(payload)
+                .body(payload)
                 .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {});
+                .body(new ParameterizedTypeReference<Map<String, Object>>() {});
     }
     
     public Map<String, Object> validateWebhookEvent(String payload, String signature) {
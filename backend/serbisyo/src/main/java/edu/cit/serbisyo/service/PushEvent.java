@@ -0,0 +1,31 @@
+package edu.cit.serbisyo.service;
+
+/**
+ * A payload to push to one user's open event streams.
+ *
+ * Published as an application event so that pushes raised inside a transaction
+ * are only delivered once it commits.
+ */
+public class PushEvent {
+    private final Long userId;
+    private final String eventName;
+    private final Object payload;
+
+    public PushEvent(Long userId, String eventName, Object payload) {
+        this.userId = userId;
+        this.eventName = eventName;
+        this.payload = payload;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEventName() {
+        return eventName;
+    }
+
+    public Object getPayload() {
+        return payload;
+    }
+}
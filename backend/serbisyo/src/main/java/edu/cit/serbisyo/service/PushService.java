@@ -0,0 +1,188 @@
+package edu.cit.serbisyo.service;
+
+import edu.cit.serbisyo.entity.UserAuthEntity;
+import edu.cit.serbisyo.repository.UserAuthRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server-Sent Events push channel for messages and notifications.
+ *
+ * Each signed-in client keeps one event stream open; new messages and notifications
+ * are written to the recipient's streams as they happen, so clients no longer have
+ * to poll. An idle stream is just a parked async request, and a periodic comment
+ * line keeps proxies from closing it. Sends run on a small dedicated pool so a slow
+ * client never holds up the request that produced the event.
+ */
+@Service
+public class PushService {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserAuthRepository userAuthRepository;
+
+    @Value("${app.push.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    @Value("${app.push.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${app.push.sender-threads:2}")
+    private int senderThreads;
+
+    private final Map<Long, Set<SseEmitter>> emittersByUser = new ConcurrentHashMap<>();
+    private ExecutorService sender;
+
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicLong eventsSent = new AtomicLong();
+    private final AtomicLong sendFailures = new AtomicLong();
+
+    @PostConstruct
+    public void start() {
+        AtomicInteger threadNumber = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "push-sender-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        emittersByUser.values().forEach(emitters -> emitters.forEach(SseEmitter::complete));
+        emittersByUser.clear();
+        sender.shutdown();
+    }
+
+    /**
+     * Issue a ticket for the signed-in user to open a stream with. Browsers' EventSource
+     * cannot send an Authorization header, so the stream URL carries this short-lived,
+     * single-use ticket instead of the access token.
+     */
+    public String issueTicket(String userName) {
+        UserAuthEntity user = userAuthRepository.findByUserName(userName);
+        if (user == null) {
+            throw new NoSuchElementException("User not found: " + userName);
+        }
+        return refreshTokenService.issueStreamTicket(user.getUserId());
+    }
+
+    // Resolve the user a stream is opened for; the ticket is used up
+    public Long authenticate(String ticket) {
+        return refreshTokenService.consumeStreamTicket(ticket);
+    }
+
+    // Open a new event stream for the user
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        // Check the limit and register in one atomic step per user, so a concurrent
+        // remove() cannot drop the set this emitter is being added to
+        emittersByUser.compute(userId, (id, emitters) -> {
+            Set<SseEmitter> current = emitters != null ? emitters : new CopyOnWriteArraySet<>();
+            if (current.size() >= maxConnectionsPerUser) {
+                throw new IllegalStateException("Too many open streams for user " + userId);
+            }
+            current.add(emitter);
+            return current;
+        });
+        openConnections.incrementAndGet();
+
+        Runnable remove = () -> remove(userId, emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+
+        try {
+            emitter.send(SseEmitter.event().name("connected").data(Map.of("userId", userId)));
+        } catch (IOException e) {
+            remove(userId, emitter);
+        }
+        return emitter;
+    }
+
+    // Deliver events raised inside a transaction only after it commits
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPushEvent(PushEvent event) {
+        publish(event.getUserId(), event.getEventName(), event.getPayload());
+    }
+
+    public void publish(Long userId, String eventName, Object payload) {
+        if (userId == null) {
+            return;
+        }
+        Set<SseEmitter> emitters = emittersByUser.get(userId);
+        if (emitters == null || emitters.isEmpty()) {
+            return;
+        }
+        sender.execute(() -> {
+            for (SseEmitter emitter : emitters) {
+                send(userId, emitter, SseEmitter.event().name(eventName).data(payload));
+            }
+        });
+    }
+
+    // Comment line that keeps idle streams open through proxies and detects dead clients
+    @Scheduled(fixedDelayString = "${app.push.heartbeat-ms:25000}")
+    public void heartbeat() {
+        if (emittersByUser.isEmpty()) {
+            return;
+        }
+        sender.execute(() -> emittersByUser.forEach((userId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                send(userId, emitter, SseEmitter.event().comment("ping"));
+            }
+        }));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("openConnections", openConnections.get());
+        stats.put("connectedUsers", emittersByUser.size());
+        stats.put("eventsSent", eventsSent.get());
+        stats.put("sendFailures", sendFailures.get());
+        return stats;
+    }
+
+    private void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+            eventsSent.incrementAndGet();
+        } catch (Exception e) {
+            sendFailures.incrementAndGet();
+            remove(userId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        boolean[] removed = new boolean[1];
+        emittersByUser.computeIfPresent(userId, (id, emitters) -> {
+            removed[0] = emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+        if (removed[0]) {
+            openConnections.decrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package edu.cit.serbisyo.service;
+
+import edu.cit.serbisyo.entity.ReviewEntity;
+import edu.cit.serbisyo.repository.ReviewRepository;
+import edu.cit.serbisyo.repository.ServiceProviderRepository;
+import edu.cit.serbisyo.repository.ServiceRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains the denormalized rating sum/count kept on Service and ServiceProvider rows.
+ *
+ * Review writes adjust the aggregates with a single atomic UPDATE, so reading a rating
+ * never touches the Review table. rebuildAll() recomputes everything from the reviews
+ * to repair any drift; it runs nightly, and at startup only while the aggregates have
+ * never been built.
+ */
+@Service
+public class RatingAggregateService {
+
+    private static final Logger log = LoggerFactory.getLogger(RatingAggregateService.class);
+
+    @Autowired
+    private ServiceRepository serviceRepository;
+
+    @Autowired
+    private ServiceProviderRepository serviceProviderRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    /**
+     * Apply a review write to the aggregates of the reviewed service and provider.
+     *
+     * @param sumDelta   change to the rating sum (the rating for a new review, its negation for a delete)
+     * @param countDelta change to the review count (1, -1, or 0 for an edit)
+     */
+    @Transactional
+    public void applyReview(ReviewEntity review, long sumDelta, int countDelta) {
+        if (review.getBooking() != null && review.getBooking().getService() != null) {
+            serviceRepository.adjustRating(review.getBooking().getService().getServiceId(), sumDelta, countDelta);
+        }
+        if (review.getProvider() != null) {
+            serviceProviderRepository.adjustRating(review.getProvider().getProviderId(), sumDelta, countDelta);
+        }
+    }
+
+    // First start after the aggregate columns were added: reviews exist but nothing is counted yet
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIfMissing() {
+        try {
+            if (reviewRepository.count() > 0
+                    && !serviceRepository.existsByRatingCountGreaterThan(0)
+                    && !serviceProviderRepository.existsByRatingCountGreaterThan(0)) {
+                log.info("Rating aggregates are empty; building them from {} review(s)", reviewRepository.count());
+                rebuildAll();
+            }
+        } catch (Exception e) {
+            log.error("Failed to build rating aggregates", e);
+        }
+    }
+
+    @Scheduled(cron = "${app.ratings.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        Map<String, Object> result = rebuildAll();
+        log.info("Rebuilt rating aggregates: {}", result);
+    }
+
+    // Recompute every aggregate from the Review table
+    public Map<String, Object> rebuildAll() {
+        return transactionTemplate.execute(status -> {
+            serviceRepository.resetRatings();
+            serviceProviderRepository.resetRatings();
+
+            int servicesUpdated = 0;
+            for (Object[] row : reviewRepository.sumRatingsByService()) {
+                Long serviceId = (Long) row[0];
+                int count = ((Number) row[1]).intValue();
+                long sum = ((Number) row[2]).longValue();
+                servicesUpdated += serviceRepository.setRating(serviceId, sum, count);
+            }
+
+            int providersUpdated = 0;
+            List<Object[]> providerTotals = reviewRepository.sumRatingsByProvider();
+            for (Object[] row : providerTotals) {
+                Long providerId = (Long) row[0];
+                int count = ((Number) row[1]).intValue();
+                long sum = ((Number) row[2]).longValue();
+                double average = count == 0 ? 0.0 : (double) sum / count;
+                providersUpdated += serviceProviderRepository.setRating(providerId, sum, count, average);
+            }
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("servicesUpdated", servicesUpdated);
+            result.put("providersUpdated", providersUpdated);
+            return result;
+        });
+    }
+}
@@ -0,0 +1,219 @@
+package edu.cit.serbisyo.service;
+
+import edu.cit.serbisyo.config.JwtUtil;
+import edu.cit.serbisyo.entity.LoginCodeEntity;
+import edu.cit.serbisyo.entity.RefreshTokenEntity;
+import edu.cit.serbisyo.entity.UserAuthEntity;
+import edu.cit.serbisyo.repository.LoginCodeRepository;
+import edu.cit.serbisyo.repository.RefreshTokenRepository;
+import edu.cit.serbisyo.repository.UserAuthRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens.
+ *
+ * Login stays the expensive path (BCrypt); exchanging a refresh token reads the token
+ * and the user's row by key and signs a new access token, so access tokens can be
+ * short-lived without sending users back through login. Claims always come from the
+ * current user row, so a changed role or email takes effect on the next refresh.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private LoginCodeRepository loginCodeRepository;
+
+    @Autowired
+    private UserAuthRepository userAuthRepository;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Value("${jwt.refresh-token-ttl-days:30}")
+    private long refreshTokenTtlDays;
+
+    @Value("${jwt.login-code-ttl-seconds:60}")
+    private long loginCodeTtlSeconds;
+
+    @Value("${app.push.stream-ticket-ttl-seconds:30}")
+    private long streamTicketTtlSeconds;
+
+    // Start a new token family for a fresh login; the family expires refresh-token-ttl-days from now
+    @Transactional
+    public String issue(UserAuthEntity user) {
+        return create(UUID.randomUUID().toString(), user.getUserId(), LocalDateTime.now().plusDays(refreshTokenTtlDays));
+    }
+
+    /**
+     * Exchange a refresh token for a new access token and a new refresh token.
+     * Throws IllegalArgumentException if the token is unknown, expired or revoked;
+     * presenting an already used token also revokes its whole family.
+     */
+    @Transactional(noRollbackFor = IllegalArgumentException.class)
+    public Map<String, String> refresh(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            throw new IllegalArgumentException("Refresh token is required");
+        }
+
+        RefreshTokenEntity current = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new IllegalArgumentException("Invalid refresh token"));
+
+        if (current.isRevoked()) {
+            throw new IllegalArgumentException("Refresh token has been revoked");
+        }
+        if (current.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Refresh token has expired");
+        }
+        if (current.getUsedAt() != null
+                || refreshTokenRepository.markUsed(current.getTokenId(), LocalDateTime.now()) == 0) {
+            // Reuse of a consumed token: assume it leaked and end the whole session
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            throw new IllegalArgumentException("Refresh token has already been used");
+        }
+
+        UserAuthEntity user = userAuthRepository.findById(current.getUserId()).orElse(null);
+        if (user == null) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            throw new IllegalArgumentException("Account no longer exists");
+        }
+
+        // The successor keeps the family's expiry: rotation never extends the session
+        String nextRefreshToken = create(current.getFamilyId(), user.getUserId(), current.getExpiresAt());
+        return tokenResponse(user, nextRefreshToken);
+    }
+
+    // Single-use code for the OAuth2 redirect, exchanged for tokens by exchangeLoginCode
+    @Transactional
+    public String issueLoginCode(UserAuthEntity user) {
+        return issueCode(user.getUserId(), LoginCodeEntity.PURPOSE_LOGIN, loginCodeTtlSeconds);
+    }
+
+    /**
+     * Exchange a login code for an access token and a new refresh token family.
+     * Throws IllegalArgumentException if the code is unknown, expired or already used.
+     */
+    @Transactional
+    public Map<String, String> exchangeLoginCode(String rawCode) {
+        Long userId = consumeCode(rawCode, LoginCodeEntity.PURPOSE_LOGIN, "Login code");
+        UserAuthEntity user = userAuthRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("Account no longer exists"));
+        return tokenResponse(user, issue(user));
+    }
+
+    // Single-use ticket to open an event stream with, so the access token stays out of the URL
+    @Transactional
+    public String issueStreamTicket(Long userId) {
+        return issueCode(userId, LoginCodeEntity.PURPOSE_STREAM, streamTicketTtlSeconds);
+    }
+
+    /**
+     * Consume a stream ticket and return the id of the user it was issued to.
+     * Throws IllegalArgumentException if the ticket is unknown, expired or already used.
+     */
+    @Transactional
+    public Long consumeStreamTicket(String rawTicket) {
+        return consumeCode(rawTicket, LoginCodeEntity.PURPOSE_STREAM, "Stream ticket");
+    }
+
+    private String issueCode(Long userId, String purpose, long ttlSeconds) {
+        String rawCode = randomToken();
+        loginCodeRepository.save(new LoginCodeEntity(hash(rawCode), userId,
+                LocalDateTime.now().plusSeconds(ttlSeconds), purpose));
+        return rawCode;
+    }
+
+    private Long consumeCode(String rawCode, String purpose, String label) {
+        if (rawCode == null || rawCode.isBlank()) {
+            throw new IllegalArgumentException(label + " is required");
+        }
+        String codeHash = hash(rawCode);
+        LoginCodeEntity code = loginCodeRepository.findById(codeHash)
+                .filter(found -> purpose.equals(found.getPurpose()))
+                .orElseThrow(() -> new IllegalArgumentException("Invalid " + label.toLowerCase(Locale.ROOT)));
+        if (loginCodeRepository.consume(codeHash) == 0) {
+            throw new IllegalArgumentException(label + " has already been used");
+        }
+        if (code.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException(label + " has expired");
+        }
+        return code.getUserId();
+    }
+
+    private Map<String, String> tokenResponse(UserAuthEntity user, String refreshToken) {
+        Map<String, String> response = new HashMap<>();
+        response.put("token", jwtUtil.generateToken(user.getUserName(), user.getEmail(), user.getRole()));
+        response.put("refreshToken", refreshToken);
+        response.put("role", user.getRole());
+        response.put("userId", user.getUserId().toString());
+        return response;
+    }
+
+    // Revoke the family of the presented token (logout)
+    @Transactional
+    public void revoke(String rawToken) {
+        if (rawToken == null || rawToken.isBlank()) {
+            return;
+        }
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        refreshTokenRepository.revokeAllForUser(userId);
+    }
+
+    @Scheduled(cron = "${jwt.refresh-token-purge-cron:0 15 4 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        loginCodeRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private String create(String familyId, Long userId, LocalDateTime expiresAt) {
+        String rawToken = randomToken();
+
+        RefreshTokenEntity token = new RefreshTokenEntity();
+        token.setTokenHash(hash(rawToken));
+        token.setFamilyId(familyId);
+        token.setUserId(userId);
+        token.setExpiresAt(expiresAt);
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+
+    private static String randomToken() {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getUrlEncoder().encodeToString(digest.digest(rawToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
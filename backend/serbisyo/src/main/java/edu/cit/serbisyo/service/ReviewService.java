@@ -12,11 +12,13 @@ import edu.cit.serbisyo.repository.ServiceProviderRepository;
 import edu.cit.serbisyo.repository.ServiceRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.stream.Collectors;
 
 @Service
@@ -37,6 +39,10 @@ public class ReviewService {
     @Autowired
     private ServiceProviderRepository serviceProviderRepository;
 
+    @Autowired
+    private RatingAggregateService ratingAggregateService;
+
+    @Transactional
     public ReviewEntity createReview(ReviewEntity review) {
         // Log the received review details
         System.out.println("=== Creating New Review ===");
@@ -65,7 +71,17 @@ public class ReviewService {
         System.out.println("Date: " + review.getReviewDate());
         System.out.println("=== End Review Details ===");
         
-        return reviewRepository.save(review);
+        // Clients usually send only the booking id; load it so the service aggregate can be updated
+        if (review.getBooking() != null && review.getBooking().getService() == null
+                && review.getBooking().getBookingId() != null) {
+            Long bookingId = review.getBooking().getBookingId();
+            review.setBooking(bookingRepository.findById(bookingId)
+                    .orElseThrow(() -> new NoSuchElementException("Booking with ID " + bookingId + " not found")));
+        }
+
+        ReviewEntity savedReview = reviewRepository.save(review);
+        ratingAggregateService.applyReview(savedReview, savedReview.getRating(), 1);
+        return savedReview;
     }
 
     public ReviewEntity createReviewWithIds(Long customerId, Long providerId, Long bookingId, int rating, String comment, String reviewDateStr) {
@@ -104,9 +120,11 @@ public class ReviewService {
         return reviewRepository.findByProviderProviderId(providerId);
     }
 
+    @Transactional
     public ReviewEntity updateReview(Long reviewId, ReviewEntity updatedReview) {
         ReviewEntity existingReview = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new RuntimeException("Review not found with id: " + reviewId));
+        int previousRating = existingReview.getRating();
         
         // Update fields
         if (updatedReview.getRating() > 0) {
@@ -117,15 +135,22 @@ public class ReviewService {
             existingReview.setComment(updatedReview.getComment());
         }
         
-        return reviewRepository.save(existingReview);
+        ReviewEntity savedReview = reviewRepository.save(existingReview);
+        if (savedReview.getRating() != previousRating) {
+            ratingAggregateService.applyReview(savedReview, savedReview.getRating() - previousRating, 0);
+        }
+        return savedReview;
     }
 
+    @Transactional
     public String deleteReview(Long reviewId) {
-        if (reviewRepository.existsById(reviewId)) {
-            reviewRepository.deleteById(reviewId);
-            return "Review deleted successfully";
-        }
-        return "Review not found";
+        return reviewRepository.findById(reviewId)
+                .map(review -> {
+                    reviewRepository.delete(review);
+                    ratingAggregateService.applyReview(review, -review.getRating(), -1);
+                    return "Review deleted successfully";
+                })
+                .orElse("Review not found");
     }
 
     public List<ReviewEntity> getReviewsByService(Long serviceId) {
@@ -144,34 +169,25 @@ public class ReviewService {
         return reviews;
     }
     
+    // Read a service's rating from its maintained aggregates (one primary key lookup)
     public Map<String, Object> getServiceRating(Long serviceId) {
+        return serviceRepository.findById(serviceId)
+                .map(this::getServiceRating)
+                .orElseGet(() -> getServiceRating((ServiceEntity) null));
+    }
+
+    // Build the rating summary for an already loaded service without any further queries
+    public Map<String, Object> getServiceRating(ServiceEntity service) {
         Map<String, Object> result = new HashMap<>();
-        
-        List<ReviewEntity> reviews = getReviewsByService(serviceId);
-        
-        if (reviews.isEmpty()) {
-            result.put("averageRating", 0.0);
-            result.put("reviewCount", 0);
-            return result;
-        }
-        
-        // Calculate average rating
-        double sum = 0;
-        for (ReviewEntity review : reviews) {
-            sum += review.getRating();
-        }
-        
-        double averageRating = sum / reviews.size();
-        
-        // Round to 1 decimal place
-        double roundedRating = Math.round(averageRating * 10) / 10.0;
-        
-        result.put("averageRating", roundedRating);
-        result.put("reviewCount", reviews.size());
-        
+        result.put("averageRating", service != null ? service.getAverageRating() : 0.0);
+        result.put("reviewCount", service != null ? service.getRatingCount() : 0);
         return result;
     }
 
+    public Map<String, Object> rebuildRatingAggregates() {
+        return ratingAggregateService.rebuildAll();
+    }
+
     /**
      * Check if a customer has already reviewed a specific booking
      * 
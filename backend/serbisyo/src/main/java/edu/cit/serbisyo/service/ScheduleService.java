@@ -9,8 +9,12 @@ import org.springframework.stereotype.Service;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class ScheduleService {
@@ -21,6 +25,9 @@ public class ScheduleService {
     @Autowired
     private ServiceProviderRepository serviceProviderRepository;
 
+    @Autowired
+    private SlotReservationService slotReservationService;
+
     // Create a new schedule entry
     public ScheduleEntity createSchedule(Long providerId, ScheduleEntity scheduleDetails) {
         ServiceProviderEntity provider = serviceProviderRepository.findById(providerId)
@@ -48,6 +55,16 @@ public class ScheduleService {
         return scheduleRepository.findByServiceProviderProviderIdAndDayOfWeekAndIsAvailableTrue(providerId, dayOfWeek);
     }
     
+    // Get the slots still open on a specific date: the weekly available slots minus that date's reservations
+    public List<ScheduleEntity> getAvailableSchedulesForDate(Long providerId, LocalDate date) {
+        List<ScheduleEntity> weeklySlots = getAvailableSchedulesForDay(providerId, date.getDayOfWeek());
+        Set<LocalTime> reserved = slotReservationService.getReservedStartTimes(providerId, date);
+
+        return weeklySlots.stream()
+                .filter(schedule -> !reserved.contains(schedule.getStartTime()))
+                .collect(Collectors.toList());
+    }
+    
     // Get schedule by ID
     public ScheduleEntity getScheduleById(Long scheduleId) {
         return scheduleRepository.findById(scheduleId)
@@ -75,8 +92,16 @@ public class ScheduleService {
         scheduleRepository.deleteById(scheduleId);
     }
     
-    // Check if a service provider is available at a specific date and time
+    // Check if a service provider is available at a specific date and time.
+    // Throws IllegalArgumentException if the time is not a valid HH:mm[:ss] value.
     public boolean isProviderAvailable(Long providerId, LocalDate date, String time) {
+        LocalTime slotTime;
+        try {
+            slotTime = LocalTime.parse(time);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid time '" + time + "'; expected HH:mm");
+        }
+
         // Implementation would check if the provider has availability for the given day and time
         // and also check if there are no conflicting bookings
         
@@ -84,9 +109,11 @@ public class ScheduleService {
         List<ScheduleEntity> availableSchedules = scheduleRepository
                 .findByServiceProviderProviderIdAndDayOfWeekAndIsAvailableTrue(providerId, dayOfWeek);
         
-        // Further implementation to check if the specific time falls within available hours
-        // and if there are no existing bookings at that time
-        
-        return !availableSchedules.isEmpty();
+        if (availableSchedules.isEmpty()) {
+            return false;
+        }
+
+        // Check the specific slot has not already been reserved on that date
+        return slotReservationService.isSlotFree(providerId, date, slotTime);
     }
 }
@@ -1,22 +1,31 @@
 package edu.cit.serbisyo.service;
 
+import edu.cit.serbisyo.entity.StoredBlobEntity;
 import edu.cit.serbisyo.entity.CustomerEntity;
 import edu.cit.serbisyo.entity.ServiceProviderEntity;
+import edu.cit.serbisyo.pagination.CursorPage;
+import edu.cit.serbisyo.pagination.KeysetPaginator;
 import edu.cit.serbisyo.repository.ServiceProviderRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
 @Service
 public class ServiceProviderService {
     @Autowired
     private ServiceProviderRepository serviceProviderRepository;
 
+    @Autowired
+    private KeysetPaginator keysetPaginator;
+
+    @Autowired
+    private BlobStoreService blobStoreService;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
     public ServiceProviderEntity registerServiceProvider(ServiceProviderEntity provider) {
         return serviceProviderRepository.save(provider);
     }
@@ -25,6 +34,12 @@ public class ServiceProviderService {
         return serviceProviderRepository.findAll();
     }
 
+    public CursorPage<ServiceProviderEntity> listServiceProviders(String cursor, Integer limit, Boolean verified) {
+        return keysetPaginator.ascending(cursor, limit,
+                (afterId, pageable) -> serviceProviderRepository.findKeysetPage(afterId, verified, pageable),
+                ServiceProviderEntity::getProviderId);
+    }
+
     public ServiceProviderEntity getServiceProvider(Long providerId) {
         ServiceProviderEntity provider = serviceProviderRepository.findById(providerId)
                 .orElseThrow(() -> new RuntimeException("Service provider not found"));
@@ -50,8 +65,11 @@ public class ServiceProviderService {
     }
 
     public String deleteServiceProvider(Long providerId) {
-        if (serviceProviderRepository.existsById(providerId)) {
-            serviceProviderRepository.deleteById(providerId);
+        ServiceProviderEntity serviceProvider = serviceProviderRepository.findById(providerId).orElse(null);
+        if (serviceProvider != null) {
+            serviceProviderRepository.delete(serviceProvider);
+            // Images of cascaded services are released by the nightly blob recount
+            blobStoreService.release(serviceProvider.getServiceProviderImageBlob());
             return "Service provider successfully deleted.";
         }
         return "Service provider not found.";
@@ -61,33 +79,30 @@ public class ServiceProviderService {
         ServiceProviderEntity serviceProvider = serviceProviderRepository.findById(providerId)
                 .orElseThrow(() -> new IllegalArgumentException("Service Provider not found"));
 
-        // Ensure the uploads directory exists
-        Path uploadDir = Paths.get("uploads");
-        if (!Files.exists(uploadDir)) {
-            Files.createDirectories(uploadDir); // Create the directory if it doesn't exist
-        }
-        
-        // Save the image to a local directory or cloud storage
-        String fileName = providerId + "_" + image.getOriginalFilename();
-        Path filePath = Paths.get("uploads/" + fileName);
-        Files.write(filePath, image.getBytes());
-
-        // Save the file path to the database
-        serviceProvider.setServiceProviderImage(filePath.toString());
+        // Stream the image into the blob store and move the reference over to it
+        StoredBlobEntity storedImage = blobStoreService.store(image);
+        blobStoreService.swapReference(serviceProvider.getServiceProviderImageBlob(), storedImage);
+
+        // Save the image key to the database
+        serviceProvider.setServiceProviderImageBlob(storedImage);
         serviceProviderRepository.save(serviceProvider);
 
         return "Profile image uploaded successfully.";
     }
 
-    public String getServiceProviderImage(Long providerId) {
+    // size (thumb, card, full or a width) selects a resized variant; null returns the original
+    public String getServiceProviderImage(Long providerId, String size) {
         ServiceProviderEntity serviceProvider = serviceProviderRepository.findById(providerId)
                 .orElseThrow(() -> new IllegalArgumentException("Customer not found"));
     
-        if (serviceProvider.getServiceProviderImage() == null || serviceProvider.getServiceProviderImage().isEmpty()) {
+        if (serviceProvider.getServiceProviderImageBlob() == null) {
             throw new IllegalArgumentException("Profile image not found for the service provider.");
         }
     
-        // Return the relative path of the profile image
-        return "/uploads/" + Paths.get(serviceProvider.getServiceProviderImage()).getFileName().toString();
+        // Return the public URL of the profile image
+        if (size == null || size.isBlank()) {
+            return serviceProvider.getServiceProviderImage();
+        }
+        return imageVariantService.resolveUrl(serviceProvider.getServiceProviderImageBlob(), ImageVariantService.Variant.fromRequest(size));
     }
 }
\ No newline at end of file
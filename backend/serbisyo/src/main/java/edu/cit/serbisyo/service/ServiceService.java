@@ -1,23 +1,27 @@
 package edu.cit.serbisyo.service;
 
+import edu.cit.serbisyo.dto.ServiceCatalogueEntry;
+import edu.cit.serbisyo.entity.StoredBlobEntity;
 import edu.cit.serbisyo.entity.ServiceEntity;
 import edu.cit.serbisyo.entity.ServiceProviderEntity;
 import edu.cit.serbisyo.entity.ServiceCategoryEntity;
+import edu.cit.serbisyo.pagination.CursorPage;
+import edu.cit.serbisyo.pagination.KeysetPaginator;
 import edu.cit.serbisyo.repository.ServiceRepository;
 import edu.cit.serbisyo.repository.ServiceProviderRepository;
 import edu.cit.serbisyo.repository.ServiceCategoryRepository;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class ServiceService {
@@ -31,6 +35,15 @@ public class ServiceService {
     @Autowired
     private ServiceCategoryRepository serviceCategoryRepository;
 
+    @Autowired
+    private KeysetPaginator keysetPaginator;
+
+    @Autowired
+    private BlobStoreService blobStoreService;
+
+    @Autowired
+    private ImageVariantService imageVariantService;
+
     public ServiceService() {
         super();
     }
@@ -54,26 +67,35 @@ public class ServiceService {
         return serviceRepository.findAll();
     }
 
+    // READ all services with provider and category fetched up front, for catalogue responses
+    public List<ServiceEntity> getAllServicesForCatalogue() {
+        return serviceRepository.findAllWithProviderAndCategory();
+    }
+
+    // READ a page of services (keyset pagination)
+    public CursorPage<ServiceEntity> listServices(String cursor, Integer limit, Long categoryId, Long providerId) {
+        return keysetPaginator.ascending(cursor, limit,
+                (afterId, pageable) -> serviceRepository.findKeysetPage(afterId, categoryId, providerId, pageable),
+                ServiceEntity::getServiceId);
+    }
+
     // READ all services by provider ID
     public List<ServiceEntity> getServicesByProviderId(Long providerId) {
         // First check if the provider exists
-        ServiceProviderEntity provider = serviceProviderRepository.findById(providerId)
-                .orElseThrow(() -> new NoSuchElementException("Service Provider with ID " + providerId + " not found"));
-                
-        // Get all services
-        List<ServiceEntity> allServices = serviceRepository.findAll();
-        List<ServiceEntity> providerServices = new ArrayList<>();
-        
-        // Filter services by provider ID
-        for (ServiceEntity service : allServices) {
-            if (service.getProvider() != null && 
-                service.getProvider().getProviderId() != null && 
-                service.getProvider().getProviderId().equals(providerId)) {
-                providerServices.add(service);
-            }
+        if (!serviceProviderRepository.existsById(providerId)) {
+            throw new NoSuchElementException("Service Provider with ID " + providerId + " not found");
+        }
+
+        return serviceRepository.findByProviderProviderId(providerId);
+    }
+
+    // READ the catalogue projection, handing each row to the consumer as it is read
+    // (the stream needs an open read-only transaction for its whole lifetime)
+    @Transactional(readOnly = true)
+    public void streamCatalogue(Long providerId, Long categoryId, Consumer<ServiceCatalogueEntry> consumer) {
+        try (Stream<ServiceCatalogueEntry> entries = serviceRepository.streamCatalogue(providerId, categoryId)) {
+            entries.forEach(consumer);
         }
-        
-        return providerServices;
     }
 
     // READ a service by ID
@@ -105,8 +127,10 @@ public class ServiceService {
 
     // DELETE a service
     public String deleteService(Long serviceId) {
-        if (serviceRepository.existsById(serviceId)) {
-            serviceRepository.deleteById(serviceId);
+        ServiceEntity service = serviceRepository.findById(serviceId).orElse(null);
+        if (service != null) {
+            serviceRepository.delete(service);
+            blobStoreService.release(service.getServiceImageBlob());
             return "Service with ID " + serviceId + " has been deleted successfully.";
         } else {
             return "Service with ID " + serviceId + " not found.";
@@ -117,35 +141,30 @@ public class ServiceService {
         ServiceEntity service = serviceRepository.findById(serviceId)
                 .orElseThrow(() -> new IllegalArgumentException("Service not found"));
 
-        // Ensure the uploads directory exists
-        Path uploadDir = Paths.get("uploads");
-        if (!Files.exists(uploadDir)) {
-            Files.createDirectories(uploadDir); // Create the directory if it doesn't exist
-        }
-
-        // Save the image to a local directory
-        String fileName = serviceId + "_" + image.getOriginalFilename();
-        Path filePath = Paths.get("uploads/" + fileName);
-        Files.write(filePath, image.getBytes());
+        // Stream the image into the blob store and move the reference over to it
+        StoredBlobEntity storedImage = blobStoreService.store(image);
+        blobStoreService.swapReference(service.getServiceImageBlob(), storedImage);
 
-        // Save the file path to the database
-        service.setServiceImage(filePath.toString());
+        // Save the image key to the database
+        service.setServiceImageBlob(storedImage);
         serviceRepository.save(service);
 
         return "Service image uploaded successfully.";
     }
 
-    public String getServiceImage(Long serviceId) {
+    // size (thumb, card, full or a width) selects a resized variant; null returns the original
+    public String getServiceImage(Long serviceId, String size) {
         ServiceEntity service = serviceRepository.findById(serviceId)
                 .orElseThrow(() -> new IllegalArgumentException("Service not found"));
 
-        if (service.getServiceImage() == null || service.getServiceImage().isEmpty()) {
+        if (service.getServiceImageBlob() == null) {
             throw new IllegalArgumentException("Service image not found for the service.");
         }
 
-        System.out.println("Service Image Path: " + "/uploads/" + Paths.get(service.getServiceImage()).getFileName().toString());
-
-        // Return the relative path of the service image
-        return "/uploads/" + Paths.get(service.getServiceImage()).getFileName().toString();
+        // Return the public URL of the service image
+        if (size == null || size.isBlank()) {
+            return service.getServiceImage();
+        }
+        return imageVariantService.resolveUrl(service.getServiceImageBlob(), ImageVariantService.Variant.fromRequest(size));
     }
 }
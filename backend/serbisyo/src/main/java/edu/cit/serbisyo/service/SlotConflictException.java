@@ -0,0 +1,12 @@
+package edu.cit.serbisyo.service;
+
+/**
+ * Thrown when a booking asks for a dated slot another booking already holds.
+ * Controllers map it to 409 Conflict.
+ */
+public class SlotConflictException extends RuntimeException {
+
+    public SlotConflictException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,97 @@
+package edu.cit.serbisyo.service;
+
+import edu.cit.serbisyo.entity.ScheduleEntity;
+import edu.cit.serbisyo.entity.SlotReservationEntity;
+import edu.cit.serbisyo.repository.ScheduleRepository;
+import edu.cit.serbisyo.repository.SlotReservationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reserves dated schedule slots for bookings.
+ *
+ * A reservation is a conditional insert guarded by a unique key, so when several
+ * requests race for the same provider, date and start time exactly one insert
+ * commits and the others fail fast with SlotConflictException. Weekly
+ * ScheduleEntity rows are never modified by bookings.
+ */
+@Service
+public class SlotReservationService {
+
+    @Autowired
+    private SlotReservationRepository slotReservationRepository;
+
+    @Autowired
+    private ScheduleRepository scheduleRepository;
+
+    /**
+     * Find the weekly schedule slot a booking time falls into: an exact start time
+     * match first, otherwise the slot whose range contains the time.
+     */
+    public ScheduleEntity findScheduleSlot(Long providerId, LocalDate date, LocalTime time) {
+        List<ScheduleEntity> schedules = scheduleRepository.findByServiceProviderProviderIdAndDayOfWeekAndStartTime(
+                providerId, date.getDayOfWeek(), time);
+
+        if (schedules.isEmpty()) {
+            schedules = scheduleRepository.findByServiceProviderProviderIdAndDayOfWeekAndStartTimeLessThanEqualAndEndTimeGreaterThanEqual(
+                    providerId, date.getDayOfWeek(), time, time);
+        }
+
+        return schedules.isEmpty() ? null : schedules.get(0);
+    }
+
+    /**
+     * Reserve the slot containing the given time on the given date for a booking.
+     * Must run inside the caller's transaction so a lost race rolls the booking back too.
+     *
+     * @throws SlotConflictException if the slot is already reserved
+     */
+    @Transactional
+    public SlotReservationEntity reserve(Long providerId, LocalDate date, LocalTime time, Long bookingId) {
+        ScheduleEntity schedule = findScheduleSlot(providerId, date, time);
+
+        SlotReservationEntity reservation = new SlotReservationEntity();
+        reservation.setProviderId(providerId);
+        reservation.setSlotDate(date);
+        // Key on the slot start so two bookings inside the same slot collide
+        reservation.setStartTime(schedule != null ? schedule.getStartTime() : time);
+        reservation.setScheduleId(schedule != null ? schedule.getScheduleId() : null);
+        reservation.setBookingId(bookingId);
+        reservation.setReservedAt(LocalDateTime.now());
+
+        try {
+            return slotReservationRepository.saveAndFlush(reservation);
+        } catch (DataIntegrityViolationException e) {
+            throw new SlotConflictException("The selected time slot on " + date + " is already booked");
+        }
+    }
+
+    // Release whatever slot a booking holds
+    @Transactional
+    public void release(Long bookingId) {
+        slotReservationRepository.deleteByBookingId(bookingId);
+    }
+
+    // Check whether the slot containing the given time is free on the given date
+    public boolean isSlotFree(Long providerId, LocalDate date, LocalTime time) {
+        ScheduleEntity schedule = findScheduleSlot(providerId, date, time);
+        LocalTime slotStart = schedule != null ? schedule.getStartTime() : time;
+        return !slotReservationRepository.existsByProviderIdAndSlotDateAndStartTime(providerId, date, slotStart);
+    }
+
+    // Start times already reserved for a provider on a date
+    public Set<LocalTime> getReservedStartTimes(Long providerId, LocalDate date) {
+        return slotReservationRepository.findByProviderIdAndSlotDate(providerId, date).stream()
+                .map(SlotReservationEntity::getStartTime)
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,102 @@
+package edu.cit.serbisyo.service;
+
+import edu.cit.serbisyo.config.BoundedExpiringMap;
+import edu.cit.serbisyo.repository.NotificationRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cached unread notification count per user.
+ *
+ * A user's counter is seeded with one COUNT query the first time it is asked for;
+ * after that notification writes, read-state changes and deletes keep it current,
+ * so serving the badge count is a map lookup. Users who are not cached are not
+ * tracked, and their writes cost nothing here.
+ *
+ * Changes are applied only after the surrounding transaction commits, so a rollback
+ * leaves the count alone. Entries expire after ttl-seconds and are recounted, which
+ * bounds any drift (including writes made on other nodes); at most max-users entries
+ * are kept, the oldest going first.
+ */
+@Component
+public class UnreadNotificationCounter {
+
+    @Autowired
+    private NotificationRepository notificationRepository;
+
+    @Value("${app.notifications.unread-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    @Value("${app.notifications.unread-cache.max-users:10000}")
+    private int maxUsers;
+
+    private final BoundedExpiringMap<Long, Entry> counts =
+            new BoundedExpiringMap<>(() -> maxUsers, System::nanoTime, (userId, entry) -> entry.expiresAt);
+
+    public long get(Long userId) {
+        Entry entry = counts.get(userId);
+        if (entry != null) {
+            return entry.count.get();
+        }
+        // Counted outside any map lock, so a slow query never blocks other users
+        long unread = notificationRepository.countUnreadByUserId(userId);
+        counts.put(userId, new Entry(unread, System.nanoTime() + ttlSeconds * 1_000_000_000L));
+        return unread;
+    }
+
+    public void increment(Long userId) {
+        afterCommit(() -> add(userId, 1));
+    }
+
+    public void decrement(Long userId) {
+        afterCommit(() -> add(userId, -1));
+    }
+
+    public void reset(Long userId) {
+        afterCommit(() -> {
+            Entry entry = counts.get(userId);
+            if (entry != null) {
+                entry.count.set(0);
+            }
+        });
+    }
+
+    private void add(Long userId, long delta) {
+        if (userId == null) {
+            return;
+        }
+        Entry entry = counts.get(userId);
+        if (entry != null) {
+            entry.count.accumulateAndGet(delta, (current, d) -> Math.max(0, current + d));
+        }
+    }
+
+    // Run now when there is no transaction, otherwise once it has committed
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private static final class Entry {
+        private final AtomicLong count;
+        private final long expiresAt;
+
+        private Entry(long count, long expiresAt) {
+            this.count = new AtomicLong(count);
+            this.expiresAt = expiresAt;
+        }
+    }
+}
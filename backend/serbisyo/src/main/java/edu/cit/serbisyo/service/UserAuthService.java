@@ -1,5 +1,6 @@
 package edu.cit.serbisyo.service;
 
+import edu.cit.serbisyo.config.JwtPrincipalCache;
 import edu.cit.serbisyo.config.JwtUtil;
 import edu.cit.serbisyo.entity.AddressEntity;
 import edu.cit.serbisyo.entity.CustomerEntity;
@@ -9,44 +10,82 @@ import edu.cit.serbisyo.repository.CustomerRepository;
 import edu.cit.serbisyo.repository.ServiceProviderRepository;
 import edu.cit.serbisyo.repository.UserAuthRepository;
 import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Service
 public class UserAuthService {
+    private static final Logger log = LoggerFactory.getLogger(UserAuthService.class);
+    // Roles a user may give their own account; anything else takes an admin
+    private static final Set<String> SELF_ASSIGNABLE_ROLES = Set.of("Customer", "Service Provider");
     private final UserAuthRepository userAuthRepository;
     private final CustomerRepository customerRepository; // Inject CustomerRepository
     private final ServiceProviderRepository serviceProviderRepository; // Inject ServiceProviderRepository
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
+    private final RefreshTokenService refreshTokenService;
     private final JwtUtil jwtUtil;
+    private final JwtPrincipalCache principalCache;
 
     // Constructor injection for dependencies
-    public UserAuthService(UserAuthRepository userAuthRepository, CustomerRepository customerRepository, ServiceProviderRepository serviceProviderRepository, JwtUtil jwtUtil) {
+    public UserAuthService(UserAuthRepository userAuthRepository, CustomerRepository customerRepository, ServiceProviderRepository serviceProviderRepository, JwtUtil jwtUtil, JwtPrincipalCache principalCache, PasswordHashingService passwordHashingService, RefreshTokenService refreshTokenService) {
         this.userAuthRepository = userAuthRepository;
         this.customerRepository = customerRepository; // Initialize CustomerRepository
         this.serviceProviderRepository = serviceProviderRepository; // Initialize ServiceProviderRepository
-        this.passwordEncoder = new BCryptPasswordEncoder();
+        this.passwordHashingService = passwordHashingService;
+        this.refreshTokenService = refreshTokenService;
         this.jwtUtil = jwtUtil;
+        this.principalCache = principalCache;
     }
 
     @Transactional
     public String registerUser(UserAuthEntity userAuth, CustomerEntity customer, ServiceProviderEntity serviceProvider) {
+        try {
+            registerUserAccount(userAuth, customer, serviceProvider);
+        } catch (IllegalStateException e) {
+            return e.getMessage();
+        }
+        return "User registered successfully.";
+    }
+
+    /**
+     * Register a user and return the saved account. Existing email and username are
+     * checked with one indexed query; the unique normalized columns catch any race.
+     * Throws IllegalStateException if the email or username is taken, and
+     * DataIntegrityViolationException if a concurrent registration took it first.
+     */
+    @Transactional
+    public UserAuthEntity registerUserAccount(UserAuthEntity userAuth, CustomerEntity customer, ServiceProviderEntity serviceProvider) {
         if (userAuth == null || userAuth.getEmail() == null || userAuth.getPassword() == null) {
             throw new IllegalArgumentException("UserAuthEntity, email, and password cannot be null");
         }
     
-        if (userAuthRepository.findByEmail(userAuth.getEmail()) != null) {
-            return "Email already exists.";
+        String normalizedEmail = UserAuthEntity.normalize(userAuth.getEmail());
+        for (UserAuthEntity conflict : userAuthRepository.findConflicting(normalizedEmail, UserAuthEntity.normalize(userAuth.getUserName()))) {
+            if (normalizedEmail.equals(conflict.getNormalizedEmail())) {
+                throw new IllegalStateException("Email already exists.");
+            }
+            throw new IllegalStateException("Username already exists.");
         }
     
         // Save UserAuthEntity
-        userAuth.setPassword(passwordEncoder.encode(userAuth.getPassword()));
+        userAuth.setPassword(passwordHashingService.encode(userAuth.getPassword()));
         UserAuthEntity savedUserAuth = userAuthRepository.save(userAuth);
     
         // Handle roles
@@ -65,7 +104,7 @@ public class UserAuthService {
             throw new IllegalArgumentException("Invalid role: " + userAuth.getRole());
         }
     
-        return "User registered successfully.";
+        return savedUserAuth;
     }
 
     // public String deleteUserAuth(Long authId, String token) {
@@ -91,13 +130,34 @@ public class UserAuthService {
 
 // ...existing code...
 
-public Map<String, String> loginUser(UserAuthEntity userAuth) {
+/**
+ * Login with the password check on the hashing pool, off the request thread.
+ * Completes exceptionally with IllegalArgumentException for bad credentials;
+ * throws a 429 ResponseStatusException right away if the pool is saturated.
+ */
+public CompletableFuture<Map<String, String>> loginUserAsync(UserAuthEntity userAuth) {
     // Check if the user exists by username
     UserAuthEntity existingUser = userAuthRepository.findByUserName(userAuth.getUserName());
-    if (existingUser == null || !passwordEncoder.matches(userAuth.getPassword(), existingUser.getPassword())) {
-        throw new IllegalArgumentException("Invalid username or password.");
-    }
+    String rawPassword = userAuth.getPassword();
+
+    return passwordHashingService.submit(() -> {
+        boolean valid = existingUser != null
+                ? passwordHashingService.matches(rawPassword, existingUser.getPassword())
+                : passwordHashingService.matchesDummy(rawPassword);
+        if (!valid) {
+            throw new IllegalArgumentException("Invalid username or password.");
+        }
+
+        // Transparently move older, cheaper hashes up to the configured cost
+        if (passwordHashingService.needsRehash(existingUser.getPassword())) {
+            userAuthRepository.updatePassword(existingUser.getUserId(), passwordHashingService.encode(rawPassword));
+            passwordHashingService.recordRehash();
+        }
+        return issueLoginResponse(existingUser);
+    });
+}
 
+private Map<String, String> issueLoginResponse(UserAuthEntity existingUser) {
     // Generate the token with username, email and role
     String token = jwtUtil.generateToken(
         existingUser.getUserName(), 
@@ -110,8 +170,11 @@ public Map<String, String> loginUser(UserAuthEntity userAuth) {
     String userId = existingUser.getUserId().toString(); // Assuming you have a getId() method
 
 
+    // Long-lived refresh token so the client can renew the access token without logging in again
+    String refreshToken = refreshTokenService.issue(existingUser);
+
     // Return both token and role in a Map
-    return Map.of("token", token, "role", role, "userId", userId);
+    return Map.of("token", token, "refreshToken", refreshToken, "role", role, "userId", userId);
 }
 
 // ...existing code...
@@ -124,23 +187,168 @@ public Map<String, String> loginUser(UserAuthEntity userAuth) {
         return userAuthRepository.findById(authId).orElse(null);
     }
 
+    /**
+     * Fill the normalized lookup columns for accounts created before they existed.
+     * Accounts that differ from another only by case cannot be normalized; they are
+     * listed by getNormalizationConflicts and fixed with resolveNormalizationConflict.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillNormalizedColumns() {
+        try {
+            int updated = userAuthRepository.backfillNormalizedColumns();
+            if (updated > 0) {
+                log.info("Normalized email/username for {} user(s)", updated);
+            }
+        } catch (DataIntegrityViolationException e) {
+            // Some existing accounts differ only by case; normalize the rest one row and column at a time
+            int updated = 0;
+            for (Long userId : userAuthRepository.findIdsMissingNormalizedColumns()) {
+                updated += normalizeSkippingCollision(() -> userAuthRepository.normalizeUserName(userId));
+                updated += normalizeSkippingCollision(() -> userAuthRepository.normalizeEmail(userId));
+            }
+            log.info("Normalized {} email/username value(s) row by row", updated);
+        }
+
+        int conflicts = userAuthRepository.findIdsMissingNormalizedColumns().size();
+        if (conflicts > 0) {
+            log.warn("{} account(s) duplicate another account's email or username ignoring case; "
+                    + "list them at GET /api/user-auth/normalization-conflicts", conflicts);
+        }
+    }
+
+    private static int normalizeSkippingCollision(Supplier<Integer> update) {
+        try {
+            return update.get();
+        } catch (DataIntegrityViolationException duplicate) {
+            return 0;
+        }
+    }
+
+    // Unnormalized accounts and the account each one collides with
+    public List<Map<String, Object>> getNormalizationConflicts() {
+        List<Map<String, Object>> conflicts = new ArrayList<>();
+        for (UserAuthEntity user : userAuthRepository.findMissingNormalizedColumns()) {
+            Map<String, Object> conflict = new LinkedHashMap<>();
+            conflict.put("userId", user.getUserId());
+            conflict.put("userName", user.getUserName());
+            conflict.put("email", user.getEmail());
+            if (user.getNormalizedUserName() == null) {
+                UserAuthEntity holder = userAuthRepository.findByUserName(user.getUserName());
+                conflict.put("userNameTakenBy", holder != null ? holder.getUserId() : null);
+            }
+            if (user.getNormalizedEmail() == null && user.getEmail() != null) {
+                UserAuthEntity holder = userAuthRepository.findByEmail(user.getEmail());
+                conflict.put("emailTakenBy", holder != null ? holder.getUserId() : null);
+            }
+            conflicts.add(conflict);
+        }
+        return conflicts;
+    }
+
+    /**
+     * Give an account that collides ignoring case a new username and/or email, which
+     * normalizes it. Throws NoSuchElementException for an unknown account,
+     * IllegalArgumentException if neither value changes, and IllegalStateException if
+     * a new value is still taken.
+     */
+    @Transactional
+    public UserAuthEntity resolveNormalizationConflict(Long authId, String newUserName, String newEmail) {
+        UserAuthEntity user = userAuthRepository.findById(authId)
+                .orElseThrow(() -> new NoSuchElementException("User not found"));
+        boolean renameUser = newUserName != null && !newUserName.equals(user.getUserName());
+        boolean changeEmail = newEmail != null && !newEmail.equals(user.getEmail());
+        if (!renameUser && !changeEmail) {
+            throw new IllegalArgumentException("Provide a new userName or email");
+        }
+
+        String previousUserName = user.getUserName();
+        String userName = renameUser ? newUserName : user.getUserName();
+        String email = changeEmail ? newEmail : user.getEmail();
+        for (UserAuthEntity conflict : userAuthRepository.findConflicting(UserAuthEntity.normalize(email), UserAuthEntity.normalize(userName))) {
+            if (!conflict.getUserId().equals(authId)) {
+                throw new IllegalStateException(UserAuthEntity.normalize(email) != null
+                        && UserAuthEntity.normalize(email).equals(conflict.getNormalizedEmail())
+                        ? "Email already exists." : "Username already exists.");
+            }
+        }
+
+        // Changing a field makes the row dirty, so the entity's update hook fills both normalized columns
+        user.setUserName(userName);
+        user.setEmail(email);
+        UserAuthEntity saved;
+        try {
+            saved = userAuthRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalStateException("Email or username already exists.");
+        }
+        if (renameUser) {
+            principalCache.evict(previousUserName);
+            jwtUtil.revokeAllForUser(previousUserName);
+        }
+        return saved;
+    }
+
+    // Revoke the presented token so it is rejected even from the verified-token cache
+    public void logout(String token, String refreshToken) {
+        jwtUtil.revoke(token);
+        refreshTokenService.revoke(refreshToken);
+    }
+
+    public Map<String, String> refresh(String refreshToken) {
+        return refreshTokenService.refresh(refreshToken);
+    }
+
+    public Map<String, Object> getPasswordHashingStats() {
+        return passwordHashingService.getStats();
+    }
+
+    public Map<String, Object> getTokenCacheStats() {
+        return jwtUtil.getTokenCacheStats();
+    }
+
     public String deleteUserAuth(Long authId) {
-        if (userAuthRepository.existsById(authId)) {
-            userAuthRepository.deleteById(authId);
+        UserAuthEntity existingUserAuth = userAuthRepository.findById(authId).orElse(null);
+        if (existingUserAuth != null) {
+            userAuthRepository.delete(existingUserAuth);
+            // Stop accepting the deleted user's tokens without waiting for the cache TTL
+            principalCache.evict(existingUserAuth.getUserName());
+            jwtUtil.revokeAllForUser(existingUserAuth.getUserName());
+            refreshTokenService.revokeAllForUser(existingUserAuth.getUserId());
             return "User authentication record successfully deleted.";
         }
         return "User authentication record not found.";
     }
 
-    public String updateUserAuth(Long authId, UserAuthEntity userAuth) {
+    /**
+     * Update an account on behalf of its owner. The role is an authority (see RoleAuthorities),
+     * so only an admin may set anything other than Customer or Service Provider.
+     * Throws AccessDeniedException when the caller does not own the account.
+     */
+    public String updateUserAuth(Long authId, UserAuthEntity userAuth, String callerName, boolean callerIsAdmin) {
         if (userAuthRepository.existsById(authId)) {
             UserAuthEntity existingUserAuth = userAuthRepository.findById(authId).orElse(null);
             if (existingUserAuth != null) {
+                if (callerName == null || !callerName.equals(existingUserAuth.getUserName())) {
+                    throw new AccessDeniedException("You can only update your own account");
+                }
+                if (userAuth.getRole() != null && !callerIsAdmin && !SELF_ASSIGNABLE_ROLES.contains(userAuth.getRole())) {
+                    throw new IllegalArgumentException("Invalid role: " + userAuth.getRole());
+                }
+                String previousUserName = existingUserAuth.getUserName();
+                principalCache.evict(previousUserName);
                 existingUserAuth.setUserName(userAuth.getUserName());
                 existingUserAuth.setEmail(userAuth.getEmail());
-                existingUserAuth.setPassword(passwordEncoder.encode(userAuth.getPassword()));
-                existingUserAuth.setRole(userAuth.getRole());
+                // Leaving the password out keeps the current one
+                if (userAuth.getPassword() != null && !userAuth.getPassword().isEmpty()) {
+                    existingUserAuth.setPassword(passwordHashingService.encode(userAuth.getPassword()));
+                }
+                if (userAuth.getRole() != null) {
+                    existingUserAuth.setRole(userAuth.getRole());
+                }
                 userAuthRepository.save(existingUserAuth);
+                // Tokens carry the old name, email and role, and were issued under the old password
+                jwtUtil.revokeAllForUser(previousUserName);
+                refreshTokenService.revokeAllForUser(existingUserAuth.getUserId());
                 return "User authentication record successfully updated.";
             }
         }
@@ -153,14 +361,18 @@ public Map<String, String> loginUser(UserAuthEntity userAuth) {
                 .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
         // Check if the old password matches
-        if (!passwordEncoder.matches(oldPassword, userAuth.getPassword())) {
+        if (!passwordHashingService.matches(oldPassword, userAuth.getPassword())) {
             throw new IllegalArgumentException("Old password is incorrect");
         }
 
         // Update the password
-        userAuth.setPassword(passwordEncoder.encode(newPassword));
+        userAuth.setPassword(passwordHashingService.encode(newPassword));
         userAuthRepository.save(userAuth);
 
+        // Sessions opened with the old password must not survive the change
+        jwtUtil.revokeAllForUser(userAuth.getUserName());
+        refreshTokenService.revokeAllForUser(userAuth.getUserId());
+
         return "Password changed successfully";
     }
 }
\ No newline at end of file
@@ -0,0 +1,490 @@
+package edu.cit.serbisyo.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import edu.cit.serbisyo.dto.UserImportRow;
+import edu.cit.serbisyo.entity.UserAuthEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk user registration from a CSV or JSON stream.
+ *
+ * Rows are read one at a time and processed in chunks: each chunk is validated, checked
+ * against existing accounts with one query, hashed in parallel on the import pool, and
+ * written with JDBC batches (Hibernate cannot batch inserts for IDENTITY ids). A chunk is
+ * one transaction; if it fails, its rows are retried one by one so a single bad row only
+ * fails itself. Every rejected row is reported with its row number.
+ */
+@Service
+public class UserImportService {
+
+    private static final String CUSTOMER_ROLE = "Customer";
+    private static final String PROVIDER_ROLE = "Service Provider";
+
+    private static final String INSERT_USER_SQL =
+            "INSERT INTO user_auth (user_name, password, email, role, created_at, normalized_email, normalized_user_name) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_CUSTOMER_SQL =
+            "INSERT INTO customer (user_id, first_name, last_name, phone_number) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_PROVIDER_SQL =
+            "INSERT INTO service_provider (user_id, first_name, last_name, phone_number, business_name, " +
+            "years_of_experience, verified, average_rating, rating_sum, rating_count) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ADDRESS_SQL =
+            "INSERT INTO address (street_name, barangay, city, province, zip_code, is_main, customer_id, provider_id) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Lenient binding: header/property names ignore case, unknown columns are skipped
+    private static final ObjectMapper ROW_MAPPER = JsonMapper.builder()
+            .enable(MapperFeature.ACCEPT_CASE_INSENSITIVE_PROPERTIES)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PasswordHashingService passwordHashingService;
+
+    @Value("${app.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public Map<String, Object> importCsv(InputStream input) throws IOException {
+        return importRows(new CsvRowSource(input));
+    }
+
+    public Map<String, Object> importJson(InputStream input) throws IOException {
+        return importRows(new JsonRowSource(input));
+    }
+
+    private Map<String, Object> importRows(RowSource source) throws IOException {
+        ImportReport report = new ImportReport();
+        Set<String> seenEmails = new HashSet<>();
+        Set<String> seenUserNames = new HashSet<>();
+        List<PendingUser> chunk = new ArrayList<>(batchSize);
+
+        int rowNumber = 0;
+        try {
+            Object raw;
+            while ((raw = source.next()) != null) {
+                rowNumber++;
+                report.total++;
+                PendingUser pending = validate(rowNumber, raw, seenEmails, seenUserNames, report);
+                if (pending != null) {
+                    chunk.add(pending);
+                }
+                if (chunk.size() >= batchSize) {
+                    processChunk(chunk, report);
+                    chunk.clear();
+                }
+            }
+        } catch (JsonProcessingException e) {
+            // Earlier chunks are already committed, so report how far we got instead of failing outright
+            report.abortedAt = "Stopped after row " + rowNumber + ": " + e.getOriginalMessage();
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, report);
+        }
+        return report.toMap();
+    }
+
+    private PendingUser validate(int rowNumber, Object raw, Set<String> seenEmails, Set<String> seenUserNames, ImportReport report) {
+        UserImportRow row;
+        try {
+            row = ROW_MAPPER.convertValue(raw, UserImportRow.class);
+        } catch (IllegalArgumentException e) {
+            report.fail(rowNumber, null, "Malformed row: " + e.getMessage());
+            return null;
+        }
+
+        String email = UserAuthEntity.normalize(row.getEmail());
+        String userName = UserAuthEntity.normalize(row.getUserName());
+        String error = null;
+        if (userName == null || userName.isEmpty()) {
+            error = "userName is required";
+        } else if (email == null || email.isEmpty() || email.indexOf('@') < 1) {
+            error = "A valid email is required";
+        } else if (row.getPassword() == null || row.getPassword().isEmpty()) {
+            error = "password is required";
+        } else if (!CUSTOMER_ROLE.equals(row.getRole()) && !PROVIDER_ROLE.equals(row.getRole())) {
+            error = "role must be '" + CUSTOMER_ROLE + "' or '" + PROVIDER_ROLE + "'";
+        } else if (seenEmails.contains(email)) {
+            error = "Email appears more than once in the file";
+        } else if (seenUserNames.contains(userName)) {
+            error = "Username appears more than once in the file";
+        }
+        if (error != null) {
+            report.fail(rowNumber, row.getEmail(), error);
+            return null;
+        }
+        seenEmails.add(email);
+        seenUserNames.add(userName);
+        return new PendingUser(rowNumber, row, email, userName);
+    }
+
+    private void processChunk(List<PendingUser> chunk, ImportReport report) {
+        List<PendingUser> fresh = dropExistingAccounts(chunk, report);
+        if (fresh.isEmpty()) {
+            return;
+        }
+
+        List<String> hashes = passwordHashingService.encodeAll(
+                fresh.stream().map(pending -> pending.row.getPassword()).toList());
+        for (int i = 0; i < fresh.size(); i++) {
+            fresh.get(i).passwordHash = hashes.get(i);
+        }
+
+        try {
+            insertInTransaction(fresh);
+            report.imported += fresh.size();
+        } catch (DataAccessException e) {
+            if (fresh.size() == 1) {
+                report.fail(fresh.get(0).rowNumber, fresh.get(0).row.getEmail(), describe(e));
+                return;
+            }
+            // Isolate the offending rows; everything else still goes in
+            for (PendingUser pending : fresh) {
+                try {
+                    insertInTransaction(List.of(pending));
+                    report.imported++;
+                } catch (DataAccessException rowError) {
+                    report.fail(pending.rowNumber, pending.row.getEmail(), describe(rowError));
+                }
+            }
+        }
+    }
+
+    // One query for the whole chunk against the unique normalized columns
+    private List<PendingUser> dropExistingAccounts(List<PendingUser> chunk, ImportReport report) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("emails", chunk.stream().map(pending -> pending.normalizedEmail).toList())
+                .addValue("userNames", chunk.stream().map(pending -> pending.normalizedUserName).toList());
+        Set<String> takenEmails = new HashSet<>();
+        Set<String> takenUserNames = new HashSet<>();
+        namedJdbcTemplate.query(
+                "SELECT normalized_email, normalized_user_name FROM user_auth " +
+                "WHERE normalized_email IN (:emails) OR normalized_user_name IN (:userNames)",
+                params,
+                rs -> {
+                    takenEmails.add(rs.getString(1));
+                    takenUserNames.add(rs.getString(2));
+                });
+
+        List<PendingUser> fresh = new ArrayList<>(chunk.size());
+        for (PendingUser pending : chunk) {
+            if (takenEmails.contains(pending.normalizedEmail)) {
+                report.fail(pending.rowNumber, pending.row.getEmail(), "Email already exists.");
+            } else if (takenUserNames.contains(pending.normalizedUserName)) {
+                report.fail(pending.rowNumber, pending.row.getEmail(), "Username already exists.");
+            } else {
+                fresh.add(pending);
+            }
+        }
+        return fresh;
+    }
+
+    private void insertInTransaction(List<PendingUser> users) {
+        transactionTemplate.executeWithoutResult(status -> insertBatch(users));
+    }
+
+    private void insertBatch(List<PendingUser> users) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, users, users.size(), (ps, pending) -> {
+            ps.setString(1, pending.row.getUserName().trim());
+            ps.setString(2, pending.passwordHash);
+            ps.setString(3, pending.row.getEmail().trim());
+            ps.setString(4, pending.row.getRole());
+            ps.setTimestamp(5, now);
+            ps.setString(6, pending.normalizedEmail);
+            ps.setString(7, pending.normalizedUserName);
+        });
+
+        // Batched inserts do not hand back IDENTITY keys, so read them back in one query
+        Map<String, Long> userIds = lookupIds(
+                "SELECT normalized_user_name, user_id FROM user_auth WHERE normalized_user_name IN (:keys)",
+                users.stream().map(pending -> pending.normalizedUserName).toList());
+        users.forEach(pending -> pending.userId = userIds.get(pending.normalizedUserName));
+
+        List<PendingUser> customers = users.stream().filter(pending -> CUSTOMER_ROLE.equals(pending.row.getRole())).toList();
+        List<PendingUser> providers = users.stream().filter(pending -> PROVIDER_ROLE.equals(pending.row.getRole())).toList();
+
+        if (!customers.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_CUSTOMER_SQL, customers, customers.size(), (ps, pending) -> {
+                ps.setLong(1, pending.userId);
+                ps.setString(2, pending.row.getFirstName());
+                ps.setString(3, pending.row.getLastName());
+                ps.setString(4, pending.row.getPhoneNumber());
+            });
+        }
+        if (!providers.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PROVIDER_SQL, providers, providers.size(), (ps, pending) -> {
+                ps.setLong(1, pending.userId);
+                ps.setString(2, pending.row.getFirstName());
+                ps.setString(3, pending.row.getLastName());
+                ps.setString(4, pending.row.getPhoneNumber());
+                ps.setString(5, pending.row.getBusinessName());
+                ps.setInt(6, pending.row.getYearsOfExperience() != null ? pending.row.getYearsOfExperience() : 0);
+                ps.setBoolean(7, false);
+                ps.setDouble(8, 0.0);
+                ps.setLong(9, 0L);
+                ps.setInt(10, 0);
+            });
+        }
+
+        insertAddresses(customers, providers);
+    }
+
+    private void insertAddresses(List<PendingUser> customers, List<PendingUser> providers) {
+        List<PendingUser> customerAddresses = customers.stream().filter(pending -> pending.row.hasAddress()).toList();
+        List<PendingUser> providerAddresses = providers.stream().filter(pending -> pending.row.hasAddress()).toList();
+        if (customerAddresses.isEmpty() && providerAddresses.isEmpty()) {
+            return;
+        }
+
+        Map<Long, Long> customerIds = customerAddresses.isEmpty() ? Map.of() : lookupProfileIds(
+                "SELECT user_id, customer_id FROM customer WHERE user_id IN (:keys)", customerAddresses);
+        Map<Long, Long> providerIds = providerAddresses.isEmpty() ? Map.of() : lookupProfileIds(
+                "SELECT user_id, provider_id FROM service_provider WHERE user_id IN (:keys)", providerAddresses);
+
+        List<PendingUser> withAddress = new ArrayList<>(customerAddresses);
+        withAddress.addAll(providerAddresses);
+        jdbcTemplate.batchUpdate(INSERT_ADDRESS_SQL, withAddress, withAddress.size(), (ps, pending) -> {
+            UserImportRow row = pending.row;
+            ps.setString(1, row.getStreetName());
+            ps.setString(2, row.getBarangay());
+            ps.setString(3, row.getCity());
+            ps.setString(4, row.getProvince());
+            ps.setString(5, row.getZipCode());
+            ps.setBoolean(6, true);
+            Long customerId = customerIds.get(pending.userId);
+            Long providerId = providerIds.get(pending.userId);
+            if (customerId != null) {
+                ps.setLong(7, customerId);
+            } else {
+                ps.setNull(7, Types.BIGINT);
+            }
+            if (providerId != null) {
+                ps.setLong(8, providerId);
+            } else {
+                ps.setNull(8, Types.BIGINT);
+            }
+        });
+    }
+
+    private Map<String, Long> lookupIds(String sql, List<String> keys) {
+        Map<String, Long> ids = new HashMap<>();
+        namedJdbcTemplate.query(sql, new MapSqlParameterSource("keys", keys),
+                rs -> {
+                    ids.put(rs.getString(1), rs.getLong(2));
+                });
+        return ids;
+    }
+
+    // user_id -> profile id for the given users
+    private Map<Long, Long> lookupProfileIds(String sql, List<PendingUser> users) {
+        Map<Long, Long> ids = new HashMap<>();
+        namedJdbcTemplate.query(sql, new MapSqlParameterSource("keys", users.stream().map(pending -> pending.userId).toList()),
+                rs -> {
+                    ids.put(rs.getLong(1), rs.getLong(2));
+                });
+        return ids;
+    }
+
+    private String describe(DataAccessException e) {
+        if (e instanceof DuplicateKeyException) {
+            return "Email or username already exists.";
+        }
+        return "Insert failed: " + e.getMostSpecificCause().getMessage();
+    }
+
+    private static class PendingUser {
+        private final int rowNumber;
+        private final UserImportRow row;
+        private final String normalizedEmail;
+        private final String normalizedUserName;
+        private String passwordHash;
+        private Long userId;
+
+        private PendingUser(int rowNumber, UserImportRow row, String normalizedEmail, String normalizedUserName) {
+            this.rowNumber = rowNumber;
+            this.row = row;
+            this.normalizedEmail = normalizedEmail;
+            this.normalizedUserName = normalizedUserName;
+        }
+    }
+
+    private class ImportReport {
+        private final long startedAt = System.nanoTime();
+        private final List<Map<String, Object>> errors = new ArrayList<>();
+        private int total;
+        private int imported;
+        private int failed;
+        private String abortedAt;
+
+        private void fail(int rowNumber, String email, String message) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("row", rowNumber);
+                error.put("email", email);
+                error.put("error", message);
+                errors.add(error);
+            }
+        }
+
+        private Map<String, Object> toMap() {
+            long elapsedMs = Math.max(1, (System.nanoTime() - startedAt) / 1_000_000);
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("total", total);
+            result.put("imported", imported);
+            result.put("failed", failed);
+            result.put("elapsedMs", elapsedMs);
+            result.put("rowsPerSecond", Math.round(total * 1000.0 / elapsedMs * 10) / 10.0);
+            result.put("errors", errors);
+            result.put("errorsTruncated", failed > errors.size());
+            if (abortedAt != null) {
+                result.put("aborted", abortedAt);
+            }
+            return result;
+        }
+    }
+
+    // Supplies raw rows (maps or JSON nodes) one at a time; null when the input is exhausted
+    private interface RowSource {
+        Object next() throws IOException;
+    }
+
+    private static class JsonRowSource implements RowSource {
+        private final JsonParser parser;
+
+        private JsonRowSource(InputStream input) throws IOException {
+            parser = ROW_MAPPER.getFactory().createParser(input);
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Expected a JSON array of users");
+            }
+        }
+
+        @Override
+        public Object next() throws IOException {
+            JsonToken token = parser.nextToken();
+            if (token == null || token == JsonToken.END_ARRAY) {
+                return null;
+            }
+            return ROW_MAPPER.readTree(parser);
+        }
+    }
+
+    /**
+     * Minimal RFC 4180 reader: the first record is the header, fields may be quoted,
+     * and quoted fields may contain commas, doubled quotes and line breaks.
+     */
+    private static class CsvRowSource implements RowSource {
+        private final BufferedReader reader;
+        private final List<String> header;
+
+        private CsvRowSource(InputStream input) throws IOException {
+            reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+            List<String> headerRecord = readRecord();
+            if (headerRecord == null) {
+                throw new IllegalArgumentException("CSV input is empty");
+            }
+            header = headerRecord.stream()
+                    .map(name -> name.replace("\uFEFF", "").trim())
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public Object next() throws IOException {
+            List<String> record;
+            do {
+                record = readRecord();
+            } while (record != null && record.size() == 1 && record.get(0).isEmpty());
+            if (record == null) {
+                return null;
+            }
+
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < header.size() && i < record.size(); i++) {
+                String value = record.get(i).trim();
+                row.put(header.get(i), value.isEmpty() ? null : value);
+            }
+            return row;
+        }
+
+        private List<String> readRecord() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (c != -1) {
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        int next = reader.read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            reader.reset();
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = reader.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
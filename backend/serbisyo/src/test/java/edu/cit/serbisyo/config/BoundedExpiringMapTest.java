@@ -0,0 +1,69 @@
+package edu.cit.serbisyo.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BoundedExpiringMapTest {
+
+	private final AtomicLong clock = new AtomicLong(1_000);
+	private final BoundedExpiringMap<String, Long> map =
+			new BoundedExpiringMap<>(() -> 10, clock::get, (key, expiresAt) -> expiresAt);
+
+	@Test
+	void expiredEntryIsGoneOnRead() {
+		map.put("a", 1_100L);
+
+		clock.set(1_100);
+
+		assertThat(map.get("a")).isNull();
+		assertThat(map.size()).isZero();
+		assertThat(map.getExpirations()).isEqualTo(1);
+	}
+
+	@Test
+	void fullMapDropsExpiredThenClosestToExpiryDownToNinetyPercent() {
+		map.put("expired", 1_500L);
+		for (int i = 0; i < 9; i++) {
+			map.put("live" + i, 3_000L + i);
+		}
+		clock.set(2_000);
+
+		map.put("newcomer", 5_000L);
+
+		assertThat(map.size()).isEqualTo(10);
+		assertThat(map.getEvictions()).isEqualTo(1);
+		assertThat(map.get("expired")).isNull();
+		assertThat(map.get("live0")).isNotNull();
+
+		map.put("another", 5_000L);
+
+		assertThat(map.get("live0")).isNull();
+		assertThat(map.get("live1")).isNotNull();
+		assertThat(map.getEvictions()).isEqualTo(2);
+	}
+
+	@Test
+	void replacingAnEntryOnAFullMapEvictsNothing() {
+		for (int i = 0; i < 10; i++) {
+			map.put("key" + i, 3_000L);
+		}
+
+		map.put("key0", 4_000L);
+
+		assertThat(map.size()).isEqualTo(10);
+		assertThat(map.getEvictions()).isZero();
+	}
+
+	@Test
+	void purgeDropsOnlyExpiredEntries() {
+		map.put("a", 1_500L);
+		map.put("b", 2_500L);
+		clock.set(2_000);
+
+		assertThat(map.purgeExpired()).isEqualTo(1);
+		assertThat(map.get("b")).isNotNull();
+	}
+}
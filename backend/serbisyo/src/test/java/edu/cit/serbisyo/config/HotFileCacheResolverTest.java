@@ -0,0 +1,72 @@
+package edu.cit.serbisyo.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HotFileCacheResolverTest {
+
+	private static final String PATH = "ab/cd/" + "ab".repeat(32) + ".png";
+
+	@TempDir
+	Path uploads;
+
+	private HotFileCacheResolver resolver;
+	private ResourceResolverChain chain;
+	private MockHttpServletRequest request;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		resolver = new HotFileCacheResolver();
+		ReflectionTestUtils.setField(resolver, "maxBytes", 1024L);
+		ReflectionTestUtils.setField(resolver, "maxFileSize", 256L);
+		chain = mock(ResourceResolverChain.class);
+		request = new MockHttpServletRequest();
+		Path file = Files.write(uploads.resolve("stored.png"), new byte[100]);
+		when(chain.resolveResource(any(), eq(PATH), any())).thenReturn(new FileSystemResource(file));
+	}
+
+	@Test
+	void evictedFileIsReadFromDiskAgain() {
+		resolve();
+		resolve();
+		verify(chain, times(1)).resolveResource(any(), eq(PATH), any());
+
+		resolver.evict(PATH);
+
+		assertThat(resolver.getStats()).containsEntry("entries", 0).containsEntry("cachedBytes", 0L);
+		resolve();
+		verify(chain, times(2)).resolveResource(any(), eq(PATH), any());
+	}
+
+	@Test
+	void evictingAnUncachedPathChangesNothing() {
+		resolve();
+
+		resolver.evict("ef/01/other.png");
+
+		assertThat(resolver.getStats()).containsEntry("entries", 1).containsEntry("cachedBytes", 100L);
+	}
+
+	private Resource resolve() {
+		return resolver.resolveResource(request, PATH, List.of(), chain);
+	}
+}
@@ -0,0 +1,78 @@
+package edu.cit.serbisyo.config;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtKeyProviderTest {
+
+	@TempDir
+	Path keysDir;
+
+	private KeyPair keyPair;
+
+	@BeforeEach
+	void setUp() throws NoSuchAlgorithmException {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		keyPair = generator.generateKeyPair();
+	}
+
+	@Test
+	void signsWithTheConfiguredKidAndVerifiesWithItsPublicKey() throws IOException {
+		writePem("k1.pub.pem", "PUBLIC KEY", keyPair.getPublic().getEncoded());
+		writePem("k1.key.pem", "PRIVATE KEY", keyPair.getPrivate().getEncoded());
+		JwtKeyProvider provider = provider("k1");
+
+		provider.init();
+		String token = Jwts.builder().setHeaderParam("kid", "k1").setSubject("maria")
+				.signWith(provider.getSigningKey(), provider.getAlgorithm()).compact();
+
+		assertThat(Jwts.parserBuilder().setSigningKeyResolver(provider).build()
+				.parseClaimsJws(token).getBody().getSubject()).isEqualTo("maria");
+	}
+
+	@Test
+	void startupFailsWhenTheSigningKidHasNoPrivateKey() throws IOException {
+		writePem("k1.pub.pem", "PUBLIC KEY", keyPair.getPublic().getEncoded());
+		JwtKeyProvider provider = provider("k1");
+
+		assertThatThrownBy(provider::init).isInstanceOf(IllegalStateException.class).hasMessageContaining("private key");
+	}
+
+	@Test
+	void startupFailsWhenTheSigningKidHasNoPublicKey() throws IOException {
+		writePem("old.pub.pem", "PUBLIC KEY", keyPair.getPublic().getEncoded());
+		writePem("k2.key.pem", "PRIVATE KEY", keyPair.getPrivate().getEncoded());
+		JwtKeyProvider provider = provider("k2");
+
+		assertThatThrownBy(provider::init).isInstanceOf(IllegalStateException.class).hasMessageContaining("k2.pub.pem");
+	}
+
+	private JwtKeyProvider provider(String signingKeyId) {
+		JwtKeyProvider provider = new JwtKeyProvider();
+		ReflectionTestUtils.setField(provider, "algorithmName", "RS256");
+		ReflectionTestUtils.setField(provider, "secret", "");
+		ReflectionTestUtils.setField(provider, "keysDir", keysDir.toString());
+		ReflectionTestUtils.setField(provider, "signingKeyId", signingKeyId);
+		return provider;
+	}
+
+	private void writePem(String fileName, String type, byte[] der) throws IOException {
+		String body = Base64.getMimeEncoder().encodeToString(der);
+		Files.writeString(keysDir.resolve(fileName), "-----BEGIN " + type + "-----\n" + body + "\n-----END " + type + "-----\n");
+	}
+}
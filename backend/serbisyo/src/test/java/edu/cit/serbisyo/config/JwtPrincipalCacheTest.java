@@ -0,0 +1,34 @@
+package edu.cit.serbisyo.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class JwtPrincipalCacheTest {
+
+	private JwtPrincipalCache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = new JwtPrincipalCache();
+		ReflectionTestUtils.setField(cache, "ttlSeconds", 300L);
+		ReflectionTestUtils.setField(cache, "maxSize", 10);
+	}
+
+	@Test
+	void fullCacheEvictsOldestEntriesInsteadOfClearing() throws InterruptedException {
+		for (int i = 0; i < 10; i++) {
+			cache.markVerified("user" + i);
+			Thread.sleep(2);
+		}
+
+		cache.markVerified("newcomer");
+
+		assertThat(cache.isVerified("newcomer")).isTrue();
+		assertThat(cache.isVerified("user9")).isTrue();
+		assertThat(cache.isVerified("user0")).isFalse();
+		assertThat(cache.isVerified("user5")).isTrue();
+	}
+}
@@ -0,0 +1,91 @@
+package edu.cit.serbisyo.config;
+
+import edu.cit.serbisyo.repository.RevokedTokenRepository;
+import edu.cit.serbisyo.repository.UserTokenCutoffRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class JwtUtilTest {
+
+	private JwtUtil jwtUtil;
+	private RevokedTokenRepository revokedTokenRepository;
+	private UserTokenCutoffRepository userTokenCutoffRepository;
+
+	@BeforeEach
+	void setUp() {
+		JwtKeyProvider keyProvider = new JwtKeyProvider();
+		ReflectionTestUtils.setField(keyProvider, "algorithmName", "HS256");
+		ReflectionTestUtils.setField(keyProvider, "secret", Base64.getEncoder().encodeToString(new byte[32]));
+		ReflectionTestUtils.setField(keyProvider, "keysDir", "");
+		ReflectionTestUtils.setField(keyProvider, "signingKeyId", "");
+		keyProvider.init();
+
+		revokedTokenRepository = mock(RevokedTokenRepository.class);
+		userTokenCutoffRepository = mock(UserTokenCutoffRepository.class);
+		TokenRevocationList revocationList = new TokenRevocationList();
+		ReflectionTestUtils.setField(revocationList, "maxTokenLifetimeMs", 86_400_000L);
+		ReflectionTestUtils.setField(revocationList, "revokedTokenRepository", revokedTokenRepository);
+		ReflectionTestUtils.setField(revocationList, "userTokenCutoffRepository", userTokenCutoffRepository);
+
+		VerifiedTokenCache tokenCache = new VerifiedTokenCache();
+		ReflectionTestUtils.setField(tokenCache, "maxSize", 100);
+
+		jwtUtil = new JwtUtil();
+		ReflectionTestUtils.setField(jwtUtil, "accessTokenTtlMs", 60_000L);
+		ReflectionTestUtils.setField(jwtUtil, "keyProvider", keyProvider);
+		ReflectionTestUtils.setField(jwtUtil, "verifiedTokenCache", tokenCache);
+		ReflectionTestUtils.setField(jwtUtil, "revocationList", revocationList);
+		jwtUtil.init();
+	}
+
+	@Test
+	void credentialChangeRevokesTokensIssuedInTheSameSecond() throws InterruptedException {
+		String before = jwtUtil.generateToken("maria", "maria@example.com", "Customer");
+		assertThat(jwtUtil.verify(before).getSubject()).isEqualTo("maria");
+
+		jwtUtil.revokeAllForUser("maria");
+		Thread.sleep(2);
+		String after = jwtUtil.generateToken("maria", "maria@example.com", "Customer");
+
+		assertThatThrownBy(() -> jwtUtil.verify(before)).isInstanceOf(JwtException.class);
+		Claims claims = jwtUtil.verify(after);
+		assertThat(claims.getSubject()).isEqualTo("maria");
+		verify(userTokenCutoffRepository).upsertCutoff(eq("maria"), anyLong(), any(LocalDateTime.class));
+	}
+
+	@Test
+	void logoutRevokesCachedTokenAndPersistsIt() {
+		String token = jwtUtil.generateToken("juan", "juan@example.com", "Service Provider");
+		jwtUtil.verify(token);
+
+		jwtUtil.revoke(token);
+
+		assertThatThrownBy(() -> jwtUtil.verify(token)).isInstanceOf(JwtException.class);
+		verify(revokedTokenRepository).insertIfAbsent(eq(JwtUtil.hashToken(token)), any(LocalDateTime.class), any(LocalDateTime.class));
+	}
+
+	@Test
+	void hashIsStableAcrossThreads() throws InterruptedException {
+		String expected = JwtUtil.hashToken("abc");
+		String[] fromOtherThread = new String[1];
+		Thread thread = new Thread(() -> fromOtherThread[0] = JwtUtil.hashToken("abc"));
+		thread.start();
+		thread.join();
+
+		assertThat(fromOtherThread[0]).isEqualTo(expected).isEqualTo("ungWv48Bz+pBQUDeXa4iI7ADYaOWF3qctBD/YfIAFa0=");
+	}
+}
@@ -0,0 +1,105 @@
+package edu.cit.serbisyo.config;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+	@AfterEach
+	void clearContext() {
+		SecurityContextHolder.clearContext();
+	}
+
+	@Test
+	void exhaustedBucketIsRejectedWithRetryAfter() throws Exception {
+		RateLimitFilter filter = filter("/api/**=2:60", 100);
+
+		assertThat(send(filter, "10.0.0.1").getStatus()).isEqualTo(200);
+		assertThat(send(filter, "10.0.0.1").getStatus()).isEqualTo(200);
+		MockHttpServletResponse rejected = send(filter, "10.0.0.1");
+
+		assertThat(rejected.getStatus()).isEqualTo(429);
+		assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+		assertThat(send(filter, "10.0.0.2").getStatus()).isEqualTo(200);
+	}
+
+	@Test
+	void ruleThatNeverRefillsHasABoundedRetryAfter() throws Exception {
+		RateLimitFilter filter = filter("/api/**=1:0", 100);
+
+		send(filter, "10.0.0.1");
+		MockHttpServletResponse rejected = send(filter, "10.0.0.1");
+
+		assertThat(rejected.getStatus()).isEqualTo(429);
+		assertThat(rejected.getHeader("Retry-After")).isEqualTo("3600");
+	}
+
+	@Test
+	void fullMapEvictsTheFullestBucketsAndKeepsThrottledClients() throws Exception {
+		RateLimitFilter filter = filter("/api/**=5:0", 10);
+		for (int i = 0; i < 5; i++) {
+			for (int request = 0; request < 5; request++) {
+				send(filter, "10.0.0." + i);
+			}
+		}
+		for (int i = 5; i < 10; i++) {
+			send(filter, "10.0.0." + i);
+		}
+
+		send(filter, "10.0.1.1");
+
+		BoundedExpiringMap<String, ?> buckets = bucketsOf(filter);
+		assertThat(buckets.size()).isEqualTo(10);
+		assertThat(filter.getStats()).containsEntry("evictedBuckets", 1L);
+		for (int i = 0; i < 5; i++) {
+			assertThat(buckets.get("/api/**|ip:10.0.0." + i)).isNotNull();
+			assertThat(send(filter, "10.0.0." + i).getStatus()).isEqualTo(429);
+		}
+	}
+
+	@Test
+	void newClientOnAFullMapDoesNotScanForIdleBuckets() throws Exception {
+		// Refills within microseconds, so every bucket is idle by the time the map is full
+		RateLimitFilter filter = filter("/api/**=1:60000000", 10);
+		for (int i = 0; i < 10; i++) {
+			send(filter, "10.0.0." + i);
+		}
+
+		send(filter, "10.0.1.1");
+
+		assertThat(filter.getStats()).containsEntry("sweptBuckets", 0L).containsEntry("evictedBuckets", 1L);
+		filter.sweepIdleBuckets();
+		assertThat(bucketsOf(filter).size()).isZero();
+	}
+
+	@SuppressWarnings("unchecked")
+	private static BoundedExpiringMap<String, ?> bucketsOf(RateLimitFilter filter) {
+		return (BoundedExpiringMap<String, ?>) ReflectionTestUtils.getField(filter, "buckets");
+	}
+
+	private static RateLimitFilter filter(String rules, int maxBuckets) {
+		RateLimitFilter filter = new RateLimitFilter();
+		ReflectionTestUtils.setField(filter, "enabled", true);
+		ReflectionTestUtils.setField(filter, "rulesSpec", rules);
+		ReflectionTestUtils.setField(filter, "maxBuckets", maxBuckets);
+		filter.init();
+		return filter;
+	}
+
+	private static MockHttpServletResponse send(RateLimitFilter filter, String ip) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/services");
+		request.setRemoteAddr(ip);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		FilterChain chain = new MockFilterChain();
+		filter.doFilter(request, response, chain);
+		return response;
+	}
+}
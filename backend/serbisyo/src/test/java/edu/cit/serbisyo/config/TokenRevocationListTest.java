@@ -0,0 +1,70 @@
+package edu.cit.serbisyo.config;
+
+import edu.cit.serbisyo.entity.RevokedTokenEntity;
+import edu.cit.serbisyo.entity.UserTokenCutoffEntity;
+import edu.cit.serbisyo.repository.RevokedTokenRepository;
+import edu.cit.serbisyo.repository.UserTokenCutoffRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationListTest {
+
+	@Mock
+	private RevokedTokenRepository revokedTokenRepository;
+
+	@Mock
+	private UserTokenCutoffRepository userTokenCutoffRepository;
+
+	@InjectMocks
+	private TokenRevocationList revocationList;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(revocationList, "maxTokenLifetimeMs", 86_400_000L);
+		ReflectionTestUtils.setField(revocationList, "syncOverlapMs", 60_000L);
+	}
+
+	@Test
+	void syncLoadsRevocationsWrittenByOtherNodes() {
+		RevokedTokenEntity token = new RevokedTokenEntity();
+		ReflectionTestUtils.setField(token, "tokenHash", "hash-1");
+		ReflectionTestUtils.setField(token, "expiresAt", LocalDateTime.now().plusHours(1));
+		UserTokenCutoffEntity cutoff = new UserTokenCutoffEntity();
+		ReflectionTestUtils.setField(cutoff, "userName", "maria");
+		ReflectionTestUtils.setField(cutoff, "cutoffMillis", 5_000L);
+		when(revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(any(), any())).thenReturn(List.of(token));
+		when(userTokenCutoffRepository.findByUpdatedAtAfter(any())).thenReturn(List.of(cutoff));
+
+		revocationList.sync();
+
+		assertThat(revocationList.isRevoked("hash-1")).isTrue();
+		assertThat(revocationList.isRevokedForUser("maria", 5_000L)).isTrue();
+		assertThat(revocationList.isRevokedForUser("maria", 5_001L)).isFalse();
+		assertThat(revocationList.isRevokedForUser("juan", 1L)).isFalse();
+	}
+
+	@Test
+	void failedSyncKeepsWhatIsAlreadyKnown() {
+		revocationList.revokeAllForUser("maria");
+		when(revokedTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(any(), any()))
+				.thenThrow(new IllegalStateException("database down"));
+
+		revocationList.sync();
+
+		assertThat(revocationList.isRevokedForUser("maria", 0L)).isTrue();
+		assertThat(revocationList.getStats()).containsEntry("lastSync", "never");
+	}
+}
@@ -0,0 +1,35 @@
+package edu.cit.serbisyo.config;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VerifiedTokenCacheTest {
+
+	@Test
+	void fullCacheEvictsTokensClosestToExpiry() {
+		VerifiedTokenCache cache = new VerifiedTokenCache();
+		ReflectionTestUtils.setField(cache, "maxSize", 10);
+		long now = System.currentTimeMillis();
+		for (int i = 0; i < 10; i++) {
+			cache.put("token" + i, claimsExpiringAt(now + 60_000 + i * 1_000));
+		}
+
+		cache.put("newcomer", claimsExpiringAt(now + 120_000));
+
+		assertThat(cache.get("newcomer")).isNotNull();
+		assertThat(cache.get("token9")).isNotNull();
+		assertThat(cache.get("token0")).isNull();
+		assertThat(cache.get("token1")).isNotNull();
+		assertThat(cache.getStats()).containsEntry("size", 10).containsEntry("evictions", 1L);
+	}
+
+	private static Claims claimsExpiringAt(long millis) {
+		return Jwts.claims().setExpiration(new Date(millis));
+	}
+}
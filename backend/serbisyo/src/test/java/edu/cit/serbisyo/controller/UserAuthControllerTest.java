@@ -0,0 +1,87 @@
+package edu.cit.serbisyo.controller;
+
+import edu.cit.serbisyo.entity.UserAuthEntity;
+import edu.cit.serbisyo.service.UserAuthService;
+import edu.cit.serbisyo.service.UserImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserAuthControllerTest {
+
+	private UserAuthService userAuthService;
+	private UserAuthController controller;
+
+	@BeforeEach
+	void setUp() {
+		userAuthService = mock(UserAuthService.class);
+		controller = new UserAuthController(userAuthService, mock(UserImportService.class));
+	}
+
+	@Test
+	void successfulLoginReturnsTokens() {
+		when(userAuthService.loginUserAsync(any())).thenReturn(CompletableFuture.completedFuture(Map.of("token", "t")));
+
+		assertThat(login().getStatusCode()).isEqualTo(HttpStatus.OK);
+	}
+
+	@Test
+	void failuresKeepTheSynchronousStatusCodes() {
+		assertThat(loginFailingWith(new IllegalArgumentException("Invalid username or password.")).getStatusCode())
+				.isEqualTo(HttpStatus.BAD_REQUEST);
+		assertThat(loginFailingWith(new NoSuchElementException("gone")).getStatusCode())
+				.isEqualTo(HttpStatus.NOT_FOUND);
+		assertThat(loginFailingWith(new RejectedExecutionException()).getStatusCode())
+				.isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+	}
+
+	@Test
+	void saturatedPoolReturns429() {
+		when(userAuthService.loginUserAsync(any()))
+				.thenThrow(new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "busy"));
+
+		assertThat(login().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+	}
+
+	@Test
+	void unexpectedFailuresAreLeftToTheDefaultErrorHandling() {
+		when(userAuthService.loginUserAsync(any()))
+				.thenReturn(CompletableFuture.failedFuture(new IllegalStateException("database down")));
+
+		assertThatThrownBy(this::login).isInstanceOf(CompletionException.class)
+				.hasCauseInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void concurrentDuplicateRegistrationReturns409() {
+		when(userAuthService.registerUser(any(), any(), any())).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+		ResponseEntity<Object> response = controller.registerUser(Map.of("userAuth", Map.of("userName", "Maria")));
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+	}
+
+	private ResponseEntity<Object> loginFailingWith(RuntimeException failure) {
+		when(userAuthService.loginUserAsync(any())).thenReturn(CompletableFuture.failedFuture(failure));
+		return login();
+	}
+
+	private ResponseEntity<Object> login() {
+		return controller.loginUser(new UserAuthEntity()).join();
+	}
+}
@@ -0,0 +1,41 @@
+package edu.cit.serbisyo.dto;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import edu.cit.serbisyo.entity.NotificationEntity;
+import edu.cit.serbisyo.entity.UserAuthEntity;
+import edu.cit.serbisyo.service.NotificationEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NotificationPushTest {
+
+	private final ObjectMapper mapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+	@Test
+	void directAndPipelineNotificationsArePushedInTheSameShape() {
+		UserAuthEntity user = new UserAuthEntity();
+		user.setUserId(4L);
+		NotificationEntity entity = new NotificationEntity();
+		entity.setUser(user);
+		entity.setType("booking");
+		entity.setMessage("booked");
+		entity.setCreatedAt(LocalDateTime.now());
+
+		Map<String, Object> direct = toMap(NotificationPush.from(entity));
+		Map<String, Object> pipeline = toMap(NotificationPush.from(new NotificationEvent(4L, "booking", "booked", null, null)));
+
+		assertThat(direct.keySet()).isEqualTo(pipeline.keySet());
+		assertThat(direct).containsEntry("userId", 4L).containsEntry("read", false);
+		assertThat(direct).doesNotContainKey("user");
+	}
+
+	private Map<String, Object> toMap(NotificationPush push) {
+		return mapper.convertValue(push, new TypeReference<Map<String, Object>>() {});
+	}
+}
@@ -0,0 +1,36 @@
+package edu.cit.serbisyo.dto;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServiceCatalogueEntryTest {
+
+	private static final String KEY = "ab".repeat(32);
+
+	@Test
+	void fullRowMapsToTheCatalogueCard() {
+		ServiceCatalogueEntry entry = new ServiceCatalogueEntry(1L, "Plumbing", "Pipes", 500, "2h", KEY, ".png",
+				3L, "Home", 7L, "Ana", "Cruz", "Ana's", true, 14L, 3);
+
+		assertThat(entry.getServiceImage()).isEqualTo("/uploads/ab/ab/" + KEY + ".png");
+		assertThat(entry.getServiceImageCard()).isEqualTo("/api/images/" + KEY + "?size=card");
+		assertThat(entry.getCategoryName()).isEqualTo("Home");
+		assertThat(entry.isProviderVerified()).isTrue();
+		assertThat(entry.getAverageRating()).isEqualTo(4.7);
+		assertThat(entry.getReviewCount()).isEqualTo(3);
+	}
+
+	@Test
+	void rowFromTheOuterJoinsMayLackCategoryProviderAndImage() {
+		ServiceCatalogueEntry entry = new ServiceCatalogueEntry(2L, "Cleaning", null, 300, null, null, null,
+				null, null, null, null, null, null, null, 0L, 0);
+
+		assertThat(entry.getCategoryId()).isNull();
+		assertThat(entry.getProviderId()).isNull();
+		assertThat(entry.isProviderVerified()).isFalse();
+		assertThat(entry.getServiceImage()).isNull();
+		assertThat(entry.getServiceImageCard()).isNull();
+		assertThat(entry.getAverageRating()).isZero();
+	}
+}
@@ -0,0 +1,85 @@
+package edu.cit.serbisyo.pagination;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KeysetPaginatorTest {
+
+	private static final List<Long> IDS = LongStream.rangeClosed(1, 25).boxed().toList();
+
+	private KeysetPaginator paginator;
+
+	// Page sizes the repository was asked for
+	private final List<Integer> requestedSizes = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		paginator = new KeysetPaginator();
+		ReflectionTestUtils.setField(paginator, "defaultPageSize", 10);
+		ReflectionTestUtils.setField(paginator, "maxPageSize", 20);
+	}
+
+	@Test
+	void cursorResumesAfterTheLastRowOfEachPage() {
+		CursorPage<Long> first = paginator.ascending(null, 10, ascending(), Function.identity());
+		CursorPage<Long> second = paginator.ascending(first.getNextCursor(), 10, ascending(), Function.identity());
+		CursorPage<Long> last = paginator.ascending(second.getNextCursor(), 10, ascending(), Function.identity());
+
+		assertThat(first.getItems()).containsExactlyElementsOf(IDS.subList(0, 10));
+		assertThat(second.getItems()).containsExactlyElementsOf(IDS.subList(10, 20));
+		assertThat(last.getItems()).containsExactlyElementsOf(IDS.subList(20, 25));
+		assertThat(last.isHasMore()).isFalse();
+		assertThat(last.getNextCursor()).isNull();
+
+		CursorPage<Long> newest = paginator.descending(null, 10, descending(), Function.identity());
+		CursorPage<Long> older = paginator.descending(newest.getNextCursor(), 10, descending(), Function.identity());
+		assertThat(older.getItems()).containsExactlyElementsOf(IDS.subList(5, 15).reversed());
+	}
+
+	@Test
+	void cursorFromTheOtherDirectionIsRejected() {
+		String ascendingCursor = paginator.ascending(null, 10, ascending(), Function.identity()).getNextCursor();
+
+		assertThatThrownBy(() -> paginator.descending(ascendingCursor, 10, descending(), Function.identity()))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid cursor");
+		assertThatThrownBy(() -> paginator.ascending("not a cursor", 10, ascending(), Function.identity()))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid cursor");
+	}
+
+	@Test
+	void limitIsClampedToTheConfiguredMaximum() {
+		assertThat(paginator.ascending(null, 500, ascending(), Function.identity()).getLimit()).isEqualTo(20);
+		assertThat(paginator.ascending(null, null, ascending(), Function.identity()).getLimit()).isEqualTo(10);
+		// One extra row is always fetched to detect a following page
+		assertThat(requestedSizes).containsExactly(21, 11);
+		assertThatThrownBy(() -> paginator.ascending(null, 0, ascending(), Function.identity()))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private BiFunction<Long, Pageable, List<Long>> ascending() {
+		return (afterId, pageable) -> {
+			requestedSizes.add(pageable.getPageSize());
+			return IDS.stream().filter(id -> id > afterId).limit(pageable.getPageSize()).toList();
+		};
+	}
+
+	private BiFunction<Long, Pageable, List<Long>> descending() {
+		return (beforeId, pageable) -> IDS.reversed().stream()
+				.filter(id -> id < beforeId)
+				.limit(pageable.getPageSize())
+				.toList();
+	}
+}
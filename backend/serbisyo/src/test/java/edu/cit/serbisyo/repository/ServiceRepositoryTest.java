@@ -0,0 +1,21 @@
+package edu.cit.serbisyo.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServiceRepositoryTest {
+
+	@Test
+	void catalogueKeepsServicesWithoutCategoryOrProvider() throws NoSuchMethodException {
+		Method method = ServiceRepository.class.getMethod("streamCatalogue", Long.class, Long.class);
+
+		String jpql = method.getAnnotation(Query.class).value();
+
+		assertThat(jpql).contains("LEFT JOIN s.category c", "LEFT JOIN s.provider p", "LEFT JOIN s.serviceImageBlob img")
+				.doesNotContain(" JOIN s.category c JOIN");
+	}
+}
@@ -0,0 +1,70 @@
+package edu.cit.serbisyo.repository;
+
+import edu.cit.serbisyo.entity.UserAuthEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserAuthRepositoryTest {
+
+	private UserAuthRepository repository;
+
+	@BeforeEach
+	void setUp() {
+		// The lookups under test are default methods; the derived queries are stubbed
+		repository = mock(UserAuthRepository.class, CALLS_REAL_METHODS);
+	}
+
+	@Test
+	void exactNormalizedMatchNeedsNoSecondQuery() {
+		UserAuthEntity bob = user(1L, "bob", "bob");
+		when(repository.findByNormalizedUserName("bob")).thenReturn(bob);
+
+		assertThat(repository.findByUserName("bob")).isSameAs(bob);
+		verify(repository, never()).findByUserNameAndNormalizedUserNameIsNull("bob");
+	}
+
+	@Test
+	void unnormalizedAccountIsNotResolvedToTheCollidingOne() {
+		UserAuthEntity bob = user(1L, "bob", "bob");
+		UserAuthEntity capitalBob = user(2L, "Bob", null);
+		when(repository.findByNormalizedUserName("bob")).thenReturn(bob);
+		// A case-insensitive collation returns both spellings
+		when(repository.findByUserNameAndNormalizedUserNameIsNull("Bob")).thenReturn(List.of(capitalBob));
+		when(repository.findByUserNameAndNormalizedUserNameIsNull("BOB")).thenReturn(List.of(capitalBob));
+
+		assertThat(repository.findByUserName("Bob")).isSameAs(capitalBob);
+		// Other spellings still find the normalized account case-insensitively
+		assertThat(repository.findByUserName("BOB")).isSameAs(bob);
+	}
+
+	@Test
+	void unnormalizedEmailIsOnlyReachableByItsExactValue() {
+		UserAuthEntity first = user(1L, "ana", "ana");
+		first.setEmail("ana@example.com");
+		UserAuthEntity second = user(2L, "ana2", "ana2");
+		second.setEmail("Ana@Example.com");
+		when(repository.findByNormalizedEmail("ana@example.com")).thenReturn(first);
+		when(repository.findByEmailAndNormalizedEmailIsNull("Ana@Example.com")).thenReturn(List.of(second));
+
+		assertThat(repository.findByEmail("Ana@Example.com")).isSameAs(second);
+		assertThat(repository.findByEmail("ana@example.com")).isSameAs(first);
+	}
+
+	private static UserAuthEntity user(Long userId, String userName, String normalizedUserName) {
+		UserAuthEntity user = new UserAuthEntity();
+		user.setUserId(userId);
+		user.setUserName(userName);
+		ReflectionTestUtils.setField(user, "normalizedUserName", normalizedUserName);
+		return user;
+	}
+}
@@ -0,0 +1,25 @@
+package edu.cit.serbisyo.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+class RoleAuthoritiesTest {
+
+	@Test
+	void multiWordRolesBecomeUnderscoredAuthorities() {
+		assertThat(RoleAuthorities.authorityFor("Service Provider")).isEqualTo("ROLE_SERVICE_PROVIDER");
+		assertThat(RoleAuthorities.authorityFor("  service-provider ")).isEqualTo("ROLE_SERVICE_PROVIDER");
+		assertThat(RoleAuthorities.authorityFor("Admin")).isEqualTo(RoleAuthorities.ADMIN);
+	}
+
+	@Test
+	void blankRoleOnlyGrantsUser() {
+		assertThat(RoleAuthorities.authorityFor(null)).isNull();
+		assertThat(RoleAuthorities.authorityFor("  ")).isNull();
+		assertThat(RoleAuthorities.authoritiesFor(" ")).extracting(GrantedAuthority::getAuthority).containsExactly("USER");
+		assertThat(RoleAuthorities.authoritiesFor("Customer")).extracting(GrantedAuthority::getAuthority)
+				.containsExactly("USER", "ROLE_CUSTOMER");
+	}
+}
@@ -0,0 +1,209 @@
+package edu.cit.serbisyo.service;
+
+import edu.cit.serbisyo.config.HotFileCacheResolver;
+import edu.cit.serbisyo.entity.CompletedMigrationEntity;
+import edu.cit.serbisyo.entity.StoredBlobEntity;
+import edu.cit.serbisyo.repository.CompletedMigrationRepository;
+import edu.cit.serbisyo.repository.CustomerRepository;
+import edu.cit.serbisyo.repository.ServiceProviderRepository;
+import edu.cit.serbisyo.repository.ServiceRepository;
+import edu.cit.serbisyo.repository.StoredBlobRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BlobStoreServiceTest {
+
+	private static final String KEY = "ab".repeat(32);
+
+	@Mock
+	private FileStorageService fileStorageService;
+
+	@Mock
+	private StoredBlobRepository storedBlobRepository;
+
+	@Mock
+	private ServiceRepository serviceRepository;
+
+	@Mock
+	private CustomerRepository customerRepository;
+
+	@Mock
+	private ServiceProviderRepository serviceProviderRepository;
+
+	@Mock
+	private ImageVariantService imageVariantService;
+
+	@Mock
+	private CompletedMigrationRepository completedMigrationRepository;
+
+	@Mock
+	private HotFileCacheResolver hotFileCacheResolver;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@InjectMocks
+	private BlobStoreService service;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(service, "transactionTemplate", new TransactionTemplate(transactionManager));
+		ReflectionTestUtils.setField(service, "gcGraceHours", 24L);
+		ReflectionTestUtils.setField(service, "gcBatchSize", 500);
+		when(storedBlobRepository.summarize()).thenReturn(List.<Object[]>of(new Object[] {0L, 0L, 0L}));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void uploadClaimsTheRowBeforeTheFileIsWritten() throws IOException {
+		MockMultipartFile upload = new MockMultipartFile("file", "a.png", "image/png", new byte[] {1});
+		FileStorageService.StoredFile stored = new FileStorageService.StoredFile(KEY, ".png", 1);
+		when(fileStorageService.store(eq(upload), any())).thenAnswer(invocation -> {
+			// The claim runs inside store, before the file is moved into place
+			invocation.<Function<FileStorageService.StoredFile, String>>getArgument(1).apply(stored);
+			verify(storedBlobRepository).claim(eq(KEY), eq(".png"), eq(1L), any(LocalDateTime.class));
+			return stored;
+		});
+		when(storedBlobRepository.findById(KEY)).thenReturn(Optional.of(blob(0, null)));
+
+		service.store(upload);
+
+		verify(imageVariantService).generateAsync(any());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void reuploadUnderAnotherExtensionReusesTheRegisteredFile() throws IOException {
+		MockMultipartFile upload = new MockMultipartFile("file", "a.jpeg", "image/jpeg", new byte[] {1});
+		when(storedBlobRepository.findById(KEY)).thenReturn(Optional.of(blob(0, null)));
+		when(fileStorageService.store(eq(upload), any())).thenAnswer(invocation -> {
+			String extension = invocation.<Function<FileStorageService.StoredFile, String>>getArgument(1)
+					.apply(new FileStorageService.StoredFile(KEY, ".jpeg", 1));
+			assertThat(extension).isEqualTo(".png");
+			return new FileStorageService.StoredFile(KEY, extension, 1);
+		});
+
+		assertThat(service.store(upload).getRelativePath()).endsWith(KEY + ".png");
+	}
+
+	@Test
+	void collectorDeletesRowThenFilesForAnOrphan() throws IOException {
+		StoredBlobEntity orphan = blob(0, LocalDateTime.now().minusDays(2));
+		when(storedBlobRepository.findOrphans(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(orphan));
+		when(storedBlobRepository.lockById(KEY)).thenReturn(Optional.of(orphan));
+
+		Map<String, Object> result = service.collectGarbage();
+
+		assertThat(result.get("deletedBlobs")).isEqualTo(1);
+		InOrder order = inOrder(storedBlobRepository, fileStorageService, imageVariantService);
+		order.verify(storedBlobRepository).lockById(KEY);
+		order.verify(storedBlobRepository).deleteIfUnreferenced(KEY);
+		order.verify(fileStorageService).delete(orphan.getRelativePath());
+		order.verify(imageVariantService).deleteVariants(orphan);
+		verify(hotFileCacheResolver).evict(orphan.getRelativePath());
+		for (String variantPath : ImageVariantService.variantPaths(orphan)) {
+			verify(hotFileCacheResolver).evict(variantPath);
+		}
+	}
+
+	@Test
+	void collectorLeavesABlobClaimedSinceItWasListed() throws IOException {
+		StoredBlobEntity listed = blob(0, LocalDateTime.now().minusDays(2));
+		// A concurrent upload restarted the grace period after findOrphans ran
+		StoredBlobEntity claimed = blob(0, LocalDateTime.now());
+		when(storedBlobRepository.findOrphans(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(listed));
+		when(storedBlobRepository.lockById(KEY)).thenReturn(Optional.of(claimed));
+
+		Map<String, Object> result = service.collectGarbage();
+
+		assertThat(result.get("deletedBlobs")).isEqualTo(0);
+		verify(storedBlobRepository, never()).deleteIfUnreferenced(anyString());
+		verify(fileStorageService, never()).delete(anyString());
+		verify(hotFileCacheResolver, never()).evict(anyString());
+	}
+
+	@Test
+	void collectorLeavesABlobReferencedSinceItWasListed() throws IOException {
+		when(storedBlobRepository.findOrphans(any(LocalDateTime.class), any(Pageable.class)))
+				.thenReturn(List.of(blob(0, LocalDateTime.now().minusDays(2))));
+		when(storedBlobRepository.lockById(KEY)).thenReturn(Optional.of(blob(1, null)));
+
+		service.collectGarbage();
+
+		verify(storedBlobRepository, never()).deleteIfUnreferenced(anyString());
+		verify(fileStorageService, never()).delete(anyString());
+	}
+
+	@Test
+	void failedUnlinkIsReportedAndDoesNotStopTheRun() throws IOException {
+		StoredBlobEntity orphan = blob(0, LocalDateTime.now().minusDays(2));
+		when(storedBlobRepository.findOrphans(any(LocalDateTime.class), any(Pageable.class))).thenReturn(List.of(orphan));
+		when(storedBlobRepository.lockById(KEY)).thenReturn(Optional.of(orphan));
+		when(fileStorageService.delete(anyString())).thenThrow(new IOException("busy"));
+
+		Map<String, Object> result = service.collectGarbage();
+
+		assertThat(result.get("deletedBlobs")).isEqualTo(0);
+		assertThat(result.get("freedBytes")).isEqualTo(0L);
+	}
+
+	@Test
+	void finishedLegacyMigrationIsNotRepeated() {
+		when(completedMigrationRepository.existsById(BlobStoreService.LEGACY_IMAGE_MIGRATION)).thenReturn(true);
+
+		service.migrateLegacyImages();
+
+		verifyNoInteractions(serviceRepository, customerRepository, serviceProviderRepository, fileStorageService);
+	}
+
+	@Test
+	void legacyMigrationRecordsCompletion() {
+		service.migrateLegacyImages();
+
+		ArgumentCaptor<CompletedMigrationEntity> marker = ArgumentCaptor.forClass(CompletedMigrationEntity.class);
+		verify(completedMigrationRepository).save(marker.capture());
+		assertThat(marker.getValue().getName()).isEqualTo(BlobStoreService.LEGACY_IMAGE_MIGRATION);
+	}
+
+	private static StoredBlobEntity blob(int refCount, LocalDateTime unreferencedSince) {
+		StoredBlobEntity blob = new StoredBlobEntity();
+		ReflectionTestUtils.setField(blob, "blobKey", KEY);
+		ReflectionTestUtils.setField(blob, "extension", ".png");
+		ReflectionTestUtils.setField(blob, "size", 10L);
+		ReflectionTestUtils.setField(blob, "refCount", refCount);
+		ReflectionTestUtils.setField(blob, "unreferencedSince", unreferencedSince);
+		return blob;
+	}
+}
@@ -0,0 +1,108 @@
+package edu.cit.serbisyo.service;
+
+import edu.cit.serbisyo.entity.BookingEntity;
+import edu.cit.serbisyo.entity.ServiceEntity;
+import edu.cit.serbisyo.entity.ServiceProviderEntity;
+import edu.cit.serbisyo.repository.BookingRepository;
+import edu.cit.serbisyo.repository.ServiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BookingServiceTest {
+
+	private static final Long BOOKING_ID = 3L;
+	private static final Long PROVIDER_ID = 7L;
+	private static final LocalDate DATE = LocalDate.of(2026, 3, 2);
+	private static final LocalTime TIME = LocalTime.of(9, 0);
+
+	@Mock
+	private BookingRepository bookingRepository;
+
+	@Mock
+	private SlotReservationService slotReservationService;
+
+	@Mock
+	private ServiceRepository serviceRepository;
+
+	@InjectMocks
+	private BookingService bookingService;
+
+	private ServiceEntity service;
+
+	@BeforeEach
+	void setUp() {
+		ServiceProviderEntity provider = new ServiceProviderEntity();
+		provider.setProviderId(PROVIDER_ID);
+		service = new ServiceEntity();
+		service.setServiceId(11L);
+		service.setProvider(provider);
+		when(serviceRepository.findById(11L)).thenReturn(Optional.of(service));
+		when(bookingRepository.save(any(BookingEntity.class))).thenAnswer(invocation -> invocation.getArgument(0));
+	}
+
+	@Test
+	void reactivatingACancelledBookingReservesItsSlotAgain() {
+		when(bookingRepository.findById(BOOKING_ID)).thenReturn(Optional.of(booking("CANCELLED")));
+
+		bookingService.updateBooking(BOOKING_ID, booking("PENDING"));
+
+		verify(slotReservationService).reserve(PROVIDER_ID, DATE, TIME, BOOKING_ID);
+	}
+
+	@Test
+	void reactivatingThroughTheStatusEndpointReservesItsSlotAgain() {
+		when(bookingRepository.findById(BOOKING_ID)).thenReturn(Optional.of(booking("Declined")));
+
+		bookingService.updateBookingStatus(BOOKING_ID, "CONFIRMED");
+
+		verify(slotReservationService).reserve(PROVIDER_ID, DATE, TIME, BOOKING_ID);
+	}
+
+	@Test
+	void updateThatKeepsAnActiveSlotLeavesTheReservationAlone() {
+		when(bookingRepository.findById(BOOKING_ID)).thenReturn(Optional.of(booking("PENDING")));
+
+		bookingService.updateBooking(BOOKING_ID, booking("CONFIRMED"));
+
+		verify(slotReservationService, never()).release(anyLong());
+		verify(slotReservationService, never()).reserve(any(), any(), any(), any());
+	}
+
+	@Test
+	void cancellingReleasesWithoutReserving() {
+		when(bookingRepository.findById(BOOKING_ID)).thenReturn(Optional.of(booking("PENDING")));
+
+		bookingService.updateBookingStatus(BOOKING_ID, "CANCELLED");
+
+		verify(slotReservationService).release(BOOKING_ID);
+		verify(slotReservationService, never()).reserve(any(), any(), any(), any());
+	}
+
+	private BookingEntity booking(String status) {
+		BookingEntity booking = new BookingEntity();
+		booking.setBookingId(BOOKING_ID);
+		booking.setService(service);
+		booking.setBookingDate(DATE);
+		booking.setBookingTime(TIME);
+		booking.setStatus(status);
+		return booking;
+	}
+}
@@ -0,0 +1,112 @@
+package edu.cit.serbisyo.service;
+
+import edu.cit.serbisyo.entity.CompletedMigrationEntity;
+import edu.cit.serbisyo.repository.CompletedMigrationRepository;
+import edu.cit.serbisyo.repository.ConversationSummaryRepository;
+import edu.cit.serbisyo.repository.MessageRepository;
+import edu.cit.serbisyo.repository.UserAuthRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ConversationSummaryServiceTest {
+
+	@Mock
+	private ConversationSummaryRepository conversationSummaryRepository;
+
+	@Mock
+	private MessageRepository messageRepository;
+
+	@Mock
+	private UserAuthRepository userAuthRepository;
+
+	@Mock
+	private CompletedMigrationRepository completedMigrationRepository;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private ConversationSummaryService service;
+
+	@BeforeEach
+	void setUp() {
+		service = new ConversationSummaryService(conversationSummaryRepository, messageRepository,
+				userAuthRepository, completedMigrationRepository, new TransactionTemplate(transactionManager));
+	}
+
+	@Test
+	void finishedBackfillIsNotRepeated() {
+		when(completedMigrationRepository.existsById(ConversationSummaryService.BACKFILL_MIGRATION)).thenReturn(true);
+
+		service.backfillOnStartup();
+
+		verifyNoInteractions(messageRepository, conversationSummaryRepository);
+	}
+
+	@Test
+	void backfillUpsertsEveryPairAndRecordsCompletion() {
+		LocalDateTime earlier = LocalDateTime.of(2026, 1, 1, 9, 0);
+		when(messageRepository.streamSummaryColumns()).thenReturn(Stream.of(
+				new Object[] {1L, 10L, 20L, "hi", "SENT", earlier},
+				new Object[] {2L, 20L, 10L, "hello", "SENT", earlier.plusMinutes(1)},
+				new Object[] {3L, 10L, 20L, "bye", "READ", earlier.plusMinutes(2)}));
+
+		service.backfillOnStartup();
+
+		// 10's row: last message 3, one unread from 20; 20's row: last message 3, one unread (message 1)
+		verify(conversationSummaryRepository).upsertComputedSummary(10L, 20L, 3L, "bye", 10L, "READ",
+				earlier.plusMinutes(2), 1);
+		verify(conversationSummaryRepository).upsertComputedSummary(20L, 10L, 3L, "bye", 10L, "READ",
+				earlier.plusMinutes(2), 1);
+		ArgumentCaptor<CompletedMigrationEntity> marker = ArgumentCaptor.forClass(CompletedMigrationEntity.class);
+		verify(completedMigrationRepository).save(marker.capture());
+		assertThat(marker.getValue().getName()).isEqualTo(ConversationSummaryService.BACKFILL_MIGRATION);
+	}
+
+	@Test
+	void failedBackfillIsNotMarkedComplete() {
+		when(messageRepository.streamSummaryColumns()).thenReturn(Stream.<Object[]>of(
+				new Object[] {1L, 10L, 20L, "hi", "SENT", LocalDateTime.now()}));
+		when(conversationSummaryRepository.upsertComputedSummary(anyLong(), anyLong(), anyLong(), anyString(),
+				anyLong(), anyString(), any(), anyInt())).thenThrow(new IllegalStateException("deadlock"));
+
+		service.backfillOnStartup();
+
+		verify(completedMigrationRepository, never()).save(any());
+	}
+
+	@Test
+	void upsertsUseTheRowAliasInsteadOfDeprecatedValuesFunction() throws Exception {
+		for (String name : new String[] {"upsertMessage", "upsertComputedSummary"}) {
+			Method method = null;
+			for (Method candidate : ConversationSummaryRepository.class.getMethods()) {
+				if (candidate.getName().equals(name)) {
+					method = candidate;
+				}
+			}
+			String sql = method.getAnnotation(Query.class).value();
+			assertThat(sql).contains("AS incoming").doesNotContain("VALUES(");
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package edu.cit.serbisyo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileStorageServiceTest {
+
+	private static final Function<FileStorageService.StoredFile, String> KEEP_EXTENSION =
+			FileStorageService.StoredFile::getExtension;
+
+	@TempDir
+	Path uploads;
+
+	private FileStorageService service;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		service = new FileStorageService();
+		ReflectionTestUtils.setField(service, "uploadDir", uploads.toString());
+		ReflectionTestUtils.setField(service, "maxSize", DataSize.ofBytes(16));
+		service.init();
+	}
+
+	@Test
+	void oversizedStreamIsRejectedEvenWhenTheDeclaredSizeIsSmall() throws IOException {
+		MockMultipartFile upload = new MockMultipartFile("file", "a.png", "image/png", new byte[0]) {
+			@Override
+			public long getSize() {
+				return 1;
+			}
+
+			@Override
+			public boolean isEmpty() {
+				return false;
+			}
+
+			@Override
+			public InputStream getInputStream() {
+				return new ByteArrayInputStream(new byte[17]);
+			}
+		};
+
+		assertThatThrownBy(() -> service.store(upload, KEEP_EXTENSION))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("maximum upload size");
+		assertThat(storedFiles()).isZero();
+	}
+
+	@Test
+	void emptyUploadIsRejected() {
+		MockMultipartFile upload = new MockMultipartFile("file", "a.png", "image/png", new byte[0]);
+
+		assertThatThrownBy(() -> service.store(upload, KEEP_EXTENSION))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("No file was uploaded.");
+	}
+
+	@Test
+	void onlyShortAlphanumericExtensionsAreKept() throws IOException {
+		assertThat(extensionStoredFor("photo.PNG")).isEqualTo(".png");
+		assertThat(extensionStoredFor("shell.php.jpg")).isEqualTo(".jpg");
+		assertThat(extensionStoredFor("page.ht-ml")).isEmpty();
+		assertThat(extensionStoredFor("archive.abcdefghijk")).isEmpty();
+		assertThat(extensionStoredFor("trailing.")).isEmpty();
+		assertThat(extensionStoredFor("noextension")).isEmpty();
+	}
+
+	@Test
+	void fileIsStoredUnderTheExtensionTheClaimReturns() throws IOException {
+		MockMultipartFile upload = new MockMultipartFile("file", "a.jpeg", "image/jpeg", new byte[] {1, 2, 3});
+
+		FileStorageService.StoredFile stored = service.store(upload, file -> ".jpg");
+
+		assertThat(stored.getExtension()).isEqualTo(".jpg");
+		assertThat(stored.getSize()).isEqualTo(3);
+		String hash = stored.getHash();
+		assertThat(uploads.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash + ".jpg")).exists();
+	}
+
+	private String extensionStoredFor(String originalFilename) throws IOException {
+		MockMultipartFile upload = new MockMultipartFile("file", originalFilename, null, new byte[] {1});
+		return service.store(upload, KEEP_EXTENSION).getExtension();
+	}
+
+	// Every file under the uploads directory, temp files included
+	private long storedFiles() throws IOException {
+		try (Stream<Path> files = Files.walk(uploads)) {
+			return files.filter(Files::isRegularFile).count();
+		}
+	}
+}
@@ -0,0 +1,116 @@
+package edu.cit.serbisyo.service;
+
+import edu.cit.serbisyo.entity.StoredBlobEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ImageVariantServiceTest {
+
+	private static final String KEY = "cd".repeat(32);
+
+	@TempDir
+	Path uploads;
+
+	private FileStorageService fileStorageService;
+	private ImageVariantService service;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		fileStorageService = new FileStorageService();
+		ReflectionTestUtils.setField(fileStorageService, "uploadDir", uploads.toString());
+		fileStorageService.init();
+
+		service = new ImageVariantService();
+		ReflectionTestUtils.setField(service, "fileStorageService", fileStorageService);
+		ReflectionTestUtils.setField(service, "threads", 1);
+		ReflectionTestUtils.setField(service, "queueCapacity", 10);
+		ReflectionTestUtils.setField(service, "maxPixels", 40_000_000L);
+		ReflectionTestUtils.setField(service, "jpegQuality", 0.8f);
+		ReflectionTestUtils.setField(service, "unsupportedTtlMinutes", 60L);
+		ReflectionTestUtils.setField(service, "unsupportedMaxEntries", 10);
+		service.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.stop();
+	}
+
+	@Test
+	void decodableImageGetsEveryVariant() throws IOException {
+		Path original = original(".png");
+		ImageIO.write(new BufferedImage(400, 200, BufferedImage.TYPE_INT_ARGB), "png", original.toFile());
+
+		generate(".png");
+
+		for (ImageVariantService.Variant variant : ImageVariantService.Variant.values()) {
+			assertThat(fileStorageService.resolve(ImageVariantService.variantPath(KEY, ".png", variant))).exists();
+		}
+		assertThat(service.getStats()).containsEntry("generated", 1L).containsEntry("unsupported", 0);
+	}
+
+	@Test
+	void undecodableContentIsRemembered() throws IOException {
+		Files.write(original(".jpg"), new byte[] {1, 2, 3, 4});
+
+		generate(".jpg");
+
+		assertThat(isUnsupported()).isTrue();
+		assertThat(service.getStats()).containsEntry("skipped", 1L);
+	}
+
+	@Test
+	void missingFileIsRetriedOnTheNextRequest() {
+		generate(".jpg");
+
+		assertThat(isUnsupported()).isFalse();
+		assertThat(service.getStats()).containsEntry("failed", 1L);
+	}
+
+	@Test
+	void rememberedBlobsExpire() {
+		ReflectionTestUtils.setField(service, "unsupportedTtlMinutes", 0L);
+
+		ReflectionTestUtils.invokeMethod(service, "markUnsupported", KEY);
+
+		assertThat(isUnsupported()).isFalse();
+	}
+
+	@Test
+	void rememberedBlobsStayWithinTheLimit() {
+		for (int i = 0; i < 25; i++) {
+			ReflectionTestUtils.invokeMethod(service, "markUnsupported", "blob-" + i);
+		}
+
+		Map<String, Object> stats = service.getStats();
+		assertThat((Integer) stats.get("unsupported")).isLessThanOrEqualTo(10);
+		// The newest entry is kept
+		assertThat((Boolean) ReflectionTestUtils.invokeMethod(service, "isUnsupported", "blob-24")).isTrue();
+	}
+
+	private Path original(String extension) throws IOException {
+		Path original = fileStorageService.resolve(StoredBlobEntity.relativePath(KEY, extension));
+		Files.createDirectories(original.getParent());
+		return original;
+	}
+
+	private void generate(String extension) {
+		ReflectionTestUtils.invokeMethod(service, "generate", KEY, extension);
+	}
+
+	private boolean isUnsupported() {
+		return ReflectionTestUtils.invokeMethod(service, "isUnsupported", KEY);
+	}
+}
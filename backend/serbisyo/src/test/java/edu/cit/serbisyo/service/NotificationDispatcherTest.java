@@ -0,0 +1,130 @@
+package edu.cit.serbisyo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationDispatcherTest {
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	@Mock
+	private PushService pushService;
+
+	@Mock
+	private UnreadNotificationCounter unreadCounter;
+
+	@InjectMocks
+	private NotificationDispatcher dispatcher;
+
+	@TempDir
+	Path tempDir;
+
+	private Path deadLetterFile;
+
+	@BeforeEach
+	void setUp() {
+		deadLetterFile = tempDir.resolve(".notifications").resolve("dead-letter.jsonl");
+		ReflectionTestUtils.setField(dispatcher, "maxAttempts", 3);
+		ReflectionTestUtils.setField(dispatcher, "retryBackoffMs", 1L);
+		ReflectionTestUtils.setField(dispatcher, "maxReplays", 2);
+		ReflectionTestUtils.setField(dispatcher, "deadLetterFile", deadLetterFile.toString());
+	}
+
+	@Test
+	void transientFailureIsRetried() {
+		AtomicInteger calls = new AtomicInteger();
+		when(jdbcTemplate.batchUpdate(anyString(), ArgumentMatchers.<Collection<NotificationEvent>>any(), anyInt(), any())).thenAnswer(invocation -> {
+			if (calls.incrementAndGet() < 3) {
+				throw new DataAccessResourceFailureException("connection reset");
+			}
+			return new int[][] {{1, 1}};
+		});
+
+		write(List.of(event(1L), event(2L)));
+
+		assertThat(calls.get()).isEqualTo(3);
+		verify(unreadCounter).increment(1L);
+		verify(unreadCounter).increment(2L);
+		assertThat(Files.exists(deadLetterFile)).isFalse();
+	}
+
+	@Test
+	void badRowIsDeadLetteredWithoutLosingTheRestAndReplayedLater() throws Exception {
+		// Every write containing user 99 fails
+		when(jdbcTemplate.batchUpdate(anyString(), ArgumentMatchers.<Collection<NotificationEvent>>any(), anyInt(), any())).thenAnswer(invocation -> {
+			Collection<NotificationEvent> events = invocation.getArgument(1);
+			if (events.stream().anyMatch(event -> event.getRecipientUserId() == 99L)) {
+				throw new DataAccessResourceFailureException("foreign key");
+			}
+			return new int[][] {{1}};
+		});
+
+		write(List.of(event(1L), event(99L), event(2L)));
+
+		verify(unreadCounter).increment(1L);
+		verify(unreadCounter).increment(2L);
+		verify(unreadCounter, never()).increment(99L);
+		assertThat(Files.readAllLines(deadLetterFile)).hasSize(1).allMatch(line -> line.contains("\"recipientUserId\":99"));
+
+		// Still failing: the row is kept for the next replay
+		assertThat(dispatcher.replayDeadLetters()).isZero();
+		assertThat(Files.readAllLines(deadLetterFile)).hasSize(1).allMatch(line -> line.contains("\"replays\":1"));
+
+		// Reached max-replays: dropped
+		assertThat(dispatcher.replayDeadLetters()).isZero();
+		assertThat(Files.exists(deadLetterFile)).isFalse();
+	}
+
+	@Test
+	void replayWritesDeadLettersOnceTheDatabaseIsBack() {
+		when(jdbcTemplate.batchUpdate(anyString(), ArgumentMatchers.<Collection<NotificationEvent>>any(), anyInt(), any()))
+				.thenThrow(new DataAccessResourceFailureException("down"));
+		write(List.of(event(5L)));
+		assertThat(Files.exists(deadLetterFile)).isTrue();
+
+		// doReturn, so re-stubbing does not call the method that is currently stubbed to throw
+		doReturn(new int[][] {{1}}).when(jdbcTemplate)
+				.batchUpdate(anyString(), ArgumentMatchers.<Collection<NotificationEvent>>any(), anyInt(), any());
+		assertThat(dispatcher.replayDeadLetters()).isEqualTo(1);
+
+		verify(unreadCounter, times(1)).increment(5L);
+		verify(pushService).publish(eq(5L), eq("notification"), any());
+		assertThat(Files.exists(deadLetterFile)).isFalse();
+	}
+
+	private void write(List<NotificationEvent> events) {
+		ReflectionTestUtils.invokeMethod(dispatcher, "writeBatch", events);
+	}
+
+	private static NotificationEvent event(Long recipient) {
+		return new NotificationEvent(recipient, "booking", "hello " + recipient, 10L, "Booking");
+	}
+}
@@ -0,0 +1,98 @@
+package edu.cit.serbisyo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PushServiceTest {
+
+	private PushService pushService;
+
+	@BeforeEach
+	void setUp() {
+		pushService = new PushService();
+		ReflectionTestUtils.setField(pushService, "emitterTimeoutMs", 60_000L);
+		ReflectionTestUtils.setField(pushService, "maxConnectionsPerUser", 5);
+	}
+
+	@Test
+	void connectionLimitHoldsUnderConcurrentSubscribes() throws Exception {
+		int threads = 40;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Boolean>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < threads; i++) {
+				results.add(pool.submit(() -> {
+					start.await();
+					try {
+						pushService.subscribe(1L);
+						return true;
+					} catch (IllegalStateException e) {
+						return false;
+					}
+				}));
+			}
+			start.countDown();
+			int opened = 0;
+			for (Future<Boolean> result : results) {
+				if (result.get(10, TimeUnit.SECONDS)) {
+					opened++;
+				}
+			}
+			assertThat(opened).isEqualTo(5);
+			assertThat(emitters().get(1L)).hasSize(5);
+			assertThat(pushService.getStats()).containsEntry("openConnections", 5);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void subscribeRacingTheLastRemoveIsNeverOrphaned() throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			for (int i = 0; i < 500; i++) {
+				SseEmitter first = pushService.subscribe(2L);
+				CountDownLatch start = new CountDownLatch(1);
+				Future<?> removal = pool.submit(() -> {
+					start.await();
+					ReflectionTestUtils.invokeMethod(pushService, "remove", 2L, first);
+					return null;
+				});
+				Future<SseEmitter> second = pool.submit(() -> {
+					start.await();
+					return pushService.subscribe(2L);
+				});
+				start.countDown();
+				removal.get(5, TimeUnit.SECONDS);
+				SseEmitter added = second.get(5, TimeUnit.SECONDS);
+
+				assertThat(emitters().get(2L)).containsExactly(added);
+				ReflectionTestUtils.invokeMethod(pushService, "remove", 2L, added);
+				assertThat(emitters()).doesNotContainKey(2L);
+			}
+			assertThat(pushService.getStats()).containsEntry("openConnections", 0);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private Map<Long, Set<SseEmitter>> emitters() {
+		return (Map<Long, Set<SseEmitter>>) ReflectionTestUtils.getField(pushService, "emittersByUser");
+	}
+}
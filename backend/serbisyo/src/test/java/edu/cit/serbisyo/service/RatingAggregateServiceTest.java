@@ -0,0 +1,99 @@
+package edu.cit.serbisyo.service;
+
+import edu.cit.serbisyo.entity.BookingEntity;
+import edu.cit.serbisyo.entity.ReviewEntity;
+import edu.cit.serbisyo.entity.ServiceEntity;
+import edu.cit.serbisyo.entity.ServiceProviderEntity;
+import edu.cit.serbisyo.repository.BookingRepository;
+import edu.cit.serbisyo.repository.ReviewRepository;
+import edu.cit.serbisyo.repository.ServiceProviderRepository;
+import edu.cit.serbisyo.repository.ServiceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RatingAggregateServiceTest {
+
+	@Mock
+	private ServiceRepository serviceRepository;
+
+	@Mock
+	private ServiceProviderRepository serviceProviderRepository;
+
+	@Mock
+	private ReviewRepository reviewRepository;
+
+	@Mock
+	private BookingRepository bookingRepository;
+
+	@InjectMocks
+	private RatingAggregateService ratingAggregateService;
+
+	@InjectMocks
+	private ReviewService reviewService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(reviewService, "ratingAggregateService", ratingAggregateService);
+	}
+
+	@Test
+	void reviewWithBookingStubStillUpdatesTheServiceAggregate() {
+		ServiceEntity service = new ServiceEntity();
+		service.setServiceId(11L);
+		BookingEntity booking = new BookingEntity();
+		booking.setBookingId(5L);
+		booking.setService(service);
+		when(bookingRepository.findById(5L)).thenReturn(Optional.of(booking));
+		when(reviewRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		// What /api/reviews/create receives: only ids
+		BookingEntity bookingStub = new BookingEntity();
+		bookingStub.setBookingId(5L);
+		ServiceProviderEntity provider = new ServiceProviderEntity();
+		provider.setProviderId(3L);
+		ReviewEntity review = new ReviewEntity();
+		review.setBooking(bookingStub);
+		review.setProvider(provider);
+		review.setRating(4);
+
+		reviewService.createReview(review);
+
+		verify(serviceRepository).adjustRating(11L, 4L, 1);
+		verify(serviceProviderRepository).adjustRating(3L, 4L, 1);
+	}
+
+	@Test
+	void startupSkipsTheRebuildOnceAggregatesExist() {
+		RatingAggregateService service = spy(ratingAggregateService);
+		when(reviewRepository.count()).thenReturn(10L);
+		when(serviceRepository.existsByRatingCountGreaterThan(0)).thenReturn(true);
+
+		service.buildIfMissing();
+
+		verify(service, never()).rebuildAll();
+	}
+
+	@Test
+	void startupSkipsTheRebuildWithoutReviews() {
+		RatingAggregateService service = spy(ratingAggregateService);
+		when(reviewRepository.count()).thenReturn(0L);
+
+		service.buildIfMissing();
+
+		verify(service, never()).rebuildAll();
+	}
+}
@@ -0,0 +1,186 @@
+package edu.cit.serbisyo.service;
+
+import edu.cit.serbisyo.config.JwtUtil;
+import edu.cit.serbisyo.entity.LoginCodeEntity;
+import edu.cit.serbisyo.entity.RefreshTokenEntity;
+import edu.cit.serbisyo.entity.UserAuthEntity;
+import edu.cit.serbisyo.repository.LoginCodeRepository;
+import edu.cit.serbisyo.repository.RefreshTokenRepository;
+import edu.cit.serbisyo.repository.UserAuthRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RefreshTokenServiceTest {
+
+	@Mock
+	private RefreshTokenRepository refreshTokenRepository;
+
+	@Mock
+	private LoginCodeRepository loginCodeRepository;
+
+	@Mock
+	private UserAuthRepository userAuthRepository;
+
+	@Mock
+	private JwtUtil jwtUtil;
+
+	@InjectMocks
+	private RefreshTokenService refreshTokenService;
+
+	// In-memory stand-ins for the RefreshToken and LoginCode tables
+	private final List<RefreshTokenEntity> tokens = new ArrayList<>();
+	private final Map<String, LoginCodeEntity> codes = new ConcurrentHashMap<>();
+	private UserAuthEntity user;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(refreshTokenService, "refreshTokenTtlDays", 30L);
+		ReflectionTestUtils.setField(refreshTokenService, "loginCodeTtlSeconds", 60L);
+		ReflectionTestUtils.setField(refreshTokenService, "streamTicketTtlSeconds", 30L);
+
+		user = new UserAuthEntity();
+		user.setUserId(7L);
+		user.setUserName("maria");
+		user.setEmail("maria@example.com");
+		user.setRole("Customer");
+		when(userAuthRepository.findById(7L)).thenAnswer(inv -> Optional.ofNullable(user));
+		when(jwtUtil.generateToken(anyString(), anyString(), anyString()))
+				.thenAnswer(inv -> "access:" + inv.getArgument(0) + ":" + inv.getArgument(2));
+
+		when(refreshTokenRepository.save(any(RefreshTokenEntity.class))).thenAnswer(inv -> {
+			RefreshTokenEntity token = inv.getArgument(0);
+			token.setTokenId((long) tokens.size() + 1);
+			tokens.add(token);
+			return token;
+		});
+		when(refreshTokenRepository.findByTokenHash(anyString())).thenAnswer(inv -> tokens.stream()
+				.filter(t -> t.getTokenHash().equals(inv.getArgument(0))).findFirst());
+		when(refreshTokenRepository.markUsed(anyLong(), any())).thenAnswer(inv -> {
+			RefreshTokenEntity token = tokens.get(((Long) inv.getArgument(0)).intValue() - 1);
+			if (token.getUsedAt() != null) {
+				return 0;
+			}
+			token.setUsedAt(inv.getArgument(1));
+			return 1;
+		});
+		when(refreshTokenRepository.revokeFamily(anyString())).thenAnswer(inv -> {
+			tokens.stream().filter(t -> t.getFamilyId().equals(inv.getArgument(0))).forEach(t -> t.setRevoked(true));
+			return 1;
+		});
+
+		when(loginCodeRepository.save(any(LoginCodeEntity.class))).thenAnswer(inv -> {
+			LoginCodeEntity code = inv.getArgument(0);
+			codes.put(code.getCodeHash(), code);
+			return code;
+		});
+		when(loginCodeRepository.findById(anyString())).thenAnswer(inv -> Optional.ofNullable(codes.get(inv.getArgument(0))));
+		when(loginCodeRepository.consume(anyString())).thenAnswer(inv -> codes.remove(inv.<String>getArgument(0)) != null ? 1 : 0);
+	}
+
+	@Test
+	void rotationKeepsTheFamilyExpiry() {
+		String first = refreshTokenService.issue(user);
+		LocalDateTime familyExpiry = tokens.get(0).getExpiresAt();
+
+		String second = refreshTokenService.refresh(first).get("refreshToken");
+		refreshTokenService.refresh(second);
+
+		assertThat(tokens).hasSize(3)
+				.allSatisfy(token -> assertThat(token.getExpiresAt()).isEqualTo(familyExpiry))
+				.extracting(RefreshTokenEntity::getFamilyId).containsOnly(tokens.get(0).getFamilyId());
+	}
+
+	@Test
+	void reusingAConsumedTokenRevokesTheWholeFamily() {
+		String first = refreshTokenService.issue(user);
+		String second = refreshTokenService.refresh(first).get("refreshToken");
+
+		assertThatThrownBy(() -> refreshTokenService.refresh(first))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("already been used");
+		assertThat(tokens).allMatch(RefreshTokenEntity::isRevoked);
+		assertThatThrownBy(() -> refreshTokenService.refresh(second))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("revoked");
+	}
+
+	@Test
+	void refreshUsesTheCurrentUserRow() {
+		String first = refreshTokenService.issue(user);
+		user.setRole("Service Provider");
+
+		Map<String, String> response = refreshTokenService.refresh(first);
+
+		assertThat(response).containsEntry("role", "Service Provider")
+				.containsEntry("token", "access:maria:Service Provider");
+	}
+
+	@Test
+	void refreshForADeletedUserIsRejected() {
+		String first = refreshTokenService.issue(user);
+		user = null;
+
+		assertThatThrownBy(() -> refreshTokenService.refresh(first)).isInstanceOf(IllegalArgumentException.class);
+		assertThat(tokens).allMatch(RefreshTokenEntity::isRevoked);
+	}
+
+	@Test
+	void loginCodeCanBeExchangedOnlyOnce() {
+		String code = refreshTokenService.issueLoginCode(user);
+
+		Map<String, String> response = refreshTokenService.exchangeLoginCode(code);
+
+		assertThat(response).containsEntry("userId", "7").containsKey("refreshToken");
+		assertThat(refreshTokenService.refresh(response.get("refreshToken"))).containsKey("token");
+		assertThatThrownBy(() -> refreshTokenService.exchangeLoginCode(code)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void streamTicketIsSingleUseAndShortLived() {
+		String ticket = refreshTokenService.issueStreamTicket(7L);
+
+		assertThat(codes.values()).singleElement().satisfies(code ->
+				assertThat(code.getExpiresAt()).isBefore(LocalDateTime.now().plusSeconds(31)));
+		assertThat(refreshTokenService.consumeStreamTicket(ticket)).isEqualTo(7L);
+		assertThatThrownBy(() -> refreshTokenService.consumeStreamTicket(ticket))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void codesAreOnlyAcceptedForTheirOwnPurpose() {
+		String ticket = refreshTokenService.issueStreamTicket(7L);
+		String loginCode = refreshTokenService.issueLoginCode(user);
+
+		assertThatThrownBy(() -> refreshTokenService.exchangeLoginCode(ticket))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid login code");
+		assertThatThrownBy(() -> refreshTokenService.consumeStreamTicket(loginCode))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessage("Invalid stream ticket");
+		assertThat(codes).hasSize(2);
+		assertThat(tokens).isEmpty();
+	}
+}
@@ -0,0 +1,33 @@
+package edu.cit.serbisyo.service;
+
+import edu.cit.serbisyo.repository.ScheduleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleServiceTest {
+
+	@Mock
+	private ScheduleRepository scheduleRepository;
+
+	@Mock
+	private SlotReservationService slotReservationService;
+
+	@InjectMocks
+	private ScheduleService scheduleService;
+
+	@Test
+	void unparsableTimeIsRejectedInsteadOfReportedAvailable() {
+		assertThatThrownBy(() -> scheduleService.isProviderAvailable(1L, LocalDate.of(2026, 3, 2), "9am"))
+				.isInstanceOf(IllegalArgumentException.class);
+		verifyNoInteractions(slotReservationService);
+	}
+}
@@ -0,0 +1,131 @@
+package edu.cit.serbisyo.service;
+
+import edu.cit.serbisyo.entity.ScheduleEntity;
+import edu.cit.serbisyo.entity.SlotReservationEntity;
+import edu.cit.serbisyo.repository.ScheduleRepository;
+import edu.cit.serbisyo.repository.SlotReservationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class SlotReservationServiceTest {
+
+	private static final Long PROVIDER_ID = 7L;
+	private static final LocalDate DATE = LocalDate.of(2026, 3, 2);
+	private static final LocalTime SLOT_START = LocalTime.of(9, 0);
+
+	@Mock
+	private SlotReservationRepository slotReservationRepository;
+
+	@Mock
+	private ScheduleRepository scheduleRepository;
+
+	@InjectMocks
+	private SlotReservationService slotReservationService;
+
+	// Stands in for the unique key on (providerId, slotDate, startTime)
+	private final Map<String, SlotReservationEntity> reserved = new ConcurrentHashMap<>();
+
+	@BeforeEach
+	void setUp() {
+		ScheduleEntity slot = new ScheduleEntity();
+		slot.setStartTime(SLOT_START);
+		slot.setEndTime(LocalTime.of(10, 0));
+		slot.setDayOfWeek(DayOfWeek.MONDAY);
+
+		when(scheduleRepository.findByServiceProviderProviderIdAndDayOfWeekAndStartTime(anyLong(), any(), any()))
+				.thenReturn(List.of());
+		when(scheduleRepository.findByServiceProviderProviderIdAndDayOfWeekAndStartTimeLessThanEqualAndEndTimeGreaterThanEqual(
+				eq(PROVIDER_ID), eq(DayOfWeek.MONDAY), any(), any()))
+				.thenReturn(List.of(slot));
+		when(slotReservationRepository.saveAndFlush(any())).thenAnswer(invocation -> {
+			SlotReservationEntity reservation = invocation.getArgument(0);
+			String key = reservation.getProviderId() + "|" + reservation.getSlotDate() + "|" + reservation.getStartTime();
+			if (reserved.putIfAbsent(key, reservation) != null) {
+				throw new DataIntegrityViolationException("Duplicate entry " + key);
+			}
+			return reservation;
+		});
+	}
+
+	@Test
+	void concurrentBookingsForOneSlotLetExactlyOneThrough() throws Exception {
+		int threads = 32;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Boolean>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < threads; i++) {
+				long bookingId = i + 1;
+				// Spread the requested times across the slot: all of them must collide on its start
+				LocalTime time = SLOT_START.plusMinutes(i % 60);
+				results.add(pool.submit(() -> {
+					start.await();
+					try {
+						slotReservationService.reserve(PROVIDER_ID, DATE, time, bookingId);
+						return true;
+					} catch (SlotConflictException e) {
+						return false;
+					}
+				}));
+			}
+			start.countDown();
+
+			int succeeded = 0;
+			for (Future<Boolean> result : results) {
+				if (result.get(10, TimeUnit.SECONDS)) {
+					succeeded++;
+				}
+			}
+			assertThat(succeeded).isEqualTo(1);
+			assertThat(reserved).hasSize(1);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	void secondReservationOfSameSlotIsAConflict() {
+		slotReservationService.reserve(PROVIDER_ID, DATE, SLOT_START, 1L);
+
+		assertThatThrownBy(() -> slotReservationService.reserve(PROVIDER_ID, DATE, LocalTime.of(9, 30), 2L))
+				.isInstanceOf(SlotConflictException.class)
+				.hasMessageContaining(DATE.toString());
+	}
+
+	@Test
+	void sameSlotOnAnotherDateIsIndependent() {
+		slotReservationService.reserve(PROVIDER_ID, DATE, SLOT_START, 1L);
+		slotReservationService.reserve(PROVIDER_ID, DATE.plusWeeks(1), SLOT_START, 2L);
+
+		assertThat(reserved).hasSize(2);
+	}
+}
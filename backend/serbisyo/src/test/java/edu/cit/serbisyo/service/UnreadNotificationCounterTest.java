@@ -0,0 +1,89 @@
+package edu.cit.serbisyo.service;
+
+import edu.cit.serbisyo.config.BoundedExpiringMap;
+import edu.cit.serbisyo.repository.NotificationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadNotificationCounterTest {
+
+	@Mock
+	private NotificationRepository notificationRepository;
+
+	@InjectMocks
+	private UnreadNotificationCounter counter;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(counter, "ttlSeconds", 60L);
+		ReflectionTestUtils.setField(counter, "maxUsers", 10);
+	}
+
+	@AfterEach
+	void clearSynchronization() {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void changesWaitForCommitAndAreDroppedOnRollback() {
+		when(notificationRepository.countUnreadByUserId(1L)).thenReturn(3L);
+		assertThat(counter.get(1L)).isEqualTo(3);
+
+		// Rolled back: nothing applied
+		TransactionSynchronizationManager.initSynchronization();
+		counter.increment(1L);
+		assertThat(counter.get(1L)).isEqualTo(3);
+		TransactionSynchronizationUtils.invokeAfterCompletion(
+				TransactionSynchronizationManager.getSynchronizations(), TransactionSynchronization.STATUS_ROLLED_BACK);
+		TransactionSynchronizationManager.clearSynchronization();
+		assertThat(counter.get(1L)).isEqualTo(3);
+
+		// Committed: applied after commit
+		TransactionSynchronizationManager.initSynchronization();
+		counter.increment(1L);
+		counter.increment(1L);
+		TransactionSynchronizationUtils.invokeAfterCommit(TransactionSynchronizationManager.getSynchronizations());
+		TransactionSynchronizationManager.clearSynchronization();
+		assertThat(counter.get(1L)).isEqualTo(5);
+	}
+
+	@Test
+	void expiredEntriesAreRecounted() {
+		ReflectionTestUtils.setField(counter, "ttlSeconds", 0L);
+		when(notificationRepository.countUnreadByUserId(1L)).thenReturn(2L, 7L);
+
+		assertThat(counter.get(1L)).isEqualTo(2);
+		assertThat(counter.get(1L)).isEqualTo(7);
+		verify(notificationRepository, times(2)).countUnreadByUserId(1L);
+	}
+
+	@Test
+	void trackedUsersAreBounded() {
+		when(notificationRepository.countUnreadByUserId(anyLong())).thenReturn(1L);
+
+		for (long userId = 1; userId <= 100; userId++) {
+			counter.get(userId);
+		}
+
+		BoundedExpiringMap<?, ?> counts = (BoundedExpiringMap<?, ?>) ReflectionTestUtils.getField(counter, "counts");
+		assertThat(counts.size()).isLessThanOrEqualTo(10);
+	}
+}
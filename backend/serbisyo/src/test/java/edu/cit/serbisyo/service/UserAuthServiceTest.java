@@ -0,0 +1,207 @@
+package edu.cit.serbisyo.service;
+
+import edu.cit.serbisyo.config.JwtPrincipalCache;
+import edu.cit.serbisyo.config.JwtUtil;
+import edu.cit.serbisyo.entity.UserAuthEntity;
+import edu.cit.serbisyo.repository.CustomerRepository;
+import edu.cit.serbisyo.repository.ServiceProviderRepository;
+import edu.cit.serbisyo.repository.UserAuthRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.access.AccessDeniedException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserAuthServiceTest {
+
+	@Mock
+	private UserAuthRepository userAuthRepository;
+
+	@Mock
+	private CustomerRepository customerRepository;
+
+	@Mock
+	private ServiceProviderRepository serviceProviderRepository;
+
+	@Mock
+	private JwtUtil jwtUtil;
+
+	@Mock
+	private JwtPrincipalCache principalCache;
+
+	@Mock
+	private PasswordHashingService passwordHashingService;
+
+	@Mock
+	private RefreshTokenService refreshTokenService;
+
+	@InjectMocks
+	private UserAuthService userAuthService;
+
+	@Test
+	void updateRevokesAccessAndRefreshTokens() {
+		UserAuthEntity existing = user(3L, "maria");
+		when(userAuthRepository.existsById(3L)).thenReturn(true);
+		when(userAuthRepository.findById(3L)).thenReturn(Optional.of(existing));
+
+		userAuthService.updateUserAuth(3L, user(null, "maria.santos"), "maria", false);
+
+		verify(jwtUtil).revokeAllForUser("maria");
+		verify(refreshTokenService).revokeAllForUser(3L);
+		verify(principalCache).evict("maria");
+	}
+
+	@Test
+	void nonAdminCannotMakeThemselvesAdmin() {
+		when(userAuthRepository.existsById(3L)).thenReturn(true);
+		when(userAuthRepository.findById(3L)).thenReturn(Optional.of(user(3L, "maria")));
+		UserAuthEntity update = user(null, "maria");
+		update.setRole("Admin");
+
+		assertThatThrownBy(() -> userAuthService.updateUserAuth(3L, update, "maria", false))
+				.isInstanceOf(IllegalArgumentException.class);
+		update.setRole(" admin ");
+		assertThatThrownBy(() -> userAuthService.updateUserAuth(3L, update, "maria", false))
+				.isInstanceOf(IllegalArgumentException.class);
+		verify(userAuthRepository, never()).save(any());
+	}
+
+	@Test
+	void adminMayAssignTheAdminRole() {
+		UserAuthEntity existing = user(3L, "root");
+		when(userAuthRepository.existsById(3L)).thenReturn(true);
+		when(userAuthRepository.findById(3L)).thenReturn(Optional.of(existing));
+		UserAuthEntity update = user(null, "root");
+		update.setRole("Admin");
+
+		userAuthService.updateUserAuth(3L, update, "root", true);
+
+		assertThat(existing.getRole()).isEqualTo("Admin");
+	}
+
+	@Test
+	void updateWithoutPasswordKeepsTheCurrentHash() {
+		UserAuthEntity existing = user(3L, "maria");
+		existing.setPassword("$2a$hash");
+		when(userAuthRepository.existsById(3L)).thenReturn(true);
+		when(userAuthRepository.findById(3L)).thenReturn(Optional.of(existing));
+		UserAuthEntity update = user(null, "maria");
+		update.setPassword(null);
+
+		userAuthService.updateUserAuth(3L, update, "maria", false);
+
+		assertThat(existing.getPassword()).isEqualTo("$2a$hash");
+		verify(passwordHashingService, never()).encode(any());
+	}
+
+	@Test
+	void onlyTheOwnerCanUpdateAnAccount() {
+		when(userAuthRepository.existsById(3L)).thenReturn(true);
+		when(userAuthRepository.findById(3L)).thenReturn(Optional.of(user(3L, "maria")));
+
+		assertThatThrownBy(() -> userAuthService.updateUserAuth(3L, user(null, "maria"), "juan", false))
+				.isInstanceOf(AccessDeniedException.class);
+		verify(userAuthRepository, never()).save(any());
+	}
+
+	@Test
+	void deleteRevokesAccessAndRefreshTokens() {
+		when(userAuthRepository.findById(3L)).thenReturn(Optional.of(user(3L, "maria")));
+
+		userAuthService.deleteUserAuth(3L);
+
+		verify(jwtUtil).revokeAllForUser("maria");
+		verify(refreshTokenService).revokeAllForUser(3L);
+	}
+
+	@Test
+	void backfillFallsBackToPerRowUpdatesAndSkipsCollisions() {
+		when(userAuthRepository.backfillNormalizedColumns()).thenThrow(new DataIntegrityViolationException("duplicate"));
+		when(userAuthRepository.findIdsMissingNormalizedColumns()).thenReturn(List.of(1L, 2L)).thenReturn(List.of(2L));
+		when(userAuthRepository.normalizeUserName(1L)).thenReturn(1);
+		when(userAuthRepository.normalizeEmail(1L)).thenReturn(1);
+		when(userAuthRepository.normalizeUserName(2L)).thenThrow(new DataIntegrityViolationException("duplicate"));
+		when(userAuthRepository.normalizeEmail(2L)).thenReturn(1);
+
+		userAuthService.backfillNormalizedColumns();
+
+		verify(userAuthRepository).normalizeUserName(1L);
+		verify(userAuthRepository).normalizeEmail(1L);
+		// A username collision does not stop the same row's email from being normalized
+		verify(userAuthRepository).normalizeEmail(2L);
+	}
+
+	@Test
+	void conflictsNameTheAccountHoldingTheValue() {
+		UserAuthEntity holder = user(1L, "maria");
+		UserAuthEntity duplicate = user(2L, "Maria");
+		when(userAuthRepository.findMissingNormalizedColumns()).thenReturn(List.of(duplicate));
+		when(userAuthRepository.findByUserName("Maria")).thenReturn(holder);
+		when(userAuthRepository.findByEmail("Maria@example.com")).thenReturn(holder);
+
+		List<Map<String, Object>> conflicts = userAuthService.getNormalizationConflicts();
+
+		assertThat(conflicts).singleElement().satisfies(conflict -> assertThat(conflict)
+				.containsEntry("userId", 2L).containsEntry("userNameTakenBy", 1L).containsEntry("emailTakenBy", 1L));
+	}
+
+	@Test
+	void renamingACollidingAccountNormalizesItAndRevokesItsTokens() {
+		UserAuthEntity duplicate = user(2L, "Maria");
+		when(userAuthRepository.findById(2L)).thenReturn(Optional.of(duplicate));
+		when(userAuthRepository.findConflicting("maria2@example.com", "maria2")).thenReturn(List.of());
+		when(userAuthRepository.saveAndFlush(duplicate)).thenReturn(duplicate);
+
+		userAuthService.resolveNormalizationConflict(2L, "Maria2", "maria2@example.com");
+
+		assertThat(duplicate.getUserName()).isEqualTo("Maria2");
+		verify(userAuthRepository).saveAndFlush(duplicate);
+		verify(jwtUtil).revokeAllForUser("Maria");
+	}
+
+	@Test
+	void renamingToAValueStillTakenIsAConflict() {
+		UserAuthEntity duplicate = user(2L, "Maria");
+		when(userAuthRepository.findById(2L)).thenReturn(Optional.of(duplicate));
+		when(userAuthRepository.findConflicting("maria@example.com", "maria")).thenReturn(List.of(user(1L, "maria")));
+
+		assertThatThrownBy(() -> userAuthService.resolveNormalizationConflict(2L, null, "maria@example.com"))
+				.isInstanceOf(IllegalStateException.class);
+		verify(userAuthRepository, never()).saveAndFlush(any());
+	}
+
+	@Test
+	void concurrentCaseVariantRegistrationSurfacesTheUniqueKeyViolation() {
+		when(userAuthRepository.findConflicting(anyString(), anyString())).thenReturn(List.of());
+		when(passwordHashingService.encode("secret")).thenReturn("hash");
+		when(userAuthRepository.save(any(UserAuthEntity.class))).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+		assertThatThrownBy(() -> userAuthService.registerUser(user(null, "Maria"), null, null))
+				.isInstanceOf(DataIntegrityViolationException.class);
+	}
+
+	private static UserAuthEntity user(Long userId, String userName) {
+		UserAuthEntity user = new UserAuthEntity();
+		user.setUserId(userId);
+		user.setUserName(userName);
+		user.setEmail(userName + "@example.com");
+		user.setPassword("secret");
+		user.setRole("Customer");
+		return user;
+	}
+}
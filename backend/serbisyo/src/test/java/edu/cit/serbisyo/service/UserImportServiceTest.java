@@ -0,0 +1,177 @@
+package edu.cit.serbisyo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class UserImportServiceTest {
+
+	private static final String HEADER = "userName,email,password,role,firstName,lastName,businessName\n";
+
+	@Mock
+	private JdbcTemplate jdbcTemplate;
+
+	@Mock
+	private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+	@Mock
+	private PasswordHashingService passwordHashingService;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@InjectMocks
+	private UserImportService service;
+
+	// Parameters bound for every inserted row, per table
+	private final Map<String, List<Map<Integer, Object>>> inserted = new HashMap<>();
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		ReflectionTestUtils.setField(service, "transactionTemplate", new TransactionTemplate(transactionManager));
+		ReflectionTestUtils.setField(service, "batchSize", 500);
+		ReflectionTestUtils.setField(service, "maxReportedErrors", 1000);
+		when(passwordHashingService.encodeAll(any())).thenAnswer(invocation ->
+				invocation.<List<String>>getArgument(0).stream().map(password -> "hash:" + password).toList());
+		// Ids for the batched user inserts, read back by user name
+		doAnswer(invocation -> {
+			String sql = invocation.getArgument(0);
+			if (sql.startsWith("SELECT normalized_user_name, user_id")) {
+				MapSqlParameterSource params = invocation.getArgument(1);
+				RowCallbackHandler handler = invocation.getArgument(2);
+				long userId = 1;
+				for (Object userName : (List<?>) params.getValue("keys")) {
+					long id = userId++;
+					handler.processRow(mock(ResultSet.class,
+							call -> "getString".equals(call.getMethod().getName()) ? userName : id));
+				}
+			}
+			return null;
+		}).when(namedJdbcTemplate).query(anyString(), any(SqlParameterSource.class), any(RowCallbackHandler.class));
+		doAnswer(invocation -> {
+			String sql = invocation.getArgument(0);
+			Collection<Object> rows = invocation.getArgument(1);
+			ParameterizedPreparedStatementSetter<Object> setter = invocation.getArgument(3);
+			List<Map<Integer, Object>> bound = new ArrayList<>();
+			for (Object row : rows) {
+				Map<Integer, Object> values = new HashMap<>();
+				PreparedStatement ps = mock(PreparedStatement.class, call -> {
+					if (call.getArguments().length == 2) {
+						values.put(call.getArgument(0), call.getArgument(1));
+					}
+					return null;
+				});
+				setter.setValues(ps, row);
+				if ("bad".equals(values.get(1))) {
+					throw new DataIntegrityViolationException("Data too long for column");
+				}
+				bound.add(values);
+			}
+			inserted.computeIfAbsent(sql.split(" ")[2], table -> new ArrayList<>()).addAll(bound);
+			return new int[][] {};
+		}).when(jdbcTemplate).batchUpdate(anyString(), ArgumentMatchers.<Collection<Object>>any(), anyInt(),
+				ArgumentMatchers.<ParameterizedPreparedStatementSetter<Object>>any());
+	}
+
+	@Test
+	void quotedFieldsKeepCommasQuotesAndLineBreaks() throws IOException {
+		Map<String, Object> report = importCsv(HEADER +
+				"juan,juan@example.com,secret,Service Provider,Juan,\"Dela Cruz, Jr.\",\"The \"\"Best\"\" Plumbing\nand Repairs\"\n");
+
+		assertThat(report).containsEntry("total", 1).containsEntry("imported", 1).containsEntry("failed", 0);
+		Map<Integer, Object> provider = inserted.get("service_provider").get(0);
+		assertThat(provider).containsEntry(2, "Juan")
+				.containsEntry(3, "Dela Cruz, Jr.")
+				.containsEntry(5, "The \"Best\" Plumbing\nand Repairs");
+		assertThat(inserted.get("user_auth").get(0)).containsEntry(2, "hash:secret");
+	}
+
+	@Test
+	void byteOrderMarkOnTheHeaderIsIgnored() throws IOException {
+		Map<String, Object> report = importCsv("\uFEFF" + HEADER + "juan,juan@example.com,secret,Customer,Juan,Cruz,\n");
+
+		assertThat(report).containsEntry("imported", 1);
+		assertThat(inserted.get("user_auth").get(0)).containsEntry(1, "juan");
+	}
+
+	@Test
+	void duplicateRowsWithinTheFileAreRejected() throws IOException {
+		Map<String, Object> report = importCsv(HEADER +
+				"juan,juan@example.com,secret,Customer,Juan,Cruz,\n" +
+				"maria,JUAN@example.com,secret,Customer,Maria,Cruz,\n" +
+				"Juan,juan2@example.com,secret,Customer,Juan,Santos,\n");
+
+		assertThat(report).containsEntry("total", 3).containsEntry("imported", 1).containsEntry("failed", 2);
+		assertThat(errors(report)).extracting(error -> error.get("row"), error -> error.get("error")).containsExactly(
+				tuple(2, "Email appears more than once in the file"),
+				tuple(3, "Username appears more than once in the file"));
+		assertThat(inserted.get("user_auth")).hasSize(1);
+	}
+
+	@Test
+	void failedChunkFallsBackToOneInsertPerRow() throws IOException {
+		Map<String, Object> report = importCsv(HEADER +
+				"juan,juan@example.com,secret,Customer,Juan,Cruz,\n" +
+				"bad,bad@example.com,secret,Customer,Bad,Row,\n" +
+				"maria,maria@example.com,secret,Customer,Maria,Cruz,\n");
+
+		assertThat(report).containsEntry("imported", 2).containsEntry("failed", 1);
+		assertThat(errors(report)).singleElement().satisfies(error -> {
+			assertThat(error).containsEntry("row", 2).containsEntry("email", "bad@example.com");
+			assertThat((String) error.get("error")).startsWith("Insert failed");
+		});
+		assertThat(inserted.get("user_auth")).extracting(row -> row.get(1)).containsExactly("juan", "maria");
+		// The whole chunk, then each of its three rows
+		verify(transactionManager, times(4)).getTransaction(any());
+	}
+
+	private Map<String, Object> importCsv(String csv) throws IOException {
+		return service.importCsv(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	@SuppressWarnings("unchecked")
+	private static List<Map<String, Object>> errors(Map<String, Object> report) {
+		return (List<Map<String, Object>>) report.get("errors");
+	}
+}